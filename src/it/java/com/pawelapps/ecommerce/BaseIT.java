@@ -7,7 +7,16 @@ import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.BindMode;
 import org.testcontainers.containers.MySQLContainer;
 
-@SpringBootTest
+/**
+ * Runs with statement diagnostics in test mode: a GET endpoint that runs more than ten statements in one
+ * request fails the test, which catches N+1 queries introduced by new mappings or lazy associations.
+ */
+@SpringBootTest(properties = {
+        "ecommerce.diagnostics.enabled=true",
+        "ecommerce.diagnostics.fail-on-violation=true",
+        "ecommerce.diagnostics.default-statement-budget=10",
+        "ecommerce.outbox.sink=memory"
+})
 public abstract class BaseIT {
 
     private static MySQLContainer mySQLContainer = new MySQLContainer("mysql:8.0.33");
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
 import com.pawelapps.ecommerce.BaseIT;
 import com.pawelapps.ecommerce.dto.CartProductDto;
+import com.pawelapps.ecommerce.dto.ProductDto;
 import com.pawelapps.ecommerce.entity.*;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
@@ -88,7 +89,7 @@ public class CartProductControllerIT extends BaseIT {
 
             @BeforeEach
             void setUp() {
-                cartProductDto1 = CartProductDto.builder().product(product1).name(product1.getName()).quantity(1)
+                cartProductDto1 = CartProductDto.builder().product(ProductDto.builder().id(product1.getId()).name(product1.getName()).build()).name(product1.getName()).quantity(1)
                         .build();
             }
 
@@ -99,7 +100,7 @@ public class CartProductControllerIT extends BaseIT {
                                 .content(objectMapper.writeValueAsString(cartProductDto1)))
                         .andExpect(status().isForbidden());
 
-                assertNull(cartProductDto1.getCartProductId());
+                assertNull(cartProductDto1.cartProductId());
             }
 
             @Test
@@ -3,7 +3,7 @@ package com.pawelapps.ecommerce.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
 import com.pawelapps.ecommerce.BaseIT;
-import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.dto.*;
 import com.pawelapps.ecommerce.entity.*;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
@@ -23,11 +23,13 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -117,6 +119,7 @@ public class OrderControllerIT extends BaseIT {
                 .build();
 
         order1 = Order.builder()
+                .dateCreated(LocalDateTime.now())
                 .user(authorizedUser)
                 .customer(customer1)
                 .shippingAddress(shippingAddress1)
@@ -146,7 +149,7 @@ public class OrderControllerIT extends BaseIT {
                 .totalQuantityOfProducts(3)
                 .build();
 
-        order2 = Order.builder().user(authorizedUser).customer(customer2).shippingAddress(shippingAddress2).summary(summary2).build();
+        order2 = Order.builder().dateCreated(LocalDateTime.now().minusDays(1)).user(authorizedUser).customer(customer2).shippingAddress(shippingAddress2).summary(summary2).build();
         order2.addOrderProduct(orderProduct1);
         order2.addOrderProduct(orderProduct2);
 
@@ -185,18 +188,18 @@ public class OrderControllerIT extends BaseIT {
 
     @Nested
     class SaveOrderTests {
-        private Customer customerForSave;
+        private CustomerDto customerForSave;
 
         private ProductCategory productCategory;
         private Product product1;
         private Product product2;
 
         private OrderDto authorizedUserOrderDtoForSave;
-        private ShippingAddress shippingAddressForSave;
-        private Summary summaryForSave;
-        private OrderProduct orderProductForSave1;
-        private OrderProduct orderProductForSave2;
-        private List<OrderProduct> orderProductsForSave;
+        private ShippingAddressDto shippingAddressForSave;
+        private SummaryDto summaryForSave;
+        private OrderProductDto orderProductForSave1;
+        private OrderProductDto orderProductForSave2;
+        private List<OrderProductDto> orderProductsForSave;
 
         @BeforeEach
         void setUp() {
@@ -220,31 +223,31 @@ public class OrderControllerIT extends BaseIT {
             entityManager.persist(product2);
             entityManager.flush();
 
-            User authorizedUserForSave = User.builder()
+            UserDto authorizedUserForSave = UserDto.builder()
                     .email(authorizedUserEmail)
                     .build();
 
-            customerForSave = Customer.builder()
+            customerForSave = CustomerDto.builder()
                     .firstName("Saved First Name")
                     .lastName("Saved Last Name")
                     .phoneNumber(123456789)
                     .email("email1@example.com")
                     .build();
 
-            shippingAddressForSave = ShippingAddress.builder()
+            shippingAddressForSave = ShippingAddressDto.builder()
                     .city("Saved City")
                     .country("Saved Country")
                     .zipCode("12-345")
                     .streetAddress("Saved Street")
                     .build();
 
-            summaryForSave = Summary.builder()
+            summaryForSave = SummaryDto.builder()
                     .totalCartValue(BigDecimal.valueOf(3))
                     .totalQuantityOfProducts(3)
                     .build();
 
-            orderProductForSave1 = OrderProduct.builder()
-                    .product(product1)
+            orderProductForSave1 = OrderProductDto.builder()
+                    .product(ProductDto.builder().id(product1.getId()).name(product1.getName()).build())
                     .name(product1.getName())
                     .description(product1.getDescription())
                     .quantity(2)
@@ -252,8 +255,8 @@ public class OrderControllerIT extends BaseIT {
                     .build();
 
 
-            orderProductForSave2 = OrderProduct.builder()
-                    .product(product2)
+            orderProductForSave2 = OrderProductDto.builder()
+                    .product(ProductDto.builder().id(product2.getId()).name(product2.getName()).build())
                     .name(product2.getName())
                     .description(product2.getDescription())
                     .quantity(1)
@@ -304,7 +307,7 @@ public class OrderControllerIT extends BaseIT {
         @Test
         @WithAnonymousUser
         void shouldSaveOrderForAnonymousUser() throws Exception {
-            User anonymousUserForSave = User.builder()
+            UserDto anonymousUserForSave = UserDto.builder()
                     .email(anonymousUserEmail)
                     .build();
 
@@ -364,6 +367,28 @@ public class OrderControllerIT extends BaseIT {
             testAuthorizedFind();
         }
 
+        @Test
+        @WithMockUser(authorizedUserEmail)
+        void shouldPageOrdersNewestFirst() throws Exception {
+            MvcResult firstPage = mockMvc.perform(MockMvcRequestBuilders.get(findOrderByUserEmailUri)
+                            .param("userEmail", authorizedUserEmail)
+                            .param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$.[0].id").value(order1.getId()))
+                    .andExpect(header().exists(OrderController.NEXT_CURSOR_HEADER))
+                    .andReturn();
+
+            mockMvc.perform(MockMvcRequestBuilders.get(findOrderByUserEmailUri)
+                            .param("userEmail", authorizedUserEmail)
+                            .param("size", "1")
+                            .param("cursor", firstPage.getResponse().getHeader(OrderController.NEXT_CURSOR_HEADER)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$.[0].id").value(order2.getId()))
+                    .andExpect(header().doesNotExist(OrderController.NEXT_CURSOR_HEADER));
+        }
+
         @Test
         @WithMockUser(unauthorizedUserEmail)
         void shouldNotFindOrderForUnauthorizedUser() throws Exception {
@@ -3,6 +3,7 @@ package com.pawelapps.ecommerce.dao;
 import com.pawelapps.ecommerce.BaseIT;
 import com.pawelapps.ecommerce.entity.Cart;
 import com.pawelapps.ecommerce.entity.CartProduct;
+import com.pawelapps.ecommerce.entity.Product;
 import com.pawelapps.ecommerce.entity.User;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
@@ -58,6 +59,22 @@ public class CartProductRepositoryIT extends BaseIT {
         assertEquals(2, cartProducts.size(), "List should have two cart products");
     }
 
+    @Test
+    void testUpsertCartProductMergesLinesOfSameProduct() {
+        Product product = Product.builder().sku("upsert-1").name("Test product").unitsInStock(10).build();
+        entityManager.persist(product);
+        entityManager.flush();
+
+        cartProductRepository.upsertCartProduct(cart.getId(), product.getId(), 1, "Test product", null, null, null);
+        cartProductRepository.upsertCartProduct(cart.getId(), product.getId(), 2, "Test product", null, null, null);
+        entityManager.clear();
+
+        CartProduct cartProduct = cartProductRepository.findByCartIdAndProductId(cart.getId(), product.getId()).orElse(null);
+        assertNotNull(cartProduct, "Cart product should be inserted");
+        assertEquals(3, cartProduct.getQuantity(), "Second add should increase quantity of the existing line");
+        assertEquals(3, cartProductRepository.findCartProductsByCartId(cart.getId()).size(), "No duplicate line should be inserted");
+    }
+
     @Test
     void testIncreaseCartProductQuantityByOne() {
         String userEmail = "test@example.com";
@@ -0,0 +1,35 @@
+package com.pawelapps.ecommerce.cache;
+
+import com.pawelapps.ecommerce.dto.SummaryDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Priced summary of each cart, keyed by cart id. A cart is evicted whenever one of its items changes and
+ * the whole cache is cleared when product prices change.
+ */
+@Component
+public class CartSummaryCache {
+
+    private final TransactionalLruCache<Long, SummaryDto> entries;
+
+    @Autowired
+    public CartSummaryCache(@Value("${ecommerce.cart-summary-cache.max-entries:10000}") int maxEntries) {
+        this.entries = new TransactionalLruCache<>(maxEntries);
+    }
+
+    public SummaryDto get(Long cartId, Supplier<SummaryDto> loader) {
+        return entries.get(cartId, loader);
+    }
+
+    public void evict(Long cartId) {
+        entries.evict(cartId);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
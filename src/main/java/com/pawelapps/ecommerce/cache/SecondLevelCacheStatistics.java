@@ -0,0 +1,55 @@
+package com.pawelapps.ecommerce.cache;
+
+import com.pawelapps.ecommerce.dto.CacheRegionStatisticsDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-region counters of the Hibernate second-level cache. Counters are only collected while
+ * ecommerce.l2-cache.statistics is enabled, otherwise every region reports zero.
+ */
+@Component
+public class SecondLevelCacheStatistics {
+
+    private final SessionFactory sessionFactory;
+
+    @Autowired
+    public SecondLevelCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public List<CacheRegionStatisticsDto> getRegionStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+
+        List<CacheRegionStatisticsDto> regionStatistics = new ArrayList<>(regionNames.length);
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            long lookups = region.getHitCount() + region.getMissCount();
+            regionStatistics.add(CacheRegionStatisticsDto.builder()
+                    .regionName(regionName)
+                    .hitCount(region.getHitCount())
+                    .missCount(region.getMissCount())
+                    .putCount(region.getPutCount())
+                    .hitRatio(lookups == 0 ? 0 : (double) region.getHitCount() / lookups)
+                    .build());
+        }
+        return regionStatistics;
+    }
+
+    public void clear() {
+        sessionFactory.getStatistics().clear();
+    }
+}
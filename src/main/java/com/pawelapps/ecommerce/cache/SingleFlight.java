@@ -0,0 +1,74 @@
+package com.pawelapps.ecommerce.cache;
+
+import com.pawelapps.ecommerce.dto.CoalescingStatisticsDto;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the loader, callers arriving while
+ * it runs wait for and share its result or exception. Nothing is kept once the call finishes, so this
+ * only removes duplicate in-flight work and never serves stale data.
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder callCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        callCount.increment();
+        if (running != null) {
+            return await(running);
+        }
+
+        loadCount.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    public CoalescingStatisticsDto getStatistics() {
+        long calls = callCount.sum();
+        long loads = loadCount.sum();
+        return CoalescingStatisticsDto.builder()
+                .name(name)
+                .callCount(calls)
+                .loadCount(loads)
+                .sharedCount(calls - loads)
+                .coalescingRatio(calls == 0 ? 0 : (double) (calls - loads) / calls)
+                .build();
+    }
+}
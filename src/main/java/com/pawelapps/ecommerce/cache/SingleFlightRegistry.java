@@ -0,0 +1,26 @@
+package com.pawelapps.ecommerce.cache;
+
+import com.pawelapps.ecommerce.dto.CoalescingStatisticsDto;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Creates the application's {@link SingleFlight}s and collects their statistics for the admin endpoint.
+ */
+@Component
+public class SingleFlightRegistry {
+
+    private final List<SingleFlight<?, ?>> singleFlights = new CopyOnWriteArrayList<>();
+
+    public <K, V> SingleFlight<K, V> create(String name) {
+        SingleFlight<K, V> singleFlight = new SingleFlight<>(name);
+        singleFlights.add(singleFlight);
+        return singleFlight;
+    }
+
+    public List<CoalescingStatisticsDto> getStatistics() {
+        return singleFlights.stream().map(SingleFlight::getStatistics).toList();
+    }
+}
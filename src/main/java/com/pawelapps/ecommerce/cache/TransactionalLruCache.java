@@ -0,0 +1,88 @@
+package com.pawelapps.ecommerce.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU map for values read from the database. A loaded value is only stored once the loading
+ * transaction commits and only if nothing was evicted since the load started, so a value read before a
+ * concurrent change commits is never cached after it. Evictions apply immediately and again once the
+ * evicting transaction commits.
+ */
+public class TransactionalLruCache<K, V> {
+
+    private final Map<K, V> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    public TransactionalLruCache(int maxEntries) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        return get(key, loader, value -> true);
+    }
+
+    /**
+     * @param cacheable whether a loaded value may be stored
+     */
+    public V get(K key, Supplier<V> loader, Predicate<V> cacheable) {
+        V cached = entries.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadedAtGeneration = generation.get();
+        V value = loader.get();
+        if (cacheable.test(value)) {
+            runAfterCommit(() -> {
+                if (generation.get() == loadedAtGeneration) {
+                    entries.put(key, value);
+                }
+            });
+        }
+        return value;
+    }
+
+    public void evict(K key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+        runAfterCommit(() -> {
+            generation.incrementAndGet();
+            entries.remove(key);
+        });
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+        runAfterCommit(() -> {
+            generation.incrementAndGet();
+            entries.clear();
+        });
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
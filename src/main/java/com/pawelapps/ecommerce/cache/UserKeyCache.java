@@ -0,0 +1,52 @@
+package com.pawelapps.ecommerce.cache;
+
+import com.pawelapps.ecommerce.dao.CartRepository;
+import com.pawelapps.ecommerce.dao.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Resolves a user email to the surrogate keys of its user rows and cart, so cart and order
+ * queries can filter on the cart_id / user_id foreign keys instead of joining through user.email.
+ * Entries are only stored once the loading transaction commits and are dropped whenever a user
+ * or cart for that email is created or deleted.
+ */
+@Component
+public class UserKeyCache {
+
+    private final UserRepository userRepository;
+    private final CartRepository cartRepository;
+    private final TransactionalLruCache<String, UserKeys> entries;
+
+    @Autowired
+    public UserKeyCache(UserRepository userRepository, CartRepository cartRepository,
+                        @Value("${ecommerce.user-key-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.cartRepository = cartRepository;
+        this.entries = new TransactionalLruCache<>(maxEntries);
+    }
+
+    public UserKeys resolve(String email) {
+        return entries.get(email, () -> {
+            List<Long> cartIds = cartRepository.findIdsByUserEmail(email);
+            return new UserKeys(userRepository.findIdsByEmail(email), cartIds.isEmpty() ? null : cartIds.get(0));
+        }, userKeys -> !userKeys.userIds().isEmpty());
+    }
+
+    public void evict(String email) {
+        entries.evict(email);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public record UserKeys(List<Long> userIds, Long cartId) {
+        public boolean hasCart() {
+            return cartId != null;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.pawelapps.ecommerce.catalog;
+
+import com.pawelapps.ecommerce.exception.InvalidImportException;
+import org.springframework.http.MediaType;
+
+public enum ProductFileFormat {
+    /**
+     * RFC 4180 CSV with a header row naming the {@link ProductRow} fields.
+     */
+    CSV(new MediaType("text", "csv")),
+    /**
+     * One {@link ProductRow} JSON object per line.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    ProductFileFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static ProductFileFormat fromMediaType(String contentType) {
+        MediaType requested = MediaType.parseMediaType(contentType);
+        for (ProductFileFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(requested)) {
+                return format;
+            }
+        }
+        throw new InvalidImportException("Unsupported catalog format " + contentType);
+    }
+}
@@ -0,0 +1,190 @@
+package com.pawelapps.ecommerce.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pawelapps.ecommerce.exception.InvalidImportException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Streams a catalog file one record at a time. Reading only splits the input into records, the records
+ * are turned into {@link ProductRow}s by {@link #parse(String)}, which is thread-safe so a batch of
+ * records can be parsed in parallel.
+ */
+public class ProductFileReader {
+
+    private final BufferedReader reader;
+    private final ProductFileFormat format;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long lineNumber;
+    private long recordLine;
+    private String record;
+
+    public ProductFileReader(Reader reader, ProductFileFormat format, ObjectMapper objectMapper) throws IOException {
+        this.reader = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == ProductFileFormat.CSV) {
+            readHeader();
+        }
+    }
+
+    private void readHeader() throws IOException {
+        if (!next()) {
+            throw new InvalidImportException("CSV file has no header row");
+        }
+        List<String> header = splitCsv(record);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        if (!columns.containsKey("sku")) {
+            throw new InvalidImportException("CSV header has no sku column");
+        }
+    }
+
+    /**
+     * Advances to the next non-blank record.
+     *
+     * @return false at the end of the input
+     */
+    public boolean next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                record = null;
+                return false;
+            }
+        } while (line.isBlank());
+
+        recordLine = lineNumber;
+        if (format == ProductFileFormat.CSV) {
+            // a quoted CSV field may span lines, so keep reading while a quote is open
+            StringBuilder csvRecord = new StringBuilder(line);
+            while (countQuotes(csvRecord) % 2 != 0) {
+                String continuation = reader.readLine();
+                if (continuation == null) {
+                    break;
+                }
+                lineNumber++;
+                csvRecord.append('\n').append(continuation);
+            }
+            line = csvRecord.toString();
+        }
+        record = line;
+        return true;
+    }
+
+    /**
+     * @return the line number the current record starts on
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    public String getRecord() {
+        return record;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the record is malformed
+     */
+    public ProductRow parse(String record) {
+        if (format == ProductFileFormat.NDJSON) {
+            try {
+                return objectMapper.readValue(record, ProductRow.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        List<String> fields = splitCsv(record);
+        return new ProductRow(
+                field(fields, "sku"),
+                field(fields, "name"),
+                field(fields, "description"),
+                parse(fields, "unitPrice", BigDecimal::new),
+                field(fields, "imageUrl"),
+                parse(fields, "active", ProductFileReader::parseBoolean),
+                parse(fields, "unitsInStock", Integer::valueOf),
+                parse(fields, "categoryId", Long::valueOf));
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private <T> T parse(List<String> fields, String column, Function<String, T> parser) {
+        String value = field(fields, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        }
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true") || value.equals("1")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false") || value.equals("0")) {
+            return false;
+        }
+        throw new IllegalArgumentException(value);
+    }
+
+    private static int countQuotes(CharSequence text) {
+        int quotes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    static List<String> splitCsv(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
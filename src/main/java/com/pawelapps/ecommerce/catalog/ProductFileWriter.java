@@ -0,0 +1,55 @@
+package com.pawelapps.ecommerce.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes catalog files in the layout {@link ProductFileReader} reads, so an export can be edited and
+ * imported again.
+ */
+public class ProductFileWriter {
+
+    static final String CSV_HEADER = "sku,name,description,unitPrice,imageUrl,active,unitsInStock,categoryId";
+
+    private final Writer writer;
+    private final ProductFileFormat format;
+    private final ObjectMapper objectMapper;
+
+    public ProductFileWriter(Writer writer, ProductFileFormat format, ObjectMapper objectMapper) throws IOException {
+        this.writer = writer;
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == ProductFileFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    public void write(ProductRow productRow) throws IOException {
+        if (format == ProductFileFormat.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(productRow));
+        } else {
+            writer.write(Stream.of(productRow.sku(), productRow.name(), productRow.description(), productRow.unitPrice(),
+                            productRow.imageUrl(), productRow.active(), productRow.unitsInStock(), productRow.categoryId())
+                    .map(value -> value == null ? "" : escapeCsv(Objects.toString(value)))
+                    .collect(Collectors.joining(",")));
+        }
+        writer.write('\n');
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
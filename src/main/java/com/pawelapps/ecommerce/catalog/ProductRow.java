@@ -0,0 +1,17 @@
+package com.pawelapps.ecommerce.catalog;
+
+import java.math.BigDecimal;
+
+/**
+ * One product of a catalog file. Products are matched by sku; optional fields that are left out keep
+ * their current value when the product already exists.
+ */
+public record ProductRow(String sku,
+                         String name,
+                         String description,
+                         BigDecimal unitPrice,
+                         String imageUrl,
+                         Boolean active,
+                         Integer unitsInStock,
+                         Long categoryId) {
+}
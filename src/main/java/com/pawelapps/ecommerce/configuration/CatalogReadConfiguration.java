@@ -0,0 +1,41 @@
+package com.pawelapps.ecommerce.configuration;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Worker pool of asynchronous request processing: the asynchronous catalog reads and every streamed
+ * response body. It is sized like the connection pool share catalog reads may take, so Tomcat threads are
+ * returned to the container while queries run and a burst of catalog traffic queues here, up to
+ * {@code queue-capacity}, instead of occupying every request thread. The pool is registered with MVC rather
+ * than exposed as a bean; an {@code Executor} bean would replace Boot's application task executor.
+ */
+@Configuration
+public class CatalogReadConfiguration implements WebMvcConfigurer, DisposableBean {
+
+    private final ThreadPoolTaskExecutor catalogReadExecutor = new ThreadPoolTaskExecutor();
+
+    public CatalogReadConfiguration(@Value("${ecommerce.catalog-read.pool-size:8}") int poolSize,
+                                    @Value("${ecommerce.catalog-read.queue-capacity:500}") int queueCapacity) {
+        catalogReadExecutor.setCorePoolSize(poolSize);
+        catalogReadExecutor.setMaxPoolSize(poolSize);
+        catalogReadExecutor.setQueueCapacity(queueCapacity);
+        catalogReadExecutor.setThreadNamePrefix("catalog-read-");
+        catalogReadExecutor.setDaemon(true);
+        catalogReadExecutor.initialize();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(catalogReadExecutor);
+    }
+
+    @Override
+    public void destroy() {
+        catalogReadExecutor.shutdown();
+    }
+}
@@ -1,5 +1,6 @@
 package com.pawelapps.ecommerce.configuration;
 
+import com.pawelapps.ecommerce.controller.OrderController;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -16,7 +17,8 @@ public class CorsConfiguration {
                 registry.addMapping("/**")
                         .allowedOrigins("*")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
-                        .allowedHeaders("*"); // Enable CORS for the whole application.
+                        .allowedHeaders("*") // Enable CORS for the whole application.
+                        .exposedHeaders(OrderController.NEXT_CURSOR_HEADER);
             }
         };
     }
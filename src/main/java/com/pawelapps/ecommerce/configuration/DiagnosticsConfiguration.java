@@ -0,0 +1,39 @@
+package com.pawelapps.ecommerce.configuration;
+
+import com.pawelapps.ecommerce.diagnostics.DiagnosticsProperties;
+import com.pawelapps.ecommerce.diagnostics.StatementDiagnostics;
+import com.pawelapps.ecommerce.diagnostics.StatementDiagnosticsFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Opt-in statement diagnostics, e.g.
+ * <pre>
+ * ecommerce.diagnostics.enabled=true
+ * ecommerce.diagnostics.default-statement-budget=10
+ * </pre>
+ * Statement counts per endpoint are logged and served by {@code GET /api/diagnostics/statements}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.diagnostics.enabled", havingValue = "true")
+@EnableConfigurationProperties(DiagnosticsProperties.class)
+public class DiagnosticsConfiguration {
+
+    @Bean
+    public StatementDiagnostics statementDiagnostics(DiagnosticsProperties diagnosticsProperties) {
+        return new StatementDiagnostics(diagnosticsProperties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementDiagnosticsFilter> statementDiagnosticsFilter(StatementDiagnostics statementDiagnostics,
+                                                                                        DiagnosticsProperties diagnosticsProperties) {
+        FilterRegistrationBean<StatementDiagnosticsFilter> registration = new FilterRegistrationBean<>(
+                new StatementDiagnosticsFilter(statementDiagnostics, diagnosticsProperties.isFailOnViolation()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,21 @@
+package com.pawelapps.ecommerce.configuration;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Stops the application as soon as it is ready, for training runs such as the class data sharing archive
+ * dump of the Dockerfile ({@code application-cds-training.properties}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.startup.exit-when-ready", havingValue = "true")
+public class ExitWhenReadyConfiguration {
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void exit(ApplicationReadyEvent event) {
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -0,0 +1,50 @@
+package com.pawelapps.ecommerce.configuration;
+
+import com.pawelapps.ecommerce.ratelimit.AdaptiveConcurrencyLimiter;
+import com.pawelapps.ecommerce.ratelimit.ClientRateLimiter;
+import com.pawelapps.ecommerce.ratelimit.LoadShedder;
+import com.pawelapps.ecommerce.ratelimit.RateLimitFilter;
+import com.pawelapps.ecommerce.ratelimit.RateLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in rate limiting and load shedding, e.g.
+ * <pre>
+ * ecommerce.rate-limit.enabled=true
+ * ecommerce.rate-limit.groups.expensive.capacity=20
+ * ecommerce.rate-limit.groups.expensive.refill-per-second=2
+ * ecommerce.rate-limit.concurrency.checkout-headroom=0.2
+ * </pre>
+ * Counters per endpoint group and the current concurrency limit are served by
+ * {@code GET /api/load-shedding/statistics}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.rate-limit.enabled", havingValue = "true")
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfiguration {
+
+    @Bean
+    public LoadShedder loadShedder(RateLimitProperties rateLimitProperties) {
+        return new LoadShedder(
+                new ClientRateLimiter(rateLimitProperties.getGroups(), rateLimitProperties.getMaxBuckets(), System::nanoTime),
+                new AdaptiveConcurrencyLimiter(rateLimitProperties.getConcurrency()),
+                System::nanoTime);
+    }
+
+    /**
+     * Runs right after Spring Security, so authenticated clients are limited per user and not per address.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(LoadShedder loadShedder, ApplicationAvailability applicationAvailability) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(loadShedder, applicationAvailability));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
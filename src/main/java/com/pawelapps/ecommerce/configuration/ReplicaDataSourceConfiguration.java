@@ -0,0 +1,86 @@
+package com.pawelapps.ecommerce.configuration;
+
+import com.pawelapps.ecommerce.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Active only when at least one replica is configured, e.g.
+ * <pre>
+ * ecommerce.datasource.replicas[0].url=jdbc:mysql://replica-1:3306/full-stack-ecommerce
+ * ecommerce.datasource.replicas[0].username=...
+ * ecommerce.datasource.replicas[0].password=...
+ * </pre>
+ * The primary keeps using the regular spring.datasource.* settings, replicas copy its spring.datasource.hikari.*
+ * settings.
+ * <p>
+ * Hibernate is switched to release connections after every transaction, otherwise the open-in-view
+ * EntityManager would keep the first connection of a request and route all later transactions to it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReplicaDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaDataSourceProperties replicaDataSourceProperties) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicaDataSourceProperties.Replica replica : replicaDataSourceProperties.getReplicas()) {
+            // same pool sizing, driver properties and metrics as the primary
+            HikariDataSource replicaDataSource = new HikariDataSource();
+            primaryDataSource.copyStateTo(replicaDataSource);
+            replicaDataSource.setJdbcUrl(replica.getUrl());
+            replicaDataSource.setUsername(replica.getUsername());
+            replicaDataSource.setPassword(replica.getPassword());
+            replicaDataSource.setPoolName("replica-" + replicas.size());
+            replicaDataSource.setReadOnly(true);
+            replicas.add(replicaDataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, ReplicaDataSourceConfiguration::currentUser,
+                replicaDataSourceProperties.getReadYourWritesWindowMs(), replicaDataSourceProperties.getReplicaRetryMs());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
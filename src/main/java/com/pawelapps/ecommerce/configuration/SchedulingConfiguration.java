@@ -0,0 +1,38 @@
+package com.pawelapps.ecommerce.configuration;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Runs {@code @Scheduled} methods on a small pool instead of Boot's single scheduler thread, so one slow
+ * task does not hold up the frequent ones (outbox relay, stock stream flushes, cart touch flushes).
+ * Long-running jobs still hand their runs to their own executor. The scheduler is not exposed as a bean:
+ * it is an {@code Executor} and would replace the application task executor.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration implements SchedulingConfigurer, DisposableBean {
+
+    private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+
+    public SchedulingConfiguration(@Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        taskScheduler.setPoolSize(poolSize);
+        taskScheduler.setThreadNamePrefix("scheduling-");
+        taskScheduler.initialize();
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.setTaskScheduler(taskScheduler);
+    }
+
+    @Override
+    public void destroy() {
+        taskScheduler.shutdown();
+    }
+}
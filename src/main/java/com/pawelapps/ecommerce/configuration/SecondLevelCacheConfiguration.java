@@ -0,0 +1,94 @@
+package com.pawelapps.ecommerce.configuration;
+
+import com.pawelapps.ecommerce.dao.ProductRepository;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for the read-mostly catalog: the product and product-category entities and
+ * the cached products-by-category query. Every region is created here with a bounded heap tier, plus an
+ * off-heap tier when ecommerce.l2-cache.off-heap-mb is above zero; Hibernate fails on start-up for a region
+ * that is not listed instead of creating an unbounded one.
+ * <p>
+ * Both entities use READ_WRITE, so a stock change made through the entity (decreaseProductQuantity) locks the
+ * cached product until the transaction completes, and every write to the product table invalidates cached
+ * query results through the update-timestamps region. Region hit/miss counters are exposed by
+ * {@link com.pawelapps.ecommerce.cache.SecondLevelCacheStatistics}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.l2-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfiguration {
+
+    private static final String PRODUCT_REGION = "product";
+    private static final String PRODUCT_CATEGORY_REGION = "product-category";
+    private static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${ecommerce.l2-cache.heap-entries:10000}") long heapEntries,
+                                              @Value("${ecommerce.l2-cache.query-heap-entries:1000}") long queryHeapEntries,
+                                              @Value("${ecommerce.l2-cache.off-heap-mb:0}") long offHeapMb,
+                                              @Value("${ecommerce.l2-cache.query-ttl-seconds:600}") long queryTtlSeconds) {
+        EhcacheCachingProvider cachingProvider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        // Own URI per application context, tests start several contexts in one JVM
+        CacheManager cacheManager = cachingProvider.getCacheManager(
+                URI.create("urn:ecommerce:l2-cache:" + UUID.randomUUID()), new DefaultConfiguration(getClass().getClassLoader()));
+
+        createRegion(cacheManager, PRODUCT_REGION, heapEntries, offHeapMb, null);
+        createRegion(cacheManager, PRODUCT_CATEGORY_REGION, heapEntries, offHeapMb, null);
+        createRegion(cacheManager, ProductRepository.PRODUCTS_BY_CATEGORY_REGION, queryHeapEntries, offHeapMb,
+                Duration.ofSeconds(queryTtlSeconds));
+        createRegion(cacheManager, DEFAULT_QUERY_RESULTS_REGION, queryHeapEntries, offHeapMb,
+                Duration.ofSeconds(queryTtlSeconds));
+        // One entry per table, must never be evicted before the query results that depend on it
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 1000, 0, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(CacheManager hibernateCacheManager,
+                                                          @Value("${ecommerce.l2-cache.statistics:true}") boolean statistics) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, statistics);
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String region, long heapEntries, long offHeapMb,
+                                     Duration timeToLive) {
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(heapEntries);
+        if (offHeapMb > 0) {
+            resourcePools = resourcePools.offheap(offHeapMb, MemoryUnit.MB);
+        }
+        CacheConfigurationBuilder<Object, Object> configuration =
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, resourcePools);
+        if (timeToLive != null) {
+            configuration = configuration.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive));
+        }
+        cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(configuration.build()));
+    }
+}
@@ -0,0 +1,26 @@
+package com.pawelapps.ecommerce.configuration;
+
+import com.pawelapps.ecommerce.datasource.SlowQueryLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Active when a threshold is configured, e.g.
+ * <pre>
+ * ecommerce.slow-query-log.threshold-ms=200
+ * ecommerce.slow-query-log.sample-rate=0.1
+ * </pre>
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.slow-query-log.threshold-ms")
+public class SlowQueryLogConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public SlowQueryLog slowQueryLog(@Value("${ecommerce.slow-query-log.threshold-ms}") long thresholdMillis,
+                                     @Value("${ecommerce.slow-query-log.sample-rate:1.0}") double sampleRate,
+                                     @Value("${ecommerce.slow-query-log.queue-capacity:1000}") int queueCapacity) {
+        return new SlowQueryLog(thresholdMillis, sampleRate, queueCapacity);
+    }
+}
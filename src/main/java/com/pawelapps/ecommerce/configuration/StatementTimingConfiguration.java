@@ -0,0 +1,34 @@
+package com.pawelapps.ecommerce.configuration;
+
+import com.pawelapps.ecommerce.datasource.StatementListener;
+import com.pawelapps.ecommerce.datasource.StatementTimingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Wraps the {@code dataSource} bean in a {@link StatementTimingDataSource} when any {@link StatementListener}
+ * (slow query log, statement diagnostics) is enabled. The bean is the routing proxy when replicas are
+ * configured, so every statement is reported exactly once whichever pool it runs on.
+ */
+@Configuration
+public class StatementTimingConfiguration {
+
+    @Bean
+    public static BeanPostProcessor statementTimingDataSourceWrapper(ObjectProvider<StatementListener> statementListeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    List<StatementListener> listeners = statementListeners.orderedStream().toList();
+                    return listeners.isEmpty() ? dataSource : new StatementTimingDataSource(dataSource, listeners);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.pawelapps.ecommerce.dto.AnalyticsPeriod;
+import com.pawelapps.ecommerce.dto.RevenuePeriodDto;
+import com.pawelapps.ecommerce.dto.SalesTotalDto;
+import com.pawelapps.ecommerce.service.OrderAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Admin order analytics. The range is inclusive and defaults to the last 30 days.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@PreAuthorize("hasAuthority('admin')")
+public class AnalyticsController {
+
+    private final OrderAnalyticsService orderAnalyticsService;
+
+    @Autowired
+    public AnalyticsController(OrderAnalyticsService orderAnalyticsService) {
+        this.orderAnalyticsService = orderAnalyticsService;
+    }
+
+    @GetMapping("/revenue")
+    public ResponseEntity<List<RevenuePeriodDto>> getRevenue(@RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                             @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                             @RequestParam(value = "period", defaultValue = "DAY") AnalyticsPeriod period) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        return new ResponseEntity<>(orderAnalyticsService.getRevenue(start(from, end), end, period), HttpStatus.OK);
+    }
+
+    @GetMapping("/products")
+    public ResponseEntity<List<SalesTotalDto>> getTopProducts(@RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                              @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        return new ResponseEntity<>(orderAnalyticsService.getTopProducts(start(from, end), end, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<List<SalesTotalDto>> getCategories(@RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                             @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        return new ResponseEntity<>(orderAnalyticsService.getCategories(start(from, end), end), HttpStatus.OK);
+    }
+
+    /**
+     * Rebuilds the rollups of all days before {@code before} (default today) from the order tables.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Integer> rebuild(@RequestParam(value = "before", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before) {
+        LocalDate today = LocalDate.now();
+        int daysRebuilt = orderAnalyticsService.rebuildBefore(before != null && before.isBefore(today) ? before : today);
+        return new ResponseEntity<>(daysRebuilt, HttpStatus.OK);
+    }
+
+    private LocalDate start(LocalDate from, LocalDate end) {
+        return from != null ? from : end.minusDays(29);
+    }
+}
@@ -0,0 +1,93 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.entity.ProductCategory;
+import com.pawelapps.ecommerce.service.ProductCategoryService;
+import com.pawelapps.ecommerce.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Non-blocking variants of the catalog reads of {@link ProductController} and
+ * {@link ProductCategoryController}. Queries run on the catalog read pool, the MVC async executor, while the
+ * request thread goes back to Tomcat, and the full product listing is streamed as NDJSON one keyset page at a time.
+ */
+@RestController
+@RequestMapping("/api")
+public class AsyncCatalogController {
+
+    private final ProductService productService;
+    private final ProductCategoryService productCategoryService;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final int streamPageSize;
+
+    @Autowired
+    public AsyncCatalogController(ProductService productService,
+                                  ProductCategoryService productCategoryService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${ecommerce.catalog-read.timeout-ms:10000}") long timeoutMillis,
+                                  @Value("${ecommerce.catalog-read.stream-page-size:200}") int streamPageSize) {
+        this.productService = productService;
+        this.productCategoryService = productCategoryService;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeoutMillis;
+        this.streamPageSize = streamPageSize;
+    }
+
+    @GetMapping("/products/async")
+    public WebAsyncTask<ResponseEntity<List<Product>>> getAllProducts() {
+        return async(() -> new ResponseEntity<>(productService.getAllProducts(), HttpStatus.OK));
+    }
+
+    @GetMapping("/products/async/{id}")
+    public WebAsyncTask<ResponseEntity<Product>> getProductById(@PathVariable("id") Long id) {
+        return async(() -> new ResponseEntity<>(productService.getProductById(id), HttpStatus.OK));
+    }
+
+    @GetMapping("/products/async/products-by-category-id/{id}")
+    public WebAsyncTask<ResponseEntity<List<Product>>> getProductsByCategoryId(@PathVariable("id") Long id) {
+        return async(() -> new ResponseEntity<>(productService.getProductsByCategoryId(id), HttpStatus.OK));
+    }
+
+    @GetMapping(value = "/products/async/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        StreamingResponseBody body = outputStream -> {
+            List<Product> page = productService.getProductsAfterId(0L, streamPageSize);
+            while (!page.isEmpty()) {
+                for (Product product : page) {
+                    outputStream.write(objectMapper.writeValueAsBytes(product));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                page = page.size() < streamPageSize ? List.of()
+                        : productService.getProductsAfterId(page.get(page.size() - 1).getId(), streamPageSize);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/product-categories/async")
+    public WebAsyncTask<ResponseEntity<List<ProductCategory>>> getAllProductCategories() {
+        return async(() -> new ResponseEntity<>(productCategoryService.getAllProductCategories(), HttpStatus.OK));
+    }
+
+    @GetMapping("/product-categories/async/{id}")
+    public WebAsyncTask<ResponseEntity<ProductCategory>> getProductCategoryById(@PathVariable("id") Long id) {
+        return async(() -> new ResponseEntity<>(productCategoryService.getProductCategoryById(id), HttpStatus.OK));
+    }
+
+    private <T> WebAsyncTask<T> async(Callable<T> callable) {
+        return new WebAsyncTask<>(timeoutMillis, callable);
+    }
+}
@@ -0,0 +1,41 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.pawelapps.ecommerce.cache.SecondLevelCacheStatistics;
+import com.pawelapps.ecommerce.cache.SingleFlightRegistry;
+import com.pawelapps.ecommerce.dto.CacheRegionStatisticsDto;
+import com.pawelapps.ecommerce.dto.CoalescingStatisticsDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class CacheController {
+
+    private final SecondLevelCacheStatistics secondLevelCacheStatistics;
+    private final SingleFlightRegistry singleFlightRegistry;
+
+    @Autowired
+    public CacheController(SecondLevelCacheStatistics secondLevelCacheStatistics, SingleFlightRegistry singleFlightRegistry) {
+        this.secondLevelCacheStatistics = secondLevelCacheStatistics;
+        this.singleFlightRegistry = singleFlightRegistry;
+    }
+
+    @GetMapping("/cache/statistics")
+    @PreAuthorize("hasAuthority('admin')")
+    public ResponseEntity<List<CacheRegionStatisticsDto>> getCacheStatistics() {
+        return new ResponseEntity<>(secondLevelCacheStatistics.getRegionStatistics(), HttpStatus.OK);
+    }
+
+    @GetMapping("/cache/coalescing-statistics")
+    @PreAuthorize("hasAuthority('admin')")
+    public ResponseEntity<List<CoalescingStatisticsDto>> getCoalescingStatistics() {
+        return new ResponseEntity<>(singleFlightRegistry.getStatistics(), HttpStatus.OK);
+    }
+}
@@ -1,6 +1,7 @@
 package com.pawelapps.ecommerce.controller;
 
 import com.pawelapps.ecommerce.dto.CartDto;
+import com.pawelapps.ecommerce.dto.SummaryDto;
 import com.pawelapps.ecommerce.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -26,4 +27,11 @@ public class CartController {
         CartDto cartDto = cartService.getCartByUserEmail(userEmail);
         return new ResponseEntity<>(cartDto, HttpStatus.OK);
     }
+
+    @GetMapping("/cart/{userEmail}/summary")
+    @PreAuthorize("#principal?.name == #userEmail")
+    public ResponseEntity<SummaryDto> getCartSummaryByUserEmail(@PathVariable("userEmail") String userEmail, Principal principal) {
+        SummaryDto summaryDto = cartService.getCartSummaryByUserEmail(userEmail);
+        return new ResponseEntity<>(summaryDto, HttpStatus.OK);
+    }
 }
@@ -0,0 +1,36 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.pawelapps.ecommerce.dto.CartExpiryStatusDto;
+import com.pawelapps.ecommerce.service.CartExpiryJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/cart-expiry")
+@PreAuthorize("hasAuthority('admin')")
+public class CartExpiryController {
+
+    private final CartExpiryJob cartExpiryJob;
+
+    @Autowired
+    public CartExpiryController(CartExpiryJob cartExpiryJob) {
+        this.cartExpiryJob = cartExpiryJob;
+    }
+
+    @GetMapping
+    public ResponseEntity<CartExpiryStatusDto> getStatus() {
+        return new ResponseEntity<>(cartExpiryJob.getStatus(), HttpStatus.OK);
+    }
+
+    @PostMapping
+    public ResponseEntity<CartExpiryStatusDto> startSweep() {
+        HttpStatus status = cartExpiryJob.startSweep() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return new ResponseEntity<>(cartExpiryJob.getStatus(), status);
+    }
+}
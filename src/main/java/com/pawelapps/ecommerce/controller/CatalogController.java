@@ -0,0 +1,48 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.pawelapps.ecommerce.catalog.ProductFileFormat;
+import com.pawelapps.ecommerce.dto.ProductImportReportDto;
+import com.pawelapps.ecommerce.service.ProductCatalogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Bulk catalog transfer for administrators. Files are CSV ({@code text/csv}) or NDJSON
+ * ({@code application/x-ndjson}) and are streamed in both directions.
+ */
+@RestController
+@RequestMapping("/api/catalog")
+@PreAuthorize("hasAuthority('admin')")
+public class CatalogController {
+
+    private final ProductCatalogService productCatalogService;
+
+    @Autowired
+    public CatalogController(ProductCatalogService productCatalogService) {
+        this.productCatalogService = productCatalogService;
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ProductImportReportDto> importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                 InputStream inputStream) throws IOException {
+        ProductImportReportDto report = productCatalogService.importProducts(inputStream, ProductFileFormat.fromMediaType(contentType));
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(value = "format", defaultValue = "CSV") ProductFileFormat format) {
+        StreamingResponseBody body = outputStream -> productCatalogService.exportProducts(outputStream, format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + format.name().toLowerCase() + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,31 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.pawelapps.ecommerce.datasource.ConnectionPoolMetrics;
+import com.pawelapps.ecommerce.dto.ConnectionPoolStatisticsDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class ConnectionPoolController {
+
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+
+    @Autowired
+    public ConnectionPoolController(ConnectionPoolMetrics connectionPoolMetrics) {
+        this.connectionPoolMetrics = connectionPoolMetrics;
+    }
+
+    @GetMapping("/connection-pools/statistics")
+    @PreAuthorize("hasAuthority('admin')")
+    public ResponseEntity<List<ConnectionPoolStatisticsDto>> getConnectionPoolStatistics() {
+        return new ResponseEntity<>(connectionPoolMetrics.getPoolStatistics(), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,41 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.pawelapps.ecommerce.diagnostics.StatementDiagnostics;
+import com.pawelapps.ecommerce.dto.EndpointStatementStatisticsDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@ConditionalOnProperty(name = "ecommerce.diagnostics.enabled", havingValue = "true")
+public class DiagnosticsController {
+
+    private final StatementDiagnostics statementDiagnostics;
+
+    @Autowired
+    public DiagnosticsController(StatementDiagnostics statementDiagnostics) {
+        this.statementDiagnostics = statementDiagnostics;
+    }
+
+    @GetMapping("/diagnostics/statements")
+    @PreAuthorize("hasAuthority('admin')")
+    public ResponseEntity<List<EndpointStatementStatisticsDto>> getStatementStatistics() {
+        return new ResponseEntity<>(statementDiagnostics.getEndpointStatistics(), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/diagnostics/statements")
+    @PreAuthorize("hasAuthority('admin')")
+    public ResponseEntity<?> clearStatementStatistics() {
+        statementDiagnostics.clear();
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+}
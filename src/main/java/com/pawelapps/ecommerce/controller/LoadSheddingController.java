@@ -0,0 +1,31 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.pawelapps.ecommerce.dto.LoadSheddingStatisticsDto;
+import com.pawelapps.ecommerce.ratelimit.LoadShedder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+@ConditionalOnProperty(name = "ecommerce.rate-limit.enabled", havingValue = "true")
+public class LoadSheddingController {
+
+    private final LoadShedder loadShedder;
+
+    @Autowired
+    public LoadSheddingController(LoadShedder loadShedder) {
+        this.loadShedder = loadShedder;
+    }
+
+    @GetMapping("/load-shedding/statistics")
+    @PreAuthorize("hasAuthority('admin')")
+    public ResponseEntity<LoadSheddingStatisticsDto> getStatistics() {
+        return new ResponseEntity<>(loadShedder.getStatistics(), HttpStatus.OK);
+    }
+}
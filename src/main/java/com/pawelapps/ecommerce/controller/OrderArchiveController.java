@@ -0,0 +1,36 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.pawelapps.ecommerce.dto.OrderArchiveStatusDto;
+import com.pawelapps.ecommerce.service.OrderArchiveJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/order-archive")
+@PreAuthorize("hasAuthority('admin')")
+public class OrderArchiveController {
+
+    private final OrderArchiveJob orderArchiveJob;
+
+    @Autowired
+    public OrderArchiveController(OrderArchiveJob orderArchiveJob) {
+        this.orderArchiveJob = orderArchiveJob;
+    }
+
+    @GetMapping
+    public ResponseEntity<OrderArchiveStatusDto> getStatus() {
+        return new ResponseEntity<>(orderArchiveJob.getStatus(), HttpStatus.OK);
+    }
+
+    @PostMapping
+    public ResponseEntity<OrderArchiveStatusDto> startArchive() {
+        HttpStatus status = orderArchiveJob.startArchive() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return new ResponseEntity<>(orderArchiveJob.getStatus(), status);
+    }
+}
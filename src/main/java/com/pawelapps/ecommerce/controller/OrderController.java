@@ -1,8 +1,14 @@
 package com.pawelapps.ecommerce.controller;
 
 import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryPageDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryQuery;
+import com.pawelapps.ecommerce.dto.OrderRequestDto;
+import com.pawelapps.ecommerce.service.OrderRequestService;
 import com.pawelapps.ecommerce.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PostAuthorize;
@@ -11,16 +17,21 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Controller
 @RequestMapping("/api")
 public class OrderController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final OrderService orderService;
+    private final OrderRequestService orderRequestService;
 
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderRequestService orderRequestService) {
         this.orderService = orderService;
+        this.orderRequestService = orderRequestService;
     }
 
     @PreAuthorize("(#principal?.name == #orderDto.user.email) or (isAnonymous() and #orderDto.user.email == 'Anonymous')")
@@ -30,6 +41,20 @@ public class OrderController {
         return new ResponseEntity<>(savedOrderDto, HttpStatus.CREATED);
     }
 
+    @PreAuthorize("(#principal?.name == #orderDto.user.email) or (isAnonymous() and #orderDto.user.email == 'Anonymous')")
+    @PostMapping("/orders/async")
+    public ResponseEntity<OrderRequestDto> saveOrderAsync(@RequestBody OrderDto orderDto, @RequestHeader("Idempotency-Key") String idempotencyKey, Principal principal) {
+        OrderRequestDto orderRequestDto = orderRequestService.acceptOrder(orderDto, idempotencyKey);
+        return new ResponseEntity<>(orderRequestDto, HttpStatus.ACCEPTED);
+    }
+
+    @PostAuthorize("hasAuthority('admin') or #principal?.name == returnObject.body.userEmail or returnObject.body.userEmail == 'Anonymous'")
+    @GetMapping("/orders/async/{idempotencyKey}")
+    public ResponseEntity<OrderRequestDto> getOrderRequestStatus(@PathVariable("idempotencyKey") String idempotencyKey, Principal principal) {
+        OrderRequestDto orderRequestDto = orderRequestService.getOrderRequestByIdempotencyKey(idempotencyKey);
+        return new ResponseEntity<>(orderRequestDto, HttpStatus.OK);
+    }
+
     @PreAuthorize("hasAuthority('admin')")
     @GetMapping("/orders")
     public ResponseEntity<List<OrderDto>> getAllOrders() {
@@ -39,16 +64,26 @@ public class OrderController {
 
     @PreAuthorize("hasAuthority('admin')")
     @GetMapping("/orders/customer")
-    public ResponseEntity<List<OrderDto>> findOrdersByCustomerEmail(@RequestParam("customerEmail") String customerEmail, Principal principal){
-        List<OrderDto> ordersDto = orderService.findByCustomerEmail(customerEmail);
-        return new ResponseEntity<>(ordersDto, HttpStatus.OK);
+    public ResponseEntity<List<OrderDto>> findOrdersByCustomerEmail(@RequestParam("customerEmail") String customerEmail,
+                                                                    @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                    @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                                                    @RequestParam(value = "size", defaultValue = "20") int size,
+                                                                    Principal principal){
+        OrderHistoryPageDto orderHistoryPageDto = orderService.findByCustomerEmail(customerEmail, new OrderHistoryQuery(from, to, cursor, size));
+        return toResponse(orderHistoryPageDto);
     }
 
     @PreAuthorize("hasAuthority('admin') or #principal?.name == #userEmail")
     @GetMapping("/orders/user")
-    public ResponseEntity<List<OrderDto>> findOrdersByUserEmail(@RequestParam("userEmail") String userEmail, Principal principal){
-        List<OrderDto> ordersDto = orderService.findByUserEmail(userEmail);
-        return new ResponseEntity<>(ordersDto, HttpStatus.OK);
+    public ResponseEntity<List<OrderDto>> findOrdersByUserEmail(@RequestParam("userEmail") String userEmail,
+                                                                @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                @RequestParam(value = "cursor", required = false) String cursor,
+                                                                @RequestParam(value = "size", defaultValue = "20") int size,
+                                                                Principal principal){
+        OrderHistoryPageDto orderHistoryPageDto = orderService.findByUserEmail(userEmail, new OrderHistoryQuery(from, to, cursor, size));
+        return toResponse(orderHistoryPageDto);
     }
 
     @PostAuthorize("hasAuthority('admin') or #principal?.name == returnObject.body.user.email")
@@ -57,4 +92,13 @@ public class OrderController {
         OrderDto orderDto = this.orderService.findById(id);
         return new ResponseEntity<>(orderDto, HttpStatus.OK);
     }
+
+    // the page stays a plain JSON array, the cursor of the next (older) page travels in a header
+    private ResponseEntity<List<OrderDto>> toResponse(OrderHistoryPageDto orderHistoryPageDto) {
+        HttpHeaders headers = new HttpHeaders();
+        if (orderHistoryPageDto.nextCursor() != null) {
+            headers.add(NEXT_CURSOR_HEADER, orderHistoryPageDto.nextCursor());
+        }
+        return new ResponseEntity<>(orderHistoryPageDto.orders(), headers, HttpStatus.OK);
+    }
 }
@@ -0,0 +1,32 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.pawelapps.ecommerce.dto.ProductSuggestionDto;
+import com.pawelapps.ecommerce.search.ProductSuggestionIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class ProductSuggestionController {
+
+    private final ProductSuggestionIndex productSuggestionIndex;
+
+    @Autowired
+    public ProductSuggestionController(ProductSuggestionIndex productSuggestionIndex) {
+        this.productSuggestionIndex = productSuggestionIndex;
+    }
+
+    @GetMapping("/products/suggestions")
+    public ResponseEntity<List<ProductSuggestionDto>> getSuggestions(@RequestParam("q") String prefix,
+                                                                     @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        int clampedLimit = Math.max(1, Math.min(limit, productSuggestionIndex.getSuggestionsPerPrefix()));
+        return new ResponseEntity<>(productSuggestionIndex.suggest(prefix, clampedLimit), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,33 @@
+package com.pawelapps.ecommerce.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Readiness probe for load balancers and orchestrators: 200 once the application, including the startup
+ * warm-up, is ready to accept traffic, 503 before that.
+ */
+@RestController
+@RequestMapping("/api")
+public class ReadinessController {
+
+    private final ApplicationAvailability applicationAvailability;
+
+    @Autowired
+    public ReadinessController(ApplicationAvailability applicationAvailability) {
+        this.applicationAvailability = applicationAvailability;
+    }
+
+    @GetMapping("/health/readiness")
+    public ResponseEntity<String> getReadiness() {
+        ReadinessState readinessState = applicationAvailability.getReadinessState();
+        HttpStatus status = readinessState == ReadinessState.ACCEPTING_TRAFFIC ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return new ResponseEntity<>(readinessState.name(), status);
+    }
+}
@@ -0,0 +1,36 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.pawelapps.ecommerce.dto.StockReconciliationStatusDto;
+import com.pawelapps.ecommerce.service.StockReconciliationJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stock-reconciliation")
+@PreAuthorize("hasAuthority('admin')")
+public class StockReconciliationController {
+
+    private final StockReconciliationJob stockReconciliationJob;
+
+    @Autowired
+    public StockReconciliationController(StockReconciliationJob stockReconciliationJob) {
+        this.stockReconciliationJob = stockReconciliationJob;
+    }
+
+    @GetMapping
+    public ResponseEntity<StockReconciliationStatusDto> getStatus() {
+        return new ResponseEntity<>(stockReconciliationJob.getStatus(), HttpStatus.OK);
+    }
+
+    @PostMapping
+    public ResponseEntity<StockReconciliationStatusDto> startReconcile() {
+        HttpStatus status = stockReconciliationJob.startReconcile() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return new ResponseEntity<>(stockReconciliationJob.getStatus(), status);
+    }
+}
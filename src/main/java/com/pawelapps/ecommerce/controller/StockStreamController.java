@@ -0,0 +1,33 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.pawelapps.ecommerce.event.StockLevelBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * Live stock levels for storefront badges, e.g. {@code GET /api/products/stock-stream?productIds=1,2,3}.
+ * Each event is named {@code stock} and carries a {@link com.pawelapps.ecommerce.dto.StockLevelDto}.
+ */
+@RestController
+@RequestMapping("/api")
+public class StockStreamController {
+
+    private final StockLevelBroadcaster stockLevelBroadcaster;
+
+    @Autowired
+    public StockStreamController(StockLevelBroadcaster stockLevelBroadcaster) {
+        this.stockLevelBroadcaster = stockLevelBroadcaster;
+    }
+
+    @GetMapping(value = "/products/stock-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStockLevels(@RequestParam("productIds") List<Long> productIds) {
+        return stockLevelBroadcaster.subscribe(productIds);
+    }
+}
@@ -1,18 +1,48 @@
 package com.pawelapps.ecommerce.dao;
 
 import com.pawelapps.ecommerce.entity.CartProduct;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 public interface CartProductRepository extends JpaRepository<CartProduct, Long> {
 
     @Query("SELECT cp FROM CartProduct cp JOIN cp.cart c JOIN c.user u WHERE u.email = :email")
     List<CartProduct> findCartProductsByUserEmail(String email);
 
+    @EntityGraph("CartProduct.view")
+    @Query("SELECT cp FROM CartProduct cp WHERE cp.cart.id = :cartId")
+    List<CartProduct> findCartProductsByCartId(@Param("cartId") Long cartId);
+
+    @Query("SELECT cp FROM CartProduct cp WHERE cp.cart.id = :cartId AND cp.product.id = :productId")
+    Optional<CartProduct> findByCartIdAndProductId(@Param("cartId") Long cartId, @Param("productId") Long productId);
+
+    /**
+     * Adds a product line to a cart, or adds the quantity to the cart's existing line for that product,
+     * in one statement that relies on the unique (cart_id, product_id) key.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO `cart_product` (`cart_id`, `product_id`, `quantity`, `name`, `description`, `unit_price`, `image_url`) " +
+            "VALUES (:cartId, :productId, :quantity, :name, :description, :unitPrice, :imageUrl) " +
+            "ON DUPLICATE KEY UPDATE `quantity` = `quantity` + :quantity",
+            nativeQuery = true)
+    Integer upsertCartProduct(@Param("cartId") Long cartId,
+                              @Param("productId") Long productId,
+                              @Param("quantity") int quantity,
+                              @Param("name") String name,
+                              @Param("description") String description,
+                              @Param("unitPrice") BigDecimal unitPrice,
+                              @Param("imageUrl") String imageUrl);
+
+    @Query("SELECT cp.cart.id FROM CartProduct cp WHERE cp.id = :cartProductId")
+    Optional<Long> findCartIdById(@Param("cartProductId") Long cartProductId);
+
     @Modifying
     @Query("UPDATE CartProduct cp SET cp.quantity = cp.quantity + 1 WHERE cp.id = :cartProductId")
     Integer increaseCartProductQuantityByOne(@Param("cartProductId") Long cartProductId);
@@ -28,4 +58,8 @@ public interface CartProductRepository extends JpaRepository<CartProduct, Long>
     @Modifying
     @Query("DELETE FROM CartProduct cp WHERE cp.cart.id IN (SELECT c.id FROM Cart c JOIN c.user u WHERE u.email = :email)")
     void deleteAllCartProductsByUserEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("DELETE FROM CartProduct cp WHERE cp.cart.id = :cartId")
+    void deleteAllCartProductsByCartId(@Param("cartId") Long cartId);
 }
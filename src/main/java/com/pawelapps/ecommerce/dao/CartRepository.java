@@ -1,8 +1,20 @@
 package com.pawelapps.ecommerce.dao;
 
 import com.pawelapps.ecommerce.entity.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Cart findByUserEmail(String email);
+
+    @EntityGraph("Cart.view")
+    Optional<Cart> findWithCartProductsById(Long id);
+
+    @Query("SELECT c.id FROM Cart c JOIN c.user u WHERE u.email = :email ORDER BY c.id")
+    List<Long> findIdsByUserEmail(@Param("email") String email);
 }
@@ -0,0 +1,38 @@
+package com.pawelapps.ecommerce.dao;
+
+import com.pawelapps.ecommerce.entity.OrderArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderArchiveRepository extends JpaRepository<OrderArchive, Long> {
+
+    @Query("SELECT a FROM OrderArchive a WHERE a.userId IN :userIds AND a.dateCreated >= :from " +
+            "AND (a.dateCreated < :beforeDate OR (a.dateCreated = :beforeDate AND a.orderId < :beforeOrderId)) " +
+            "ORDER BY a.dateCreated DESC, a.orderId DESC")
+    List<OrderArchive> findByUserIdIn(@Param("userIds") Collection<Long> userIds,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("beforeDate") LocalDateTime beforeDate,
+                                      @Param("beforeOrderId") long beforeOrderId,
+                                      Pageable pageable);
+
+    @Query("SELECT a FROM OrderArchive a WHERE a.customerEmail = :email AND a.dateCreated >= :from " +
+            "AND (a.dateCreated < :beforeDate OR (a.dateCreated = :beforeDate AND a.orderId < :beforeOrderId)) " +
+            "ORDER BY a.dateCreated DESC, a.orderId DESC")
+    List<OrderArchive> findByCustomerEmail(@Param("email") String email,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("beforeDate") LocalDateTime beforeDate,
+                                           @Param("beforeOrderId") long beforeOrderId,
+                                           Pageable pageable);
+
+    @Query("SELECT a FROM OrderArchive a ORDER BY a.orderId")
+    List<OrderArchive> findAllOrderByOrderId();
+
+    @Query("SELECT MAX(a.dateCreated) FROM OrderArchive a")
+    LocalDateTime findLatestDateCreated();
+}
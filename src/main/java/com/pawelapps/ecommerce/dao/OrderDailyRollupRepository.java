@@ -0,0 +1,33 @@
+package com.pawelapps.ecommerce.dao;
+
+import com.pawelapps.ecommerce.entity.OrderDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface OrderDailyRollupRepository extends JpaRepository<OrderDailyRollup, LocalDate> {
+
+    // one statement, so concurrent orders of the same day never race on creating the row
+    @Modifying
+    @Query(value = "INSERT INTO `order_daily_rollup` (`order_date`, `order_count`, `units`, `revenue_cents`, `shipping_cents`) " +
+            "VALUES (:orderDate, :orderCount, :units, :revenueCents, :shippingCents) " +
+            "ON DUPLICATE KEY UPDATE `order_count` = `order_count` + :orderCount, `units` = `units` + :units, " +
+            "`revenue_cents` = `revenue_cents` + :revenueCents, `shipping_cents` = `shipping_cents` + :shippingCents",
+            nativeQuery = true)
+    void increment(@Param("orderDate") LocalDate orderDate,
+                   @Param("orderCount") long orderCount,
+                   @Param("units") long units,
+                   @Param("revenueCents") long revenueCents,
+                   @Param("shippingCents") long shippingCents);
+
+    @Query("SELECT r FROM OrderDailyRollup r WHERE r.orderDate BETWEEN :from AND :to ORDER BY r.orderDate")
+    List<OrderDailyRollup> findBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM OrderDailyRollup r WHERE r.orderDate >= :from AND r.orderDate < :before")
+    Integer deleteBetween(@Param("from") LocalDate from, @Param("before") LocalDate before);
+}
@@ -1,14 +1,67 @@
 package com.pawelapps.ecommerce.dao;
 
 import com.pawelapps.ecommerce.entity.Order;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    @Override
+    @EntityGraph("Order.detail")
+    List<Order> findAll();
+
+    @Override
+    @EntityGraph("Order.detail")
+    Optional<Order> findById(Long id);
+
+    @EntityGraph("Order.detail")
     List<Order> findByCustomerEmail(String email);
 
+    @EntityGraph("Order.detail")
     List<Order> findByUserEmail(String userEmail);
+
+    @EntityGraph("Order.detail")
+    List<Order> findByUserIdIn(Collection<Long> userIds);
+
+    @EntityGraph("Order.detail")
+    List<Order> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT extract(date from o.dateCreated) AS orderDate, COUNT(o) AS orderCount, SUM(s.shippingPrice) AS shippingPrice " +
+            "FROM Order o LEFT JOIN o.summary s WHERE o.dateCreated >= :from AND o.dateCreated < :before GROUP BY extract(date from o.dateCreated)")
+    List<DailyOrders> sumOrdersPerDay(@Param("from") LocalDateTime from, @Param("before") LocalDateTime before);
+
+    @Query("SELECT extract(date from o.dateCreated) AS orderDate, p.id AS productId, p.productCategory.id AS productCategoryId, " +
+            "SUM(op.quantity) AS units, SUM(op.unitPrice * op.quantity) AS revenue " +
+            "FROM OrderProduct op JOIN op.order o LEFT JOIN op.product p WHERE o.dateCreated >= :from AND o.dateCreated < :before " +
+            "GROUP BY extract(date from o.dateCreated), p.id, p.productCategory.id")
+    List<DailyProductSales> sumProductSalesPerDay(@Param("from") LocalDateTime from, @Param("before") LocalDateTime before);
+
+    interface DailyOrders {
+        LocalDate getOrderDate();
+
+        Long getOrderCount();
+
+        BigDecimal getShippingPrice();
+    }
+
+    interface DailyProductSales {
+        LocalDate getOrderDate();
+
+        Long getProductId();
+
+        Long getProductCategoryId();
+
+        Long getUnits();
+
+        BigDecimal getRevenue();
+    }
 }
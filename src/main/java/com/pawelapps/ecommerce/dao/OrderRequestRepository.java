@@ -0,0 +1,23 @@
+package com.pawelapps.ecommerce.dao;
+
+import com.pawelapps.ecommerce.entity.OrderRequest;
+import com.pawelapps.ecommerce.entity.OrderRequestStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderRequestRepository extends JpaRepository<OrderRequest, Long> {
+
+    Optional<OrderRequest> findByIdempotencyKey(String idempotencyKey);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM OrderRequest r WHERE r.id = :id")
+    Optional<OrderRequest> findByIdForUpdate(@Param("id") Long id);
+
+    List<OrderRequest> findByStatusOrderById(OrderRequestStatus status);
+}
@@ -0,0 +1,55 @@
+package com.pawelapps.ecommerce.dao;
+
+import com.pawelapps.ecommerce.entity.OrderSnapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderSnapshotRepository extends JpaRepository<OrderSnapshot, Long> {
+
+    @Query("SELECT o.id AS orderId, o.dateCreated AS dateCreated, s.payload AS payload FROM Order o LEFT JOIN OrderSnapshot s ON s.orderId = o.id ORDER BY o.id")
+    List<OrderPayload> findAllPayloads();
+
+    @Query("SELECT o.id AS orderId, o.dateCreated AS dateCreated, s.payload AS payload FROM Order o LEFT JOIN OrderSnapshot s ON s.orderId = o.id " +
+            "WHERE o.id IN :orderIds ORDER BY o.id")
+    List<OrderPayload> findPayloadsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT o.id AS orderId, o.dateCreated AS dateCreated, s.payload AS payload FROM Order o LEFT JOIN OrderSnapshot s ON s.orderId = o.id " +
+            "WHERE o.user.id IN :userIds AND o.dateCreated >= :from " +
+            "AND (o.dateCreated < :beforeDate OR (o.dateCreated = :beforeDate AND o.id < :beforeOrderId)) " +
+            "ORDER BY o.dateCreated DESC, o.id DESC")
+    List<OrderPayload> findPayloadsByUserIdIn(@Param("userIds") Collection<Long> userIds,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("beforeDate") LocalDateTime beforeDate,
+                                              @Param("beforeOrderId") long beforeOrderId,
+                                              Pageable pageable);
+
+    @Query("SELECT o.id AS orderId, o.dateCreated AS dateCreated, s.payload AS payload FROM Order o LEFT JOIN OrderSnapshot s ON s.orderId = o.id " +
+            "WHERE o.customer.email = :email AND o.dateCreated >= :from " +
+            "AND (o.dateCreated < :beforeDate OR (o.dateCreated = :beforeDate AND o.id < :beforeOrderId)) " +
+            "ORDER BY o.dateCreated DESC, o.id DESC")
+    List<OrderPayload> findPayloadsByCustomerEmail(@Param("email") String email,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("beforeDate") LocalDateTime beforeDate,
+                                                   @Param("beforeOrderId") long beforeOrderId,
+                                                   Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE NOT EXISTS (SELECT s.orderId FROM OrderSnapshot s WHERE s.orderId = o.id) ORDER BY o.id")
+    List<Long> findOrderIdsWithoutSnapshot(Pageable pageable);
+
+    /**
+     * Order id with its snapshot payload, payload is null for orders placed before snapshots were written.
+     */
+    interface OrderPayload {
+        Long getOrderId();
+
+        LocalDateTime getDateCreated();
+
+        String getPayload();
+    }
+}
@@ -0,0 +1,26 @@
+package com.pawelapps.ecommerce.dao;
+
+import com.pawelapps.ecommerce.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.datePublished IS NULL ORDER BY e.id")
+    List<OutboxEvent> findUnpublished(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.datePublished = :datePublished WHERE e.id IN :ids")
+    Integer markPublished(@Param("ids") Collection<Long> ids, @Param("datePublished") LocalDateTime datePublished);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.datePublished < :before")
+    Integer deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,7 +1,23 @@
 package com.pawelapps.ecommerce.dao;
 
 import com.pawelapps.ecommerce.entity.ProductCategory;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface ProductCategoryRepository extends JpaRepository<ProductCategory,Long> {
+
+    @Override
+    @EntityGraph("ProductCategory.catalog")
+    List<ProductCategory> findAll();
+
+    @Override
+    @EntityGraph("ProductCategory.catalog")
+    Optional<ProductCategory> findById(Long id);
+
+    @Query("SELECT pc.id FROM ProductCategory pc")
+    List<Long> findAllIds();
 }
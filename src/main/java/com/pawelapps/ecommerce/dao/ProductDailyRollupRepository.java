@@ -0,0 +1,45 @@
+package com.pawelapps.ecommerce.dao;
+
+import com.pawelapps.ecommerce.entity.ProductDailyRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ProductDailyRollupRepository extends JpaRepository<ProductDailyRollup, ProductDailyRollup.Key> {
+
+    @Modifying
+    @Query(value = "INSERT INTO `product_daily_rollup` (`order_date`, `product_id`, `product_category_id`, `units`, `revenue_cents`) " +
+            "VALUES (:orderDate, :productId, :productCategoryId, :units, :revenueCents) " +
+            "ON DUPLICATE KEY UPDATE `units` = `units` + :units, `revenue_cents` = `revenue_cents` + :revenueCents",
+            nativeQuery = true)
+    void increment(@Param("orderDate") LocalDate orderDate,
+                   @Param("productId") Long productId,
+                   @Param("productCategoryId") Long productCategoryId,
+                   @Param("units") long units,
+                   @Param("revenueCents") long revenueCents);
+
+    @Query("SELECT r.key.productId AS id, SUM(r.units) AS units, SUM(r.revenueCents) AS revenueCents FROM ProductDailyRollup r " +
+            "WHERE r.key.orderDate BETWEEN :from AND :to GROUP BY r.key.productId ORDER BY SUM(r.units) DESC, r.key.productId")
+    List<SalesTotal> sumByProduct(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    @Query("SELECT r.productCategoryId AS id, SUM(r.units) AS units, SUM(r.revenueCents) AS revenueCents FROM ProductDailyRollup r " +
+            "WHERE r.key.orderDate BETWEEN :from AND :to GROUP BY r.productCategoryId ORDER BY SUM(r.units) DESC, r.productCategoryId")
+    List<SalesTotal> sumByCategory(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM ProductDailyRollup r WHERE r.key.orderDate >= :from AND r.key.orderDate < :before")
+    Integer deleteBetween(@Param("from") LocalDate from, @Param("before") LocalDate before);
+
+    interface SalesTotal {
+        Long getId();
+
+        Long getUnits();
+
+        Long getRevenueCents();
+    }
+}
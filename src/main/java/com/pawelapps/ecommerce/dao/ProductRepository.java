@@ -1,16 +1,42 @@
 package com.pawelapps.ecommerce.dao;
 
 import com.pawelapps.ecommerce.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product,Long> {
+    String PRODUCTS_BY_CATEGORY_REGION = "products-by-category";
+
+    @Override
+    @EntityGraph("Product.catalog")
+    List<Product> findAll();
+
     List<Product> findByName(String name);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = PRODUCTS_BY_CATEGORY_REGION)
+    })
+    @EntityGraph("Product.catalog")
     List<Product> findByProductCategoryId(Long id);
 
+    @EntityGraph("Product.catalog")
     @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :nameOrSku, '%')) OR LOWER(p.sku) LIKE LOWER(CONCAT('%', :nameOrSku, '%'))")
     List<Product> findByNameLikeOrSkuLike(@Param("nameOrSku") String nameOrSku);
+
+    @EntityGraph("Product.catalog")
+    @Query("SELECT p FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Product> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT p.unitsInStock FROM Product p WHERE p.id = :id")
+    Optional<Integer> findUnitsInStockById(@Param("id") Long id);
 }
@@ -0,0 +1,106 @@
+package com.pawelapps.ecommerce.datasource;
+
+import com.pawelapps.ecommerce.dto.ConnectionPoolStatisticsDto;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection wait and usage counters of every Hikari pool. Pools defined as beans are registered before
+ * they start, pools built by hand (the replicas) have to be given this factory explicitly. Counters are
+ * cumulative since startup; the pool sizes are refreshed by Hikari at most once a second.
+ */
+@Component
+public class ConnectionPoolMetrics implements MetricsTrackerFactory, BeanPostProcessor {
+
+    private final Map<String, PoolTracker> pools = new ConcurrentSkipListMap<>();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource hikariDataSource && hikariDataSource.getMetricsTrackerFactory() == null) {
+            hikariDataSource.setMetricsTrackerFactory(this);
+        }
+        return bean;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolTracker poolTracker = new PoolTracker(poolStats);
+        pools.put(poolName, poolTracker);
+        return poolTracker;
+    }
+
+    public List<ConnectionPoolStatisticsDto> getPoolStatistics() {
+        return pools.entrySet().stream()
+                .map(entry -> entry.getValue().toStatisticsDto(entry.getKey()))
+                .toList();
+    }
+
+    private class PoolTracker implements IMetricsTracker {
+        private final PoolStats poolStats;
+        private final LongAdder acquireCount = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder usageCount = new LongAdder();
+        private final LongAdder usageMillis = new LongAdder();
+        private final LongAccumulator maxUsageMillis = new LongAccumulator(Math::max, 0);
+        private final LongAdder timeoutCount = new LongAdder();
+
+        PoolTracker(PoolStats poolStats) {
+            this.poolStats = poolStats;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquireCount.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usageCount.increment();
+            usageMillis.add(elapsedBorrowedMillis);
+            maxUsageMillis.accumulate(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeoutCount.increment();
+        }
+
+        @Override
+        public void close() {
+            pools.values().remove(this);
+        }
+
+        ConnectionPoolStatisticsDto toStatisticsDto(String poolName) {
+            long acquires = acquireCount.sum();
+            long usages = usageCount.sum();
+            return ConnectionPoolStatisticsDto.builder()
+                    .poolName(poolName)
+                    .activeConnections(poolStats.getActiveConnections())
+                    .idleConnections(poolStats.getIdleConnections())
+                    .totalConnections(poolStats.getTotalConnections())
+                    .maxConnections(poolStats.getMaxConnections())
+                    .pendingThreads(poolStats.getPendingThreads())
+                    .acquireCount(acquires)
+                    .averageAcquireMillis(acquires == 0 ? 0 : (double) acquireNanos.sum() / acquires / TimeUnit.MILLISECONDS.toNanos(1))
+                    .maxAcquireMillis((double) maxAcquireNanos.get() / TimeUnit.MILLISECONDS.toNanos(1))
+                    .timeoutCount(timeoutCount.sum())
+                    .averageUsageMillis(usages == 0 ? 0 : (double) usageMillis.sum() / usages)
+                    .maxUsageMillis(maxUsageMillis.get())
+                    .build();
+        }
+    }
+}
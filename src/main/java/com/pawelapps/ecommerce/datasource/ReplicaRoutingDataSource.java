@@ -0,0 +1,124 @@
+package com.pawelapps.ecommerce.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections requested inside {@code @Transactional(readOnly = true)} methods to one of the
+ * replicas (round robin) and everything else to the primary. A replica that fails to hand out a connection
+ * is skipped for {@code replicaRetryMillis} and the read falls back to the primary. After a user runs a
+ * read-write transaction, that user's reads stay on the primary for {@code readYourWritesWindowMillis} so
+ * they never miss their own changes because of replication lag.
+ * <p>
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, otherwise
+ * the connection is fetched before the transaction is flagged as read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final int MAX_TRACKED_WRITERS = 10000;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Supplier<String> currentUser;
+    private final long readYourWritesWindowMillis;
+    private final long replicaRetryMillis;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Supplier<String> currentUser,
+                                    long readYourWritesWindowMillis, long replicaRetryMillis) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.currentUser = currentUser;
+        this.readYourWritesWindowMillis = readYourWritesWindowMillis;
+        this.replicaRetryMillis = replicaRetryMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routeToReplica()) {
+            return primary.getConnection();
+        }
+
+        long now = System.currentTimeMillis();
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            if (replica.unavailableUntil > now) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                log.warn("Replica unavailable, reading from primary for the next {} ms: {}", replicaRetryMillis, e.getMessage());
+                replica.unavailableUntil = now + replicaRetryMillis;
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private boolean routeToReplica() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return false;
+        }
+
+        String user = currentUser.get();
+        long now = System.currentTimeMillis();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null) {
+                recordWrite(user, now);
+            }
+            return false;
+        }
+
+        if (user != null) {
+            Long lastWrite = lastWriteByUser.get(user);
+            if (lastWrite != null && now - lastWrite < readYourWritesWindowMillis) {
+                return false;
+            }
+        }
+        return !replicas.isEmpty();
+    }
+
+    private void recordWrite(String user, long now) {
+        if (lastWriteByUser.size() >= MAX_TRACKED_WRITERS) {
+            lastWriteByUser.values().removeIf(lastWrite -> now - lastWrite >= readYourWritesWindowMillis);
+        }
+        lastWriteByUser.put(user, now);
+    }
+
+    private static class Replica {
+        private final DataSource dataSource;
+        private volatile long unavailableUntil;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
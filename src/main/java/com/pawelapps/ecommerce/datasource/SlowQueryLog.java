@@ -0,0 +1,76 @@
+package com.pawelapps.ecommerce.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs a sample of the statements that take longer than {@code thresholdMillis}, replacing statement-by-statement
+ * SQL logging in production. Slow statements are handed to a background thread through a bounded queue,
+ * so a burst of slow queries never blocks the request threads on logging. Entries that don't fit into the
+ * queue are dropped and counted.
+ */
+public class SlowQueryLog implements StatementListener, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final BlockingQueue<SlowQuery> queue;
+    private final LongAdder loggedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final Thread writer;
+
+    public SlowQueryLog(long thresholdMillis, double sampleRate, int queueCapacity) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.sampleRate = sampleRate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::writeEntries, "slow-query-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void statementExecuted(String sql, String method, long elapsedNanos) {
+        if (elapsedNanos >= thresholdNanos && ThreadLocalRandom.current().nextDouble() < sampleRate
+                && !queue.offer(new SlowQuery(sql, method, elapsedNanos))) {
+            droppedCount.increment();
+        }
+    }
+
+    public long getLoggedCount() {
+        return loggedCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    @Override
+    public void close() {
+        writer.interrupt();
+    }
+
+    private void writeEntries() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                SlowQuery slowQuery = queue.take();
+                String sql = slowQuery.sql().length() > MAX_SQL_LENGTH ? slowQuery.sql().substring(0, MAX_SQL_LENGTH) + "..." : slowQuery.sql();
+                log.warn("Slow query ({} ms, {}): {}", TimeUnit.NANOSECONDS.toMillis(slowQuery.elapsedNanos()), slowQuery.method(), sql);
+                loggedCount.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private record SlowQuery(String sql, String method, long elapsedNanos) {
+    }
+}
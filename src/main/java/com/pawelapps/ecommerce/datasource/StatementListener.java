@@ -0,0 +1,13 @@
+package com.pawelapps.ecommerce.datasource;
+
+/**
+ * Notified after every statement run through a {@link StatementTimingDataSource}, on the thread that ran it.
+ */
+public interface StatementListener {
+
+    /**
+     * @param sql the statement, or {@code <batch>} for a plain statement batch
+     * @param method the JDBC method that ran it, e.g. executeQuery
+     */
+    void statementExecuted(String sql, String method, long elapsedNanos);
+}
@@ -0,0 +1,93 @@
+package com.pawelapps.ecommerce.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.List;
+
+/**
+ * Times every execute call of the statements created through its connections and reports it to the
+ * {@link StatementListener}s. Connections and statements are wrapped in JDK proxies, so the cost is one
+ * reflective call per JDBC method.
+ */
+public class StatementTimingDataSource extends DelegatingDataSource {
+
+    private final List<StatementListener> statementListeners;
+
+    public StatementTimingDataSource(DataSource targetDataSource, List<StatementListener> statementListeners) {
+        super(targetDataSource);
+        this.statementListeners = List.copyOf(statementListeners);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    private Connection timed(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, arguments) -> {
+            Object result = invoke(target, method, arguments);
+            if (result instanceof CallableStatement callableStatement) {
+                return proxy(CallableStatement.class, callableStatement, statementHandler((String) arguments[0]));
+            }
+            if (result instanceof PreparedStatement preparedStatement) {
+                return proxy(PreparedStatement.class, preparedStatement, statementHandler((String) arguments[0]));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, statement, statementHandler(null));
+            }
+            return result;
+        });
+    }
+
+    private InvocationHandler statementHandler(String preparedSql) {
+        return (target, method, arguments) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(target, method, arguments);
+            }
+            long startNanos = System.nanoTime();
+            try {
+                return invoke(target, method, arguments);
+            } finally {
+                long elapsedNanos = System.nanoTime() - startNanos;
+                String sql = preparedSql != null ? preparedSql
+                        : arguments != null && arguments.length > 0 && arguments[0] instanceof String text ? text : "<batch>";
+                for (StatementListener statementListener : statementListeners) {
+                    statementListener.statementExecuted(sql, method.getName(), elapsedNanos);
+                }
+            }
+        };
+    }
+
+    private static Object invoke(Object target, Method method, Object[] arguments) throws Throwable {
+        try {
+            return method.invoke(target, arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * @param handler called with the wrapped target in place of the proxy
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        InvocationHandler invocationHandler = (proxy, method, arguments) -> {
+            if (method.getName().equals("unwrap") && arguments[0] instanceof Class<?> requested && requested.isInstance(proxy)) {
+                return proxy;
+            }
+            return handler.invoke(target, method, arguments);
+        };
+        return (T) Proxy.newProxyInstance(StatementTimingDataSource.class.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+}
@@ -0,0 +1,38 @@
+package com.pawelapps.ecommerce.diagnostics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "ecommerce.diagnostics")
+@Getter
+@Setter
+public class DiagnosticsProperties {
+
+    private boolean enabled;
+
+    /**
+     * Test mode: a request over its statement budget fails with {@link StatementBudgetExceededException}
+     * instead of only being logged.
+     */
+    private boolean failOnViolation;
+
+    /**
+     * Budget of every GET endpoint without its own entry in {@code statementBudgets}, 0 for none.
+     */
+    private int defaultStatementBudget;
+
+    /**
+     * Budgets keyed by method and mapping pattern, e.g.
+     * {@code ecommerce.diagnostics.statement-budgets.[GET /api/orders/{userEmail}]=4}.
+     */
+    private Map<String, Integer> statementBudgets = new HashMap<>();
+
+    /**
+     * How often the same statement may run in one request before it is reported as a possible N+1.
+     */
+    private int repeatThreshold = 3;
+}
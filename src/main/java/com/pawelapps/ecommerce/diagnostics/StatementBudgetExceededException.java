@@ -0,0 +1,7 @@
+package com.pawelapps.ecommerce.diagnostics;
+
+public class StatementBudgetExceededException extends RuntimeException {
+    public StatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
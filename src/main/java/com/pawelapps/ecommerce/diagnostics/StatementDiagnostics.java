@@ -0,0 +1,161 @@
+package com.pawelapps.ecommerce.diagnostics;
+
+import com.pawelapps.ecommerce.datasource.StatementListener;
+import com.pawelapps.ecommerce.dto.EndpointStatementStatisticsDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the statements each HTTP request runs and aggregates them per endpoint. A request is reported
+ * when it runs more statements than its endpoint's budget, or runs the same statement
+ * {@code repeatThreshold} times or more, which is what lazy loading one association per row (N+1) looks
+ * like. Statements are attributed to the request of the thread that runs them, so work handed to other
+ * threads is not counted.
+ */
+public class StatementDiagnostics implements StatementListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementDiagnostics.class);
+
+    private final DiagnosticsProperties diagnosticsProperties;
+    private final ThreadLocal<RequestStatements> currentRequest = new ThreadLocal<>();
+    private final Map<String, EndpointStatistics> endpoints = new ConcurrentSkipListMap<>();
+
+    public StatementDiagnostics(DiagnosticsProperties diagnosticsProperties) {
+        this.diagnosticsProperties = diagnosticsProperties;
+    }
+
+    public void beginRequest() {
+        currentRequest.set(new RequestStatements());
+    }
+
+    /**
+     * Ends the request of the current thread and records it under {@code endpoint}, e.g.
+     * {@code GET /api/orders/{userEmail}}.
+     *
+     * @return a description of what the request violated, or null
+     */
+    public String endRequest(String endpoint) {
+        RequestStatements requestStatements = currentRequest.get();
+        currentRequest.remove();
+        if (requestStatements == null) {
+            return null;
+        }
+
+        int budget = statementBudget(endpoint);
+        boolean overBudget = budget > 0 && requestStatements.count > budget;
+        Map.Entry<String, Integer> mostRepeated = requestStatements.mostRepeated();
+        boolean repeated = mostRepeated != null && mostRepeated.getValue() >= diagnosticsProperties.getRepeatThreshold();
+
+        endpoints.computeIfAbsent(endpoint, key -> new EndpointStatistics()).record(requestStatements, overBudget, repeated);
+
+        if (repeated) {
+            log.warn("Possible N+1 on {}: statement ran {} times: {}", endpoint, mostRepeated.getValue(), mostRepeated.getKey());
+        }
+        if (overBudget) {
+            String violation = endpoint + " ran " + requestStatements.count + " statements, budget is " + budget;
+            log.warn(violation);
+            return violation;
+        }
+        log.debug("{} ran {} statements", endpoint, requestStatements.count);
+        return null;
+    }
+
+    private int statementBudget(String endpoint) {
+        Integer budget = diagnosticsProperties.getStatementBudgets().get(endpoint);
+        if (budget != null) {
+            return budget;
+        }
+        return endpoint.startsWith("GET ") ? diagnosticsProperties.getDefaultStatementBudget() : 0;
+    }
+
+    @Override
+    public void statementExecuted(String sql, String method, long elapsedNanos) {
+        RequestStatements requestStatements = currentRequest.get();
+        if (requestStatements != null) {
+            requestStatements.record(sql, elapsedNanos);
+        }
+    }
+
+    public List<EndpointStatementStatisticsDto> getEndpointStatistics() {
+        return endpoints.entrySet().stream()
+                .map(entry -> entry.getValue().toStatisticsDto(entry.getKey(), statementBudget(entry.getKey())))
+                .toList();
+    }
+
+    public void clear() {
+        endpoints.clear();
+    }
+
+    private static class RequestStatements {
+        private final Map<String, Integer> countsBySql = new HashMap<>();
+        private int count;
+        private long slowestNanos = -1;
+        private String slowestSql;
+
+        void record(String sql, long elapsedNanos) {
+            count++;
+            countsBySql.merge(sql, 1, Integer::sum);
+            if (elapsedNanos > slowestNanos) {
+                slowestNanos = elapsedNanos;
+                slowestSql = sql;
+            }
+        }
+
+        Map.Entry<String, Integer> mostRepeated() {
+            return countsBySql.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+        }
+    }
+
+    private static class EndpointStatistics {
+        private final LongAdder requestCount = new LongAdder();
+        private final LongAdder statementCount = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder budgetExceededCount = new LongAdder();
+        private final LongAdder repeatedStatementCount = new LongAdder();
+        private long slowestNanos;
+        private String slowestSql;
+
+        void record(RequestStatements requestStatements, boolean overBudget, boolean repeated) {
+            requestCount.increment();
+            statementCount.add(requestStatements.count);
+            maxStatements.accumulate(requestStatements.count);
+            if (overBudget) {
+                budgetExceededCount.increment();
+            }
+            if (repeated) {
+                repeatedStatementCount.increment();
+            }
+            if (requestStatements.slowestSql != null) {
+                synchronized (this) {
+                    if (requestStatements.slowestNanos > slowestNanos) {
+                        slowestNanos = requestStatements.slowestNanos;
+                        slowestSql = requestStatements.slowestSql;
+                    }
+                }
+            }
+        }
+
+        synchronized EndpointStatementStatisticsDto toStatisticsDto(String endpoint, int statementBudget) {
+            long requests = requestCount.sum();
+            return EndpointStatementStatisticsDto.builder()
+                    .endpoint(endpoint)
+                    .requestCount(requests)
+                    .averageStatements(requests == 0 ? 0 : (double) statementCount.sum() / requests)
+                    .maxStatements(maxStatements.get())
+                    .statementBudget(statementBudget)
+                    .budgetExceededCount(budgetExceededCount.sum())
+                    .repeatedStatementCount(repeatedStatementCount.sum())
+                    .slowestStatementMillis((double) slowestNanos / TimeUnit.MILLISECONDS.toNanos(1))
+                    .slowestStatement(slowestSql)
+                    .build();
+        }
+    }
+}
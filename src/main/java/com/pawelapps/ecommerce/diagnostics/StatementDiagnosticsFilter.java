@@ -0,0 +1,41 @@
+package com.pawelapps.ecommerce.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link StatementDiagnostics} scope around every request and names it after the matched
+ * controller mapping, so all requests of an endpoint share one set of statistics.
+ */
+public class StatementDiagnosticsFilter extends OncePerRequestFilter {
+
+    private final StatementDiagnostics statementDiagnostics;
+    private final boolean failOnViolation;
+
+    public StatementDiagnosticsFilter(StatementDiagnostics statementDiagnostics, boolean failOnViolation) {
+        this.statementDiagnostics = statementDiagnostics;
+        this.failOnViolation = failOnViolation;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        statementDiagnostics.beginRequest();
+        String violation;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            violation = statementDiagnostics.endRequest(request.getMethod() + " " + (pattern != null ? pattern : "<unmapped>"));
+        }
+        if (violation != null && failOnViolation) {
+            throw new StatementBudgetExceededException(violation);
+        }
+    }
+}
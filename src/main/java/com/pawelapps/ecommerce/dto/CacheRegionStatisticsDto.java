@@ -0,0 +1,16 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheRegionStatisticsDto {
+    private String regionName;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private double hitRatio;
+}
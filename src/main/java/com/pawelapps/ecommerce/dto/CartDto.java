@@ -1,17 +1,13 @@
 package com.pawelapps.ecommerce.dto;
 
-import com.pawelapps.ecommerce.entity.CartProduct;
-import com.pawelapps.ecommerce.entity.User;
-import lombok.*;
+import lombok.Builder;
 
 import java.util.List;
 
-@Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
 @Builder
-public class CartDto {
-    private User user;
-    private List<CartProduct> cartProducts;
+public record CartDto(UserDto user, List<CartProductDto> cartProducts) {
+
+    public CartDto {
+        cartProducts = cartProducts == null ? List.of() : List.copyOf(cartProducts);
+    }
 }
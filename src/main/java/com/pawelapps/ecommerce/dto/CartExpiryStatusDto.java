@@ -0,0 +1,25 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartExpiryStatusDto {
+    private boolean running;
+    private LocalDateTime lastRunStartedAt;
+    private long lastRunDurationMillis;
+    private long lastRunCartsDeleted;
+    private long runCount;
+    private long batchCount;
+    private long busyPauseCount;
+    private long cartsDeleted;
+    private long cartProductsDeleted;
+    private long usersDeleted;
+    private long touchesWritten;
+    private int pendingTouches;
+}
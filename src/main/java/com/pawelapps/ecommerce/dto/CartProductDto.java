@@ -1,23 +1,18 @@
 package com.pawelapps.ecommerce.dto;
 
-import com.pawelapps.ecommerce.entity.Cart;
-import com.pawelapps.ecommerce.entity.Product;
-import lombok.*;
+import lombok.Builder;
+import lombok.With;
 
 import java.math.BigDecimal;
 
-@Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
 @Builder
-public class CartProductDto {
-    private Long cartProductId;
-    private Product product;
-    private int quantity;
-    private String name;
-    private String description;
-    private BigDecimal unitPrice;
-    private String imageUrl;
-    private Cart cart;
+@With
+public record CartProductDto(Long cartProductId,
+                             ProductDto product,
+                             int quantity,
+                             String name,
+                             String description,
+                             BigDecimal unitPrice,
+                             String imageUrl,
+                             Long cartId) {
 }
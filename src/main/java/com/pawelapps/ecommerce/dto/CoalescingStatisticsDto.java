@@ -0,0 +1,16 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CoalescingStatisticsDto {
+    private String name;
+    private long callCount;
+    private long loadCount;
+    private long sharedCount;
+    private double coalescingRatio;
+}
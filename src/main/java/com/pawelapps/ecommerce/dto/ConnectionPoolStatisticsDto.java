@@ -0,0 +1,23 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConnectionPoolStatisticsDto {
+    private String poolName;
+    private int activeConnections;
+    private int idleConnections;
+    private int totalConnections;
+    private int maxConnections;
+    private int pendingThreads;
+    private long acquireCount;
+    private double averageAcquireMillis;
+    private double maxAcquireMillis;
+    private long timeoutCount;
+    private double averageUsageMillis;
+    private long maxUsageMillis;
+}
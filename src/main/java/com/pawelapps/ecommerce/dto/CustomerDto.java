@@ -0,0 +1,7 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.Builder;
+
+@Builder
+public record CustomerDto(Long id, String firstName, String lastName, int phoneNumber, String email) {
+}
@@ -0,0 +1,15 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EndpointGroupStatisticsDto {
+    private String group;
+    private long admittedCount;
+    private long rateLimitedCount;
+    private long shedCount;
+}
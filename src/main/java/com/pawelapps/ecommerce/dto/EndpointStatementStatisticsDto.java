@@ -0,0 +1,20 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EndpointStatementStatisticsDto {
+    private String endpoint;
+    private long requestCount;
+    private double averageStatements;
+    private long maxStatements;
+    private int statementBudget;
+    private long budgetExceededCount;
+    private long repeatedStatementCount;
+    private double slowestStatementMillis;
+    private String slowestStatement;
+}
@@ -0,0 +1,18 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoadSheddingStatisticsDto {
+    private int concurrencyLimit;
+    private int nonCheckoutLimit;
+    private int inFlight;
+    private int trackedBuckets;
+    private List<EndpointGroupStatisticsDto> groups;
+}
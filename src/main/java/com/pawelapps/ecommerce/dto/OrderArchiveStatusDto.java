@@ -0,0 +1,21 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderArchiveStatusDto {
+    private boolean running;
+    private LocalDateTime lastRunStartedAt;
+    private long lastRunDurationMillis;
+    private long lastRunOrdersArchived;
+    private long runCount;
+    private long batchCount;
+    private long ordersArchived;
+    private double averagePayloadBytes;
+}
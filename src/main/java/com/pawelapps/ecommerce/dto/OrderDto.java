@@ -1,30 +1,20 @@
 package com.pawelapps.ecommerce.dto;
 
-import com.pawelapps.ecommerce.entity.*;
-import lombok.*;
+import lombok.Builder;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
 
-@Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
 @Builder
-public class OrderDto {
-    private Long id;
-    private Customer customer;
-    private ShippingAddress shippingAddress;
-    private Summary summary;
-    private User user;
-    private List<OrderProduct> orderProducts;
+public record OrderDto(Long id,
+                       LocalDateTime dateCreated,
+                       CustomerDto customer,
+                       ShippingAddressDto shippingAddress,
+                       SummaryDto summary,
+                       UserDto user,
+                       List<OrderProductDto> orderProducts) {
 
-    public void addOrderProduct(OrderProduct orderProduct) {
-        if (orderProduct != null){
-            if (orderProducts == null){
-                orderProducts = new ArrayList<>();
-            }
-            orderProducts.add(orderProduct);
-        }
+    public OrderDto {
+        orderProducts = orderProducts == null ? List.of() : List.copyOf(orderProducts);
     }
 }
@@ -0,0 +1,9 @@
+package com.pawelapps.ecommerce.dto;
+
+import java.util.List;
+
+/**
+ * @param nextCursor cursor of the next (older) page, null on the last page
+ */
+public record OrderHistoryPageDto(List<OrderDto> orders, String nextCursor) {
+}
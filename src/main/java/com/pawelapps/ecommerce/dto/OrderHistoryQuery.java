@@ -0,0 +1,55 @@
+package com.pawelapps.ecommerce.dto;
+
+import com.pawelapps.ecommerce.exception.InvalidOrderException;
+import lombok.Builder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * One page of order history, newest orders first. {@code from} is inclusive and {@code to} exclusive,
+ * either may be null. {@code cursor} is the nextCursor of the previous page, null for the most recent page.
+ */
+@Builder
+public record OrderHistoryQuery(LocalDateTime from, LocalDateTime to, String cursor, int size) {
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    public LocalDateTime fromOrEarliest() {
+        return from != null ? from : EARLIEST;
+    }
+
+    /**
+     * Orders returned are older than this date, or equally old with an id below {@link #beforeOrderId()}.
+     */
+    public LocalDateTime beforeDate() {
+        if (cursor != null) {
+            return decodeCursor().dateCreated();
+        }
+        return to != null ? to : LATEST;
+    }
+
+    public long beforeOrderId() {
+        return cursor != null ? decodeCursor().orderId() : 0;
+    }
+
+    public static String encodeCursor(LocalDateTime dateCreated, long orderId) {
+        String cursor = dateCreated + "|" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decodeCursor() {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidOrderException("Invalid order history cursor");
+        }
+    }
+
+    private record Cursor(LocalDateTime dateCreated, long orderId) {
+    }
+}
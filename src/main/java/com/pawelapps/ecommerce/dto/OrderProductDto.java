@@ -0,0 +1,15 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+@Builder
+public record OrderProductDto(Long id,
+                              int quantity,
+                              String name,
+                              String description,
+                              BigDecimal unitPrice,
+                              String imageUrl,
+                              ProductDto product) {
+}
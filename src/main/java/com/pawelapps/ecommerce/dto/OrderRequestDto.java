@@ -0,0 +1,18 @@
+package com.pawelapps.ecommerce.dto;
+
+import com.pawelapps.ecommerce.entity.OrderRequestStatus;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderRequestDto {
+    private Long id;
+    private String idempotencyKey;
+    private String userEmail;
+    private OrderRequestStatus status;
+    private Long orderId;
+    private String failureReason;
+}
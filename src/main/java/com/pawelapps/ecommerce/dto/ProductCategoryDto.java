@@ -0,0 +1,7 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.Builder;
+
+@Builder
+public record ProductCategoryDto(Long id, String categoryName) {
+}
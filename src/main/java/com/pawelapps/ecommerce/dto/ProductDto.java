@@ -0,0 +1,20 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Builder
+public record ProductDto(Long id,
+                         String sku,
+                         String name,
+                         String description,
+                         BigDecimal unitPrice,
+                         String imageUrl,
+                         boolean active,
+                         int unitsInStock,
+                         LocalDateTime dateCreated,
+                         LocalDateTime lastUpdated,
+                         ProductCategoryDto productCategory) {
+}
@@ -0,0 +1,4 @@
+package com.pawelapps.ecommerce.dto;
+
+public record ProductImportRejectDto(long line, String sku, String reason) {
+}
@@ -0,0 +1,13 @@
+package com.pawelapps.ecommerce.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a catalog import. {@code rejects} lists at most the first
+ * ecommerce.product-import.max-reported-rejects rejected rows, {@code rowsRejected} counts all of them.
+ */
+public record ProductImportReportDto(long rowsRead,
+                                     long rowsImported,
+                                     long rowsRejected,
+                                     List<ProductImportRejectDto> rejects) {
+}
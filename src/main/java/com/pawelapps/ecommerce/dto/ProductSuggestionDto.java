@@ -0,0 +1,4 @@
+package com.pawelapps.ecommerce.dto;
+
+public record ProductSuggestionDto(Long id, String name, String sku) {
+}
@@ -0,0 +1,12 @@
+package com.pawelapps.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record RevenuePeriodDto(LocalDate periodStart,
+                               long orderCount,
+                               long units,
+                               BigDecimal revenue,
+                               BigDecimal shipping,
+                               BigDecimal averageBasket) {
+}
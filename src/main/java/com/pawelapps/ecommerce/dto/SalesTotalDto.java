@@ -0,0 +1,9 @@
+package com.pawelapps.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Units and revenue of one product or one category, depending on the query.
+ */
+public record SalesTotalDto(Long id, long units, BigDecimal revenue) {
+}
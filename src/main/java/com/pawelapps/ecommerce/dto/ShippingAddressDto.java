@@ -0,0 +1,7 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.Builder;
+
+@Builder
+public record ShippingAddressDto(Long id, String country, String city, String streetAddress, String zipCode) {
+}
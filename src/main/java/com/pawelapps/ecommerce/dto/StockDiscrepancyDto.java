@@ -0,0 +1,4 @@
+package com.pawelapps.ecommerce.dto;
+
+public record StockDiscrepancyDto(Long productId, int unitsInStock, long expectedUnitsInStock, boolean repaired) {
+}
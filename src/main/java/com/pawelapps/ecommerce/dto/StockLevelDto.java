@@ -0,0 +1,4 @@
+package com.pawelapps.ecommerce.dto;
+
+public record StockLevelDto(Long productId, int unitsInStock) {
+}
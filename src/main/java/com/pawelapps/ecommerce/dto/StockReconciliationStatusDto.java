@@ -0,0 +1,23 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of the running stock reconciliation, or the result of the last one when none is running.
+ */
+@Builder
+public record StockReconciliationStatusDto(boolean running,
+                                           LocalDateTime startedAt,
+                                           LocalDateTime finishedAt,
+                                           long durationMillis,
+                                           int partitionsTotal,
+                                           int partitionsDone,
+                                           int partitionsFailed,
+                                           long productsChecked,
+                                           long discrepancyCount,
+                                           long repairedCount,
+                                           List<StockDiscrepancyDto> discrepancies) {
+}
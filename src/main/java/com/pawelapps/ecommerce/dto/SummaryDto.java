@@ -0,0 +1,9 @@
+package com.pawelapps.ecommerce.dto;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+@Builder
+public record SummaryDto(Long id, BigDecimal totalCartValue, int totalQuantityOfProducts, BigDecimal shippingPrice) {
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -12,6 +13,15 @@ import java.util.Set;
 
 @Entity
 @Table(name = "cart")
+@NamedEntityGraph(name = "Cart.view",
+        attributeNodes = {
+                @NamedAttributeNode("user"),
+                @NamedAttributeNode(value = "cartProducts", subgraph = "cartProducts")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "cartProducts", attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product")),
+                @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("productCategory"))
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,7 +34,7 @@ public class Cart {
     @Column(name = "id")
     private Long id;
 
-    @OneToOne(cascade = {CascadeType.ALL, CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH}, orphanRemoval = true)
+    @OneToOne(fetch = FetchType.LAZY, cascade = {CascadeType.ALL, CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH}, orphanRemoval = true)
     @JoinColumn(name = "user_id")
     @JsonIgnoreProperties("cart")
     private User user;
@@ -33,6 +43,17 @@ public class Cart {
     @JsonIgnoreProperties("cart")
     private List<CartProduct> cartProducts;
 
+    // only moved forward once per touch interval, see CartExpiryJob
+    @Column(name = "last_touched", nullable = false)
+    private LocalDateTime lastTouched;
+
+    @PrePersist
+    void onCreate() {
+        if (lastTouched == null) {
+            lastTouched = LocalDateTime.now();
+        }
+    }
+
     public void addCartProduct(CartProduct cartProduct) {
         if (cartProduct != null) {
             if (cartProducts == null) {
@@ -2,13 +2,17 @@ package com.pawelapps.ecommerce.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "cart_product")
+@Table(name = "cart_product", uniqueConstraints = @UniqueConstraint(name = "cart_product", columnNames = {"cart_id", "product_id"}))
+@NamedEntityGraph(name = "CartProduct.view",
+        attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product"),
+        subgraphs = @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("productCategory")))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -37,10 +41,10 @@ public class CartProduct {
 
     @ManyToOne(fetch= FetchType.LAZY)
     @JoinColumn(name = "cart_id", referencedColumnName = "id")
-    @JsonIgnoreProperties("cart")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Cart cart;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", referencedColumnName = "id")
     private Product product;
 }
@@ -6,6 +6,8 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -13,11 +15,26 @@ import java.util.Set;
 
 @Entity
 @Table(name = "orders")
+@NamedEntityGraph(name = "Order.detail",
+        attributeNodes = {
+                @NamedAttributeNode("customer"),
+                @NamedAttributeNode(value = "user", subgraph = "user"),
+                @NamedAttributeNode("shippingAddress"),
+                @NamedAttributeNode("summary"),
+                @NamedAttributeNode(value = "orderProducts", subgraph = "orderProducts")
+        },
+        subgraphs = {
+                // User.cart is the inverse side of a one-to-one and is always loaded, join it instead of a second select
+                @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("cart")),
+                @NamedSubgraph(name = "orderProducts", attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product")),
+                @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("productCategory"))
+        })
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Order {
 
     @Id
@@ -25,22 +42,25 @@ public class Order {
     @Column(name = "id")
     private Long id;
 
-    @ManyToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE, CascadeType.REFRESH})
+    @Column(name = "date_created", nullable = false)
+    private LocalDateTime dateCreated;
+
+    @ManyToOne(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE, CascadeType.REFRESH})
     @JoinColumn(name = "customer_id", referencedColumnName = "id")
     @JsonIgnoreProperties("orders")
     private Customer customer;
 
-    @ManyToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE, CascadeType.REFRESH})
+    @ManyToOne(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE, CascadeType.REFRESH})
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     @JsonIgnoreProperties("orders")
     private User user;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name = "shipping_address_id", referencedColumnName = "id")
     @JsonIgnoreProperties("order")
     private ShippingAddress shippingAddress;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name = "summary_id", referencedColumnName = "id")
     @JsonIgnoreProperties("order")
     private Summary summary;
@@ -49,6 +69,14 @@ public class Order {
     @JsonIgnoreProperties("order")
     private List<OrderProduct> orderProducts;
 
+    @PrePersist
+    void onCreate() {
+        if (dateCreated == null) {
+            // the column keeps microseconds, the snapshot and history cursors must carry the stored value
+            dateCreated = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        }
+    }
+
     public void addOrderProduct(OrderProduct orderProduct) {
         if (orderProduct != null){
             if (orderProducts == null){
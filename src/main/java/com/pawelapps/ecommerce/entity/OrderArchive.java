@@ -0,0 +1,40 @@
+package com.pawelapps.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order moved out of the order tables: its snapshot, gzip-compressed, with the columns order
+ * history pages are looked up by.
+ */
+@Entity
+@Table(name = "order_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderArchive {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "customer_email")
+    private String customerEmail;
+
+    @Column(name = "date_created", nullable = false)
+    private LocalDateTime dateCreated;
+
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+
+    @Column(name = "date_archived")
+    private LocalDateTime dateArchived;
+}
@@ -0,0 +1,35 @@
+package com.pawelapps.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Orders placed on one day, maintained by the order placement transaction. Money is kept in cents.
+ */
+@Entity
+@Table(name = "order_daily_rollup")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderDailyRollup {
+
+    @Id
+    @Column(name = "order_date")
+    private LocalDate orderDate;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "units", nullable = false)
+    private long units;
+
+    @Column(name = "revenue_cents", nullable = false)
+    private long revenueCents;
+
+    @Column(name = "shipping_cents", nullable = false)
+    private long shippingCents;
+}
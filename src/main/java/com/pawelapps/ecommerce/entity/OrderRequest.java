@@ -0,0 +1,47 @@
+package com.pawelapps.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_request")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderRequest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "idempotency_key", unique = true, nullable = false)
+    private String idempotencyKey;
+
+    @Column(name = "user_email")
+    private String userEmail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private OrderRequestStatus status;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    @Lob
+    @Column(name = "payload")
+    private String payload;
+
+    @Column(name = "date_created")
+    private LocalDateTime dateCreated;
+
+    @Column(name = "last_updated")
+    private LocalDateTime lastUpdated;
+}
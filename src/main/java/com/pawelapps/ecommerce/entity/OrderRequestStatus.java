@@ -0,0 +1,7 @@
+package com.pawelapps.ecommerce.entity;
+
+public enum OrderRequestStatus {
+    PENDING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,31 @@
+package com.pawelapps.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The whole order detail (customer, address, summary, items and their products) serialized once when
+ * the order is placed, so an order is read back by its primary key without joining the order tables.
+ */
+@Entity
+@Table(name = "order_snapshot")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSnapshot {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Lob
+    @Column(name = "payload")
+    private String payload;
+
+    @Column(name = "date_created")
+    private LocalDateTime dateCreated;
+}
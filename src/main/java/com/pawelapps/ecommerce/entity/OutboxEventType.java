@@ -0,0 +1,6 @@
+package com.pawelapps.ecommerce.entity;
+
+public enum OutboxEventType {
+    ORDER_CREATED,
+    STOCK_CHANGED
+}
@@ -0,0 +1,48 @@
+package com.pawelapps.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Units and revenue of one product on one day, maintained by the order placement transaction.
+ * The category is the one the product had when it was sold.
+ */
+@Entity
+@Table(name = "product_daily_rollup")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductDailyRollup {
+
+    @EmbeddedId
+    private Key key;
+
+    @Column(name = "product_category_id")
+    private Long productCategoryId;
+
+    @Column(name = "units", nullable = false)
+    private long units;
+
+    @Column(name = "revenue_cents", nullable = false)
+    private long revenueCents;
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Column(name = "order_date")
+        private LocalDate orderDate;
+
+        @Column(name = "product_id")
+        private Long productId;
+    }
+}
@@ -0,0 +1,31 @@
+package com.pawelapps.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Units in stock plus all units ever ordered of a product, as last seen by stock reconciliation. Orders
+ * move units from stock to sold, so the sum only changes when stock drifts or an administrator sets the
+ * stock, which re-baselines the product.
+ */
+@Entity
+@Table(name = "product_stock_baseline")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductStockBaseline {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "units_in_stock_and_sold", nullable = false)
+    private long unitsInStockAndSold;
+
+    @Column(name = "date_checked", nullable = false)
+    private LocalDateTime dateChecked;
+}
@@ -1,6 +1,7 @@
 package com.pawelapps.ecommerce.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -11,6 +12,7 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class ShippingAddress {
 
     @Id
@@ -31,6 +33,6 @@ public class ShippingAddress {
     private String zipCode;
 
     @OneToOne(mappedBy = "shippingAddress")
-    @JsonIgnoreProperties("shippingAddress")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Order order;
 }
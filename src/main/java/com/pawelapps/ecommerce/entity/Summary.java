@@ -1,6 +1,7 @@
 package com.pawelapps.ecommerce.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -13,6 +14,7 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Summary {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -29,6 +31,6 @@ public class Summary {
     private BigDecimal shippingPrice;
 
     @OneToOne(mappedBy = "summary")
-    @JsonIgnoreProperties("summary")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Order order;
 }
@@ -0,0 +1,52 @@
+package com.pawelapps.ecommerce.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pawelapps.ecommerce.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends every event as one JSON line to a local file.
+ */
+@Component
+@ConditionalOnProperty(name = "ecommerce.outbox.sink", havingValue = "file")
+public class FileOrderEventSink implements OrderEventSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public FileOrderEventSink(@Value("${ecommerce.outbox.file-path:order-events.ndjson}") String path, ObjectMapper objectMapper) {
+        this.path = Path.of(path);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxEvent event : events) {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("id", event.getId());
+                line.put("eventType", event.getEventType());
+                line.put("aggregateId", event.getAggregateId());
+                line.put("dateCreated", event.getDateCreated().toString());
+                line.put("payload", objectMapper.readTree(event.getPayload()));
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.pawelapps.ecommerce.event;
+
+import com.pawelapps.ecommerce.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the last {@code memory-capacity} events in memory and drops older ones, for tests and local runs
+ * only: relayed events are marked published and purged from the outbox, so dropped events are lost.
+ * It has to be chosen explicitly with {@code ecommerce.outbox.sink=memory}.
+ */
+@Component
+@ConditionalOnProperty(name = "ecommerce.outbox.sink", havingValue = "memory")
+public class InMemoryOrderEventSink implements OrderEventSink {
+
+    private final Deque<OutboxEvent> events = new ArrayDeque<>();
+    private final int capacity;
+
+    public InMemoryOrderEventSink(@Value("${ecommerce.outbox.memory-capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            if (this.events.size() == capacity) {
+                this.events.removeFirst();
+            }
+            this.events.addLast(event);
+        }
+    }
+
+    public synchronized List<OutboxEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+}
@@ -0,0 +1,14 @@
+package com.pawelapps.ecommerce.event;
+
+import com.pawelapps.ecommerce.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of the events relayed from the outbox. A batch counts as delivered only when
+ * {@link #publish(List)} returns normally, otherwise it is retried on the next relay run, so
+ * consumers have to tolerate duplicates (every event carries its outbox id).
+ */
+public interface OrderEventSink {
+    void publish(List<OutboxEvent> events) throws Exception;
+}
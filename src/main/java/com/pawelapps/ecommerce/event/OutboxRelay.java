@@ -0,0 +1,84 @@
+package com.pawelapps.ecommerce.event;
+
+import com.pawelapps.ecommerce.dao.OutboxEventRepository;
+import com.pawelapps.ecommerce.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Periodically moves unpublished outbox events to the configured {@link OrderEventSink} in id order.
+ * Each batch is published and marked in one transaction, so a failing sink leaves the batch
+ * unpublished and it is picked up again on the next run. There is no default sink: startup fails until
+ * {@code ecommerce.outbox.sink} names one.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderEventSink orderEventSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long retentionHours;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OrderEventSink orderEventSink,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${ecommerce.outbox.batch-size:100}") int batchSize,
+                       @Value("${ecommerce.outbox.max-batches-per-run:10}") int maxBatchesPerRun,
+                       @Value("${ecommerce.outbox.retention-hours:24}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderEventSink = orderEventSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retentionHours = retentionHours;
+    }
+
+    @Scheduled(fixedDelayString = "${ecommerce.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer published = transactionTemplate.execute(status -> publishBatch());
+                if (published == null || published < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Publishing outbox events failed, retrying on next run: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ecommerce.outbox.cleanup-interval-ms:3600000}")
+    public void deletePublishedEvents() {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours)));
+    }
+
+    int publishBatch() {
+        List<OutboxEvent> events = outboxEventRepository.findUnpublished(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        try {
+            orderEventSink.publish(events);
+        } catch (Exception e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        outboxEventRepository.markPublished(events.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+        return events.size();
+    }
+}
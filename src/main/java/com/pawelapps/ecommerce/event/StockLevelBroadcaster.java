@@ -0,0 +1,289 @@
+package com.pawelapps.ecommerce.event;
+
+import com.pawelapps.ecommerce.dao.ProductRepository;
+import com.pawelapps.ecommerce.dto.StockLevelDto;
+import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.exception.InvalidSubscriptionException;
+import com.pawelapps.ecommerce.exception.StreamUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed stock level changes to Server-Sent Events subscribers of this node. Changes are
+ * coalesced per product and flushed once per {@code coalesce-window-ms}, so a product sold many times in
+ * a window costs one event per subscriber. Every subscriber keeps only the latest unsent level of each
+ * product it watches and is drained by a small sender pool, one task per subscriber at most; a client
+ * that cannot keep up therefore skips intermediate levels instead of buffering them, and is disconnected
+ * once it has made no progress for {@code slow-client-timeout-ms} (browsers reconnect and get a fresh snapshot).
+ * <p>
+ * A write to a stalled connection blocks its sender thread until the container's socket write timeout
+ * ({@code server.tomcat.connection-timeout}) and cannot be interrupted. A subscriber whose write has been
+ * blocked for {@code send-timeout-ms} is therefore disconnected and its thread replaced by an extra one,
+ * up to {@code max-stalled-senders}, so stalled clients do not take the pool away from everybody else.
+ */
+@Component
+public class StockLevelBroadcaster {
+
+    private final ProductRepository productRepository;
+    private final Map<Long, Integer> pendingChanges = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> subscribersByProduct = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final int senderThreads;
+    private final int maxSubscribers;
+    private final int maxProductsPerSubscription;
+    private final long subscriptionTimeoutMillis;
+    private final long slowClientTimeoutMillis;
+    private final long sendTimeoutMillis;
+    private final int maxStalledSenders;
+    private final AtomicInteger stalledSenders = new AtomicInteger();
+    private ThreadPoolExecutor senderExecutor;
+
+    @Autowired
+    public StockLevelBroadcaster(ProductRepository productRepository,
+                                 @Value("${ecommerce.stock-stream.sender-threads:4}") int senderThreads,
+                                 @Value("${ecommerce.stock-stream.max-subscribers:10000}") int maxSubscribers,
+                                 @Value("${ecommerce.stock-stream.max-products-per-subscription:100}") int maxProductsPerSubscription,
+                                 @Value("${ecommerce.stock-stream.subscription-timeout-ms:1800000}") long subscriptionTimeoutMillis,
+                                 @Value("${ecommerce.stock-stream.slow-client-timeout-ms:10000}") long slowClientTimeoutMillis,
+                                 @Value("${ecommerce.stock-stream.send-timeout-ms:5000}") long sendTimeoutMillis,
+                                 @Value("${ecommerce.stock-stream.max-stalled-senders:64}") int maxStalledSenders) {
+        this.productRepository = productRepository;
+        this.senderThreads = senderThreads;
+        this.maxSubscribers = maxSubscribers;
+        this.maxProductsPerSubscription = maxProductsPerSubscription;
+        this.subscriptionTimeoutMillis = subscriptionTimeoutMillis;
+        this.slowClientTimeoutMillis = slowClientTimeoutMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.maxStalledSenders = maxStalledSenders;
+    }
+
+    @PostConstruct
+    public void start() {
+        senderExecutor = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "stock-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senderExecutor.shutdownNow();
+        senderExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queues the new stock level of a product for the next flush, once the current transaction commits.
+     */
+    public void stockChanged(Long productId, int unitsInStock) {
+        if (productId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pendingChanges.put(productId, unitsInStock);
+                }
+            });
+        } else {
+            pendingChanges.put(productId, unitsInStock);
+        }
+    }
+
+    /**
+     * Opens a stream of stock levels of the given products, starting with their current levels.
+     */
+    public SseEmitter subscribe(Collection<Long> productIds) {
+        Set<Long> watchedProductIds = Set.copyOf(productIds);
+        if (watchedProductIds.isEmpty() || watchedProductIds.size() > maxProductsPerSubscription) {
+            throw new InvalidSubscriptionException("Between 1 and " + maxProductsPerSubscription + " product ids can be watched");
+        }
+        if (subscribers.size() >= maxSubscribers) {
+            throw new StreamUnavailableException("Too many stock stream subscribers, please retry later");
+        }
+
+        Subscriber subscriber = new Subscriber(new SseEmitter(subscriptionTimeoutMillis), watchedProductIds);
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+        subscriber.emitter.onError(error -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+        watchedProductIds.forEach(productId -> subscribersByProduct.computeIfAbsent(productId, key -> ConcurrentHashMap.newKeySet()).add(subscriber));
+
+        for (Product product : productRepository.findAllById(watchedProductIds)) {
+            subscriber.unsent.putIfAbsent(product.getId(), product.getUnitsInStock());
+        }
+        subscriber.scheduleSend();
+        return subscriber.emitter;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.productIds.forEach(productId -> subscribersByProduct.computeIfPresent(productId, (key, productSubscribers) -> {
+                productSubscribers.remove(subscriber);
+                return productSubscribers.isEmpty() ? null : productSubscribers;
+            }));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ecommerce.stock-stream.coalesce-window-ms:250}")
+    public void flush() {
+        // take each level with remove(key) so a newer one put meanwhile is either taken or kept, never dropped
+        for (Long productId : pendingChanges.keySet()) {
+            Integer unitsInStock = pendingChanges.remove(productId);
+            Set<Subscriber> productSubscribers = unitsInStock == null ? null : subscribersByProduct.get(productId);
+            if (productSubscribers != null) {
+                for (Subscriber subscriber : productSubscribers) {
+                    subscriber.unsent.put(productId, unitsInStock);
+                    subscriber.scheduleSend();
+                }
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.markSendStalledSince(now - sendTimeoutMillis)) {
+                unsubscribe(subscriber);
+                subscriber.emitter.complete();
+            } else if (subscriber.isBehindSince(now - slowClientTimeoutMillis)) {
+                unsubscribe(subscriber);
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Keeps {@code sender-threads} threads free of stalled writes, as far as {@code max-stalled-senders} allows.
+     */
+    private synchronized void resizeSenderPool() {
+        int poolSize = senderThreads + Math.min(stalledSenders.get(), maxStalledSenders);
+        if (poolSize > senderExecutor.getMaximumPoolSize()) {
+            senderExecutor.setMaximumPoolSize(poolSize);
+            senderExecutor.setCorePoolSize(poolSize);
+        } else if (poolSize < senderExecutor.getCorePoolSize()) {
+            senderExecutor.setCorePoolSize(poolSize);
+            senderExecutor.setMaximumPoolSize(poolSize);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ecommerce.stock-stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.scheduleSend();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private class Subscriber {
+        private static final long SEND_STALLED = -1;
+
+        private final SseEmitter emitter;
+        private final Set<Long> productIds;
+        private final Map<Long, Integer> unsent = new ConcurrentHashMap<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // when the current write started, 0 between writes
+        private final AtomicLong sendStartedAt = new AtomicLong();
+        // last time the subscriber was scheduled or delivered an event
+        private volatile long sendingSince;
+        private volatile boolean heartbeatDue;
+
+        Subscriber(SseEmitter emitter, Set<Long> productIds) {
+            this.emitter = emitter;
+            this.productIds = productIds;
+        }
+
+        void scheduleSend() {
+            if (acquire()) {
+                senderExecutor.execute(this::drain);
+            }
+        }
+
+        private boolean acquire() {
+            if (sending.compareAndSet(false, true)) {
+                sendingSince = System.currentTimeMillis();
+                return true;
+            }
+            return false;
+        }
+
+        boolean isBehindSince(long time) {
+            return sending.get() && sendingSince < time;
+        }
+
+        /**
+         * @return true when a write started before {@code time} is still blocked; it is then counted as
+         * stalled, with a replacement sender thread, until it returns
+         */
+        boolean markSendStalledSince(long time) {
+            long startedAt = sendStartedAt.get();
+            if (startedAt <= 0 || startedAt >= time) {
+                return false;
+            }
+            stalledSenders.incrementAndGet();
+            if (!sendStartedAt.compareAndSet(startedAt, SEND_STALLED)) {
+                stalledSenders.decrementAndGet();
+                return false;
+            }
+            resizeSenderPool();
+            return true;
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendStartedAt.set(System.currentTimeMillis());
+            try {
+                emitter.send(event);
+            } finally {
+                if (sendStartedAt.getAndSet(0) == SEND_STALLED) {
+                    stalledSenders.decrementAndGet();
+                    resizeSenderPool();
+                }
+            }
+            sendingSince = System.currentTimeMillis();
+        }
+
+        private void drain() {
+            try {
+                do {
+                    if (heartbeatDue) {
+                        heartbeatDue = false;
+                        send(SseEmitter.event().comment("keep-alive"));
+                    }
+                    for (Long productId : unsent.keySet()) {
+                        Integer unitsInStock = unsent.remove(productId);
+                        if (unitsInStock != null) {
+                            send(SseEmitter.event().name("stock").data(new StockLevelDto(productId, unitsInStock)));
+                        }
+                    }
+                    sending.set(false);
+                } while ((!unsent.isEmpty() || heartbeatDue) && acquire());
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
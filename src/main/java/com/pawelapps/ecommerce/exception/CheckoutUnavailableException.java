@@ -0,0 +1,7 @@
+package com.pawelapps.ecommerce.exception;
+
+public class CheckoutUnavailableException extends RuntimeException {
+    public CheckoutUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.pawelapps.ecommerce.exception;
+
+public class InvalidSubscriptionException extends RuntimeException {
+    public InvalidSubscriptionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.pawelapps.ecommerce.exception;
+
+public class StreamUnavailableException extends RuntimeException {
+    public StreamUnavailableException(String message) {
+        super(message);
+    }
+}
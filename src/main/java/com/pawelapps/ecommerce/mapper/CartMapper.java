@@ -0,0 +1,21 @@
+package com.pawelapps.ecommerce.mapper;
+
+import com.pawelapps.ecommerce.dto.CartDto;
+import com.pawelapps.ecommerce.dto.CartProductDto;
+import com.pawelapps.ecommerce.entity.Cart;
+import com.pawelapps.ecommerce.entity.CartProduct;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring", uses = {ProductMapper.class, UserMapper.class}, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface CartMapper {
+
+    CartDto toCartDto(Cart cart);
+
+    @Mapping(target = "cartId", source = "cart.id")
+    CartProductDto toCartProductDto(CartProduct cartProduct);
+
+    @Mapping(target = "cart", ignore = true)
+    CartProduct toCartProduct(CartProductDto cartProductDto);
+}
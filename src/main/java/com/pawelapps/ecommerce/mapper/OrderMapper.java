@@ -0,0 +1,46 @@
+package com.pawelapps.ecommerce.mapper;
+
+import com.pawelapps.ecommerce.dto.*;
+import com.pawelapps.ecommerce.entity.*;
+import org.mapstruct.*;
+
+/**
+ * Order entity <-> OrderDto, generated at compile time. Entities are built through their no-args
+ * constructor and setters so the order item back-reference can be set after mapping.
+ */
+@Mapper(componentModel = "spring", uses = {ProductMapper.class, UserMapper.class}, injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+        builder = @Builder(disableBuilder = true))
+public interface OrderMapper {
+
+    OrderDto toOrderDto(Order order);
+
+    OrderProductDto toOrderProductDto(OrderProduct orderProduct);
+
+    CustomerDto toCustomerDto(Customer customer);
+
+    ShippingAddressDto toShippingAddressDto(ShippingAddress shippingAddress);
+
+    SummaryDto toSummaryDto(Summary summary);
+
+    @Mapping(target = "dateCreated", ignore = true)
+    Order toOrder(OrderDto orderDto);
+
+    @Mapping(target = "order", ignore = true)
+    OrderProduct toOrderProduct(OrderProductDto orderProductDto);
+
+    @Mapping(target = "orders", ignore = true)
+    Customer toCustomer(CustomerDto customerDto);
+
+    @Mapping(target = "order", ignore = true)
+    ShippingAddress toShippingAddress(ShippingAddressDto shippingAddressDto);
+
+    @Mapping(target = "order", ignore = true)
+    Summary toSummary(SummaryDto summaryDto);
+
+    @AfterMapping
+    default void linkOrderProducts(@MappingTarget Order order) {
+        if (order.getOrderProducts() != null) {
+            order.getOrderProducts().forEach(orderProduct -> orderProduct.setOrder(order));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.pawelapps.ecommerce.mapper;
+
+import com.pawelapps.ecommerce.dto.ProductCategoryDto;
+import com.pawelapps.ecommerce.dto.ProductDto;
+import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.entity.ProductCategory;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface ProductMapper {
+
+    ProductDto toProductDto(Product product);
+
+    ProductCategoryDto toProductCategoryDto(ProductCategory productCategory);
+
+    Product toProduct(ProductDto productDto);
+
+    @Mapping(target = "products", ignore = true)
+    ProductCategory toProductCategory(ProductCategoryDto productCategoryDto);
+}
@@ -0,0 +1,16 @@
+package com.pawelapps.ecommerce.mapper;
+
+import com.pawelapps.ecommerce.dto.UserDto;
+import com.pawelapps.ecommerce.entity.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface UserMapper {
+
+    UserDto toUserDto(User user);
+
+    @Mapping(target = "cart", ignore = true)
+    @Mapping(target = "orders", ignore = true)
+    User toUser(UserDto userDto);
+}
@@ -0,0 +1,28 @@
+package com.pawelapps.ecommerce.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money amounts as a long number of cents. Prices are converted once per line, totals are then summed
+ * as longs instead of allocating a new BigDecimal for every multiply and add.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static long lineTotal(long unitPriceCents, int quantity) {
+        return Math.multiplyExact(unitPriceCents, quantity);
+    }
+}
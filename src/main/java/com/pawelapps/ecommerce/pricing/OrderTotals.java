@@ -0,0 +1,31 @@
+package com.pawelapps.ecommerce.pricing;
+
+import com.pawelapps.ecommerce.dto.SummaryDto;
+import com.pawelapps.ecommerce.entity.Summary;
+
+import java.math.BigDecimal;
+
+public record OrderTotals(long totalCartValueCents, int totalQuantityOfProducts, long shippingPriceCents) {
+
+    public BigDecimal totalCartValue() {
+        return Money.toBigDecimal(totalCartValueCents);
+    }
+
+    public BigDecimal shippingPrice() {
+        return Money.toBigDecimal(shippingPriceCents);
+    }
+
+    public void applyTo(Summary summary) {
+        summary.setTotalCartValue(totalCartValue());
+        summary.setTotalQuantityOfProducts(totalQuantityOfProducts);
+        summary.setShippingPrice(shippingPrice());
+    }
+
+    public SummaryDto toSummaryDto() {
+        return SummaryDto.builder()
+                .totalCartValue(totalCartValue())
+                .totalQuantityOfProducts(totalQuantityOfProducts)
+                .shippingPrice(shippingPrice())
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.pawelapps.ecommerce.pricing;
+
+import com.pawelapps.ecommerce.entity.CartProduct;
+import com.pawelapps.ecommerce.entity.OrderProduct;
+import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.exception.InvalidOrderException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Computes order and cart totals from the current {@link Product#getUnitPrice()} instead of trusting the
+ * prices and summary sent by the client. Shipping is a flat price, free once the cart value reaches the
+ * threshold (a threshold of 0 disables free shipping).
+ */
+@Component
+public class PricingEngine {
+
+    private final long shippingPriceCents;
+    private final long freeShippingThresholdCents;
+
+    @Autowired
+    public PricingEngine(@Value("${ecommerce.pricing.shipping-price:0}") BigDecimal shippingPrice,
+                         @Value("${ecommerce.pricing.free-shipping-threshold:0}") BigDecimal freeShippingThreshold) {
+        this.shippingPriceCents = Money.toCents(shippingPrice);
+        this.freeShippingThresholdCents = Money.toCents(freeShippingThreshold);
+    }
+
+    /**
+     * Also overwrites the unit price of every order line with the product price it was charged at.
+     * The products must be loaded, not just references carrying an id.
+     */
+    public OrderTotals priceOrder(List<OrderProduct> orderProducts) {
+        long totalCents = 0;
+        int totalQuantity = 0;
+        try {
+            for (OrderProduct orderProduct : orderProducts) {
+                if (orderProduct.getQuantity() <= 0) {
+                    throw new InvalidOrderException("Order product must have a positive quantity");
+                }
+                Product product = orderProduct.getProduct();
+                orderProduct.setUnitPrice(product.getUnitPrice());
+                totalCents = Math.addExact(totalCents, Money.lineTotal(unitPriceCents(product), orderProduct.getQuantity()));
+                totalQuantity = Math.addExact(totalQuantity, orderProduct.getQuantity());
+            }
+        } catch (ArithmeticException e) {
+            throw new InvalidOrderException("Order total is out of range");
+        }
+        return totals(totalCents, totalQuantity);
+    }
+
+    /**
+     * Lines without a product are left out: their only price is the one the client sent, and they cannot
+     * be ordered.
+     */
+    public OrderTotals priceCart(List<CartProduct> cartProducts) {
+        long totalCents = 0;
+        int totalQuantity = 0;
+        try {
+            for (CartProduct cartProduct : cartProducts) {
+                if (cartProduct.getProduct() == null) {
+                    continue;
+                }
+                totalCents = Math.addExact(totalCents, Money.lineTotal(unitPriceCents(cartProduct.getProduct()), cartProduct.getQuantity()));
+                totalQuantity = Math.addExact(totalQuantity, cartProduct.getQuantity());
+            }
+        } catch (ArithmeticException e) {
+            throw new InvalidOrderException("Cart total is out of range");
+        }
+        return totals(totalCents, totalQuantity);
+    }
+
+    private long unitPriceCents(Product product) {
+        if (product.getUnitPrice() == null) {
+            throw new InvalidOrderException("Product with id " + product.getId() + " has no price");
+        }
+        return Money.toCents(product.getUnitPrice());
+    }
+
+    private OrderTotals totals(long totalCents, int totalQuantity) {
+        boolean freeShipping = totalQuantity == 0 || (freeShippingThresholdCents > 0 && totalCents >= freeShippingThresholdCents);
+        return new OrderTotals(totalCents, totalQuantity, freeShipping ? 0 : shippingPriceCents);
+    }
+}
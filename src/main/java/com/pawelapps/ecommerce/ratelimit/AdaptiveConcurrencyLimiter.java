@@ -0,0 +1,98 @@
+package com.pawelapps.ecommerce.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of requests in flight with a limit that follows latency instead of a fixed pool size
+ * (gradient algorithm). A short and a long moving average of the response time are kept; while they agree
+ * the limit grows by roughly its square root per sample, and once queueing makes the short average rise
+ * above the long one the limit shrinks by that ratio. Both averages cover the same traffic mix, so cheap
+ * and expensive endpoints do not skew the estimate the way a single minimum response time would. The
+ * long average slowly follows the short one, which lets the limit recover after a lasting change such
+ * as a bigger catalog.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW_SAMPLES = 10;
+    private static final double LONG_WINDOW_SAMPLES = 600;
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double checkoutHeadroom;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(RateLimitProperties.Concurrency properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.checkoutHeadroom = properties.getCheckoutHeadroom();
+        this.limit = properties.getInitialLimit();
+    }
+
+    /**
+     * @param checkout whether the request may use the headroom kept for checkout
+     * @return the number of requests in flight including this one, or 0 when the request has to be shed
+     */
+    public int tryAcquire(boolean checkout) {
+        int allowed = checkout ? getLimit() : getNonCheckoutLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return 0;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * @param inFlightAtStart what {@link #tryAcquire} returned for the request
+     */
+    public void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        if (rttNanos > 0) {
+            update(rttNanos, inFlightAtStart);
+        }
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtStart) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW_SAMPLES;
+        longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW_SAMPLES;
+
+        // Recovering from a latency spike: let the baseline follow faster so the limit does not stay low
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        // Few requests in flight say nothing about the limit, and it must not grow unbounded while idle
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, longRttNanos / shortRttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getNonCheckoutLimit() {
+        return Math.max(1, (int) (limit * (1 - checkoutHeadroom)));
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,69 @@
+package com.pawelapps.ecommerce.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * One token bucket per client and endpoint group. A bucket that refilled completely behaves exactly like
+ * a new one, so those are what gets dropped when the number of tracked buckets reaches its bound.
+ */
+public class ClientRateLimiter {
+
+    private static final long EVICTION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<EndpointGroup, RateLimitProperties.Bucket> limits;
+    private final int maxBuckets;
+    private final LongSupplier nanoClock;
+    private final Map<BucketKey, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastEvictionNanos;
+
+    public ClientRateLimiter(Map<EndpointGroup, RateLimitProperties.Bucket> limits, int maxBuckets, LongSupplier nanoClock) {
+        this.limits = limits;
+        this.maxBuckets = maxBuckets;
+        this.nanoClock = nanoClock;
+        this.lastEvictionNanos = new AtomicLong(nanoClock.getAsLong() - EVICTION_INTERVAL_NANOS);
+    }
+
+    /**
+     * @return 0 when the request may pass, otherwise the nanos until the client gets its next token for the group
+     */
+    public long tryAcquire(String client, EndpointGroup group) {
+        RateLimitProperties.Bucket limit = limits.get(group);
+        if (limit == null || limit.getCapacity() <= 0) {
+            return 0;
+        }
+
+        long nowNanos = nanoClock.getAsLong();
+        BucketKey key = new BucketKey(client, group);
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets && !evictFullBuckets(nowNanos)) {
+                return 0;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), nowNanos));
+        }
+        return bucket.tryConsume(nowNanos);
+    }
+
+    public int getTrackedBuckets() {
+        return buckets.size();
+    }
+
+    /**
+     * Sweeps at most once per second, so clients arriving while the map is full cannot make every
+     * request scan it.
+     */
+    private boolean evictFullBuckets(long nowNanos) {
+        long lastEviction = lastEvictionNanos.get();
+        if (nowNanos - lastEviction >= EVICTION_INTERVAL_NANOS && lastEvictionNanos.compareAndSet(lastEviction, nowNanos)) {
+            buckets.values().removeIf(bucket -> bucket.isFull(nowNanos));
+        }
+        return buckets.size() < maxBuckets;
+    }
+
+    private record BucketKey(String client, EndpointGroup group) {
+    }
+}
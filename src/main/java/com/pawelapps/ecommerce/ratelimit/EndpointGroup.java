@@ -0,0 +1,55 @@
+package com.pawelapps.ecommerce.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Set;
+
+/**
+ * Endpoint classes that get their own per-client rate limit. Under overload {@link #CHECKOUT} keeps
+ * the share of the concurrency limit the other groups are not allowed to use.
+ */
+public enum EndpointGroup {
+
+    /** Placing orders. */
+    CHECKOUT,
+
+    /** Unpaged lists, LIKE searches, exports and reports. */
+    EXPENSIVE,
+
+    /** Catalog reads by id or category, suggestions. */
+    BROWSE,
+
+    /** Carts, order history and all other writes. */
+    DEFAULT;
+
+    private static final Set<String> EXPENSIVE_PATHS = Set.of(
+            "/api/orders", "/api/products", "/api/products/async", "/api/products/async/stream");
+
+    /**
+     * @return the group of the request, or null for requests that are never limited (health probes)
+     */
+    public static EndpointGroup of(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        if (path.startsWith("/api/health/")) {
+            return null;
+        }
+        if ("POST".equals(method)) {
+            return path.equals("/api/orders") || path.equals("/api/orders/async") ? CHECKOUT : DEFAULT;
+        }
+        if (!"GET".equals(method)) {
+            return DEFAULT;
+        }
+        if (EXPENSIVE_PATHS.contains(path)
+                || path.startsWith("/api/products/products-by-name-or-sku/")
+                || path.startsWith("/api/catalog/")
+                || path.startsWith("/api/analytics/")) {
+            return EXPENSIVE;
+        }
+        if (path.startsWith("/api/products") || path.startsWith("/api/product-categories")) {
+            return BROWSE;
+        }
+        return DEFAULT;
+    }
+}
@@ -0,0 +1,92 @@
+package com.pawelapps.ecommerce.ratelimit;
+
+import com.pawelapps.ecommerce.dto.EndpointGroupStatisticsDto;
+import com.pawelapps.ecommerce.dto.LoadSheddingStatisticsDto;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides whether a request is served: first against the token bucket of its client and endpoint group,
+ * then against the adaptive concurrency limit. Rejections are cheap on purpose, nothing is queued.
+ */
+public class LoadShedder {
+
+    private final ClientRateLimiter clientRateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final LongSupplier nanoClock;
+    private final Map<EndpointGroup, GroupStatistics> statistics = new EnumMap<>(EndpointGroup.class);
+
+    public LoadShedder(ClientRateLimiter clientRateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter, LongSupplier nanoClock) {
+        this.clientRateLimiter = clientRateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.nanoClock = nanoClock;
+        Arrays.stream(EndpointGroup.values()).forEach(group -> statistics.put(group, new GroupStatistics()));
+    }
+
+    /**
+     * @param client the client's rate limit key, or null to skip the rate limit
+     */
+    public Admission admit(EndpointGroup group, String client) {
+        GroupStatistics groupStatistics = statistics.get(group);
+        if (client != null) {
+            long waitNanos = clientRateLimiter.tryAcquire(client, group);
+            if (waitNanos > 0) {
+                groupStatistics.rateLimitedCount.increment();
+                long retryAfterSeconds = Math.max(1, (long) Math.ceil((double) waitNanos / TimeUnit.SECONDS.toNanos(1)));
+                return new Admission(Outcome.RATE_LIMITED, retryAfterSeconds, 0, 0);
+            }
+        }
+
+        int inFlight = concurrencyLimiter.tryAcquire(group == EndpointGroup.CHECKOUT);
+        if (inFlight == 0) {
+            groupStatistics.shedCount.increment();
+            return new Admission(Outcome.SHED, 1, 0, 0);
+        }
+        groupStatistics.admittedCount.increment();
+        return new Admission(Outcome.ADMITTED, 0, inFlight, nanoClock.getAsLong());
+    }
+
+    /**
+     * Ends an admitted request and feeds its response time to the concurrency limit.
+     */
+    public void release(Admission admission) {
+        if (admission.outcome() == Outcome.ADMITTED) {
+            concurrencyLimiter.release(nanoClock.getAsLong() - admission.startNanos(), admission.inFlightAtStart());
+        }
+    }
+
+    public LoadSheddingStatisticsDto getStatistics() {
+        return LoadSheddingStatisticsDto.builder()
+                .concurrencyLimit(concurrencyLimiter.getLimit())
+                .nonCheckoutLimit(concurrencyLimiter.getNonCheckoutLimit())
+                .inFlight(concurrencyLimiter.getInFlight())
+                .trackedBuckets(clientRateLimiter.getTrackedBuckets())
+                .groups(statistics.entrySet().stream()
+                        .map(entry -> EndpointGroupStatisticsDto.builder()
+                                .group(entry.getKey().name())
+                                .admittedCount(entry.getValue().admittedCount.sum())
+                                .rateLimitedCount(entry.getValue().rateLimitedCount.sum())
+                                .shedCount(entry.getValue().shedCount.sum())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    public enum Outcome {
+        ADMITTED, RATE_LIMITED, SHED
+    }
+
+    public record Admission(Outcome outcome, long retryAfterSeconds, int inFlightAtStart, long startNanos) {
+    }
+
+    private static class GroupStatistics {
+        private final LongAdder admittedCount = new LongAdder();
+        private final LongAdder rateLimitedCount = new LongAdder();
+        private final LongAdder shedCount = new LongAdder();
+    }
+}
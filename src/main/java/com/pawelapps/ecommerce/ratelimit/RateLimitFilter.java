@@ -0,0 +1,120 @@
+package com.pawelapps.ecommerce.ratelimit;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Answers requests the {@link LoadShedder} rejects right away: 429 when the client used up its rate limit
+ * for the endpoint group, 503 when the server is at its concurrency limit, both with a Retry-After.
+ * Clients are told apart by the authenticated user, otherwise by remote address. Rate limits only apply
+ * once the application accepts traffic, so the startup warm-up is not throttled. An asynchronous request
+ * holds its concurrency slot until its async processing completes, errors or times out.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final LoadShedder loadShedder;
+    private final ApplicationAvailability applicationAvailability;
+
+    public RateLimitFilter(LoadShedder loadShedder, ApplicationAvailability applicationAvailability) {
+        this.loadShedder = loadShedder;
+        this.applicationAvailability = applicationAvailability;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointGroup group = EndpointGroup.of(request);
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean ready = applicationAvailability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC;
+        LoadShedder.Admission admission = loadShedder.admit(group, ready ? client(request) : null);
+        switch (admission.outcome()) {
+            case RATE_LIMITED -> reject(response, HttpStatus.TOO_MANY_REQUESTS, admission, "Too many requests, please retry later");
+            case SHED -> reject(response, HttpStatus.SERVICE_UNAVAILABLE, admission, "Server is busy, please retry");
+            default -> {
+                boolean releaseOnAsyncCompletion = false;
+                try {
+                    filterChain.doFilter(request, response);
+                    if (request.isAsyncStarted()) {
+                        request.getAsyncContext().addListener(new AdmissionReleasingListener(admission));
+                        releaseOnAsyncCompletion = true;
+                    }
+                } finally {
+                    if (!releaseOnAsyncCompletion) {
+                        loadShedder.release(admission);
+                    }
+                }
+            }
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : "address:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, LoadShedder.Admission admission, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admission.retryAfterSeconds()));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+
+    /**
+     * Keeps an asynchronous request's concurrency slot until the async processing ends, so the limit
+     * sees the real response time rather than the moment the request thread returned.
+     */
+    private class AdmissionReleasingListener implements AsyncListener {
+
+        private final LoadShedder.Admission admission;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private AdmissionReleasingListener(LoadShedder.Admission admission) {
+            this.admission = admission;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        // error and timeout are followed by complete, only the first one counts
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                loadShedder.release(admission);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.pawelapps.ecommerce.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "ecommerce.rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+
+    private boolean enabled;
+
+    /**
+     * Token bucket of each client per endpoint group, e.g.
+     * {@code ecommerce.rate-limit.groups.expensive.refill-per-second=2}. A group without a bucket or with
+     * capacity 0 is not rate limited.
+     */
+    private Map<EndpointGroup, Bucket> groups = new EnumMap<>(Map.of(
+            EndpointGroup.CHECKOUT, new Bucket(10, 1),
+            EndpointGroup.EXPENSIVE, new Bucket(20, 2),
+            EndpointGroup.BROWSE, new Bucket(100, 20),
+            EndpointGroup.DEFAULT, new Bucket(60, 10)));
+
+    /**
+     * Upper bound of tracked client buckets; buckets that refilled completely are dropped first, clients
+     * beyond the bound are only covered by the concurrency limit.
+     */
+    private int maxBuckets = 100_000;
+
+    private Concurrency concurrency = new Concurrency();
+
+    @Getter
+    @Setter
+    public static class Bucket {
+        private int capacity;
+        private double refillPerSecond;
+
+        public Bucket() {
+        }
+
+        public Bucket(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Concurrency {
+
+        private int initialLimit = 50;
+        private int minLimit = 10;
+        private int maxLimit = 400;
+
+        /**
+         * Share of the concurrency limit only checkout requests may use, so browsing is shed first.
+         */
+        private double checkoutHeadroom = 0.2;
+    }
+}
@@ -0,0 +1,403 @@
+package com.pawelapps.ecommerce.search;
+
+import com.pawelapps.ecommerce.dto.ProductSuggestionDto;
+import com.pawelapps.ecommerce.entity.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Typeahead over active products. Product names, every word suffix of a name ("blue cup" is also found
+ * by "cup") and SKUs are keys of a compressed prefix tree (radix tree) whose nodes hold the top
+ * {@code suggestions-per-prefix} products below them, ranked by how many order lines reference them.
+ * A lookup walks the prefix and returns the node's precomputed list without sorting or copying entries.
+ * <p>
+ * The tree is persistent: a write copies the nodes on its paths and publishes a new root, so lookups
+ * read a consistent tree without locking. Product writes update it after they commit; popularity is
+ * reloaded by a full rebuild every {@code rebuild-interval-ms} and after bulk imports. A rebuild reads the
+ * products without holding the lock, so product writes applied meanwhile are recorded and replayed on the
+ * rebuilt tree before it is published.
+ */
+@Component
+public class ProductSuggestionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggestionIndex.class);
+
+    private static final String SELECT_ACTIVE_PRODUCTS = "SELECT `id`, `name`, `sku` FROM `product` WHERE `active` = TRUE";
+    private static final String SELECT_ORDER_LINE_COUNTS = "SELECT `product_id`, COUNT(*) FROM `order_item` " +
+            "WHERE `product_id` IS NOT NULL GROUP BY `product_id`";
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int suggestionsPerPrefix;
+    // guarded by this, like every write to root
+    private final Map<Long, Entry> entriesByProductId = new HashMap<>();
+    private Map<Long, Long> orderLineCounts = Map.of();
+    // product writes applied while a rebuild reads products, null outside a rebuild
+    private Map<Long, ProductSuggestionDto> writesDuringRebuild;
+    private final Object rebuildLock = new Object();
+    private volatile Node root;
+    private volatile boolean built;
+
+    @Autowired
+    public ProductSuggestionIndex(JdbcTemplate jdbcTemplate,
+                                  @Value("${ecommerce.suggestions.suggestions-per-prefix:10}") int suggestionsPerPrefix) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.suggestionsPerPrefix = suggestionsPerPrefix;
+        this.root = emptyRoot();
+    }
+
+    /**
+     * Builds the index unless the startup warm-up already did.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!built) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${ecommerce.suggestions.rebuild-interval-ms:600000}",
+            fixedDelayString = "${ecommerce.suggestions.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            rebuildProducts();
+        }
+    }
+
+    private void rebuildProducts() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            writesDuringRebuild = new HashMap<>();
+        }
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query(SELECT_ORDER_LINE_COUNTS, resultSet -> {
+            counts.put(resultSet.getLong(1), resultSet.getLong(2));
+        });
+        List<Entry> entries = jdbcTemplate.query(SELECT_ACTIVE_PRODUCTS, (resultSet, rowNum) -> {
+            long id = resultSet.getLong(1);
+            return new Entry(new ProductSuggestionDto(id, resultSet.getString(2), resultSet.getString(3)), counts.getOrDefault(id, 0L));
+        });
+
+        synchronized (this) {
+            Node newRoot = emptyRoot();
+            entriesByProductId.clear();
+            for (Entry entry : entries) {
+                entriesByProductId.put(entry.suggestion.id(), entry);
+                for (String key : keys(entry.suggestion)) {
+                    newRoot = insert(newRoot, key, entry);
+                }
+            }
+            orderLineCounts = counts;
+            for (Map.Entry<Long, ProductSuggestionDto> write : writesDuringRebuild.entrySet()) {
+                newRoot = replace(newRoot, write.getKey(), write.getValue());
+            }
+            writesDuringRebuild = null;
+            root = newRoot;
+            built = true;
+        }
+        log.debug("Product suggestion index rebuilt with {} products in {} ms", entries.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Adds, updates or (when inactive) removes a product once the current transaction commits.
+     */
+    public void productSaved(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        ProductSuggestionDto suggestion = product.isActive()
+                ? new ProductSuggestionDto(product.getId(), product.getName(), product.getSku()) : null;
+        runAfterCommit(() -> replace(product.getId(), suggestion));
+    }
+
+    public void productDeleted(Long productId) {
+        runAfterCommit(() -> replace(productId, null));
+    }
+
+    private synchronized void replace(Long productId, ProductSuggestionDto suggestion) {
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.put(productId, suggestion);
+        }
+        root = replace(root, productId, suggestion);
+    }
+
+    private Node replace(Node newRoot, Long productId, ProductSuggestionDto suggestion) {
+        Entry previous = entriesByProductId.remove(productId);
+        if (previous != null) {
+            for (String key : keys(previous.suggestion)) {
+                newRoot = remove(newRoot, key, productId);
+            }
+        }
+        if (suggestion != null) {
+            Entry entry = new Entry(suggestion, orderLineCounts.getOrDefault(productId, 0L));
+            entriesByProductId.put(productId, entry);
+            for (String key : keys(suggestion)) {
+                newRoot = insert(newRoot, key, entry);
+            }
+        }
+        return newRoot;
+    }
+
+    /**
+     * @return up to {@code limit} products with a name, name word or SKU starting with {@code prefix},
+     * most ordered first
+     */
+    public List<ProductSuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            node = child(node.children, key.charAt(position));
+            if (node == null) {
+                return List.of();
+            }
+            int length = Math.min(node.label.length(), key.length() - position);
+            if (!key.regionMatches(position, node.label, 0, length)) {
+                return List.of();
+            }
+            position += length;
+        }
+
+        Entry[] top = node.top;
+        ProductSuggestionDto[] suggestions = new ProductSuggestionDto[Math.min(limit, top.length)];
+        for (int i = 0; i < suggestions.length; i++) {
+            suggestions[i] = top[i].suggestion;
+        }
+        return Arrays.asList(suggestions);
+    }
+
+    public int getSuggestionsPerPrefix() {
+        return suggestionsPerPrefix;
+    }
+
+    private static Set<String> keys(ProductSuggestionDto suggestion) {
+        Set<String> keys = new LinkedHashSet<>();
+        String name = normalize(suggestion.name()).trim();
+        if (!name.isEmpty()) {
+            keys.add(truncate(name));
+            for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+                keys.add(truncate(name.substring(i + 1)));
+            }
+        }
+        String sku = normalize(suggestion.sku()).trim();
+        if (!sku.isEmpty()) {
+            keys.add(truncate(sku));
+        }
+        return keys;
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    /**
+     * Lower case with leading whitespace dropped and other whitespace runs collapsed to one space, so a
+     * trailing space still narrows a lookup to the next word.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        if (pendingSpace) {
+            normalized.append(' ');
+        }
+        return normalized.toString();
+    }
+
+    private Node emptyRoot() {
+        return new Node("", NO_CHILDREN, NO_ENTRIES, NO_ENTRIES);
+    }
+
+    private Node node(String label, Node[] children, Entry[] terminals) {
+        return new Node(label, children, terminals, top(children, terminals));
+    }
+
+    private Node insert(Node node, String rest, Entry entry) {
+        if (rest.isEmpty()) {
+            Entry[] terminals = Arrays.copyOf(node.terminals, node.terminals.length + 1);
+            terminals[node.terminals.length] = entry;
+            return node(node.label, node.children, terminals);
+        }
+
+        int index = childIndex(node.children, rest.charAt(0));
+        if (index < 0) {
+            Node leaf = node(rest, NO_CHILDREN, new Entry[]{entry});
+            return node(node.label, insertAt(node.children, -index - 1, leaf), node.terminals);
+        }
+
+        Node child = node.children[index];
+        int common = commonPrefixLength(child.label, rest);
+        if (common < child.label.length()) {
+            Node lower = new Node(child.label.substring(common), child.children, child.terminals, child.top);
+            child = node(child.label.substring(0, common), new Node[]{lower}, NO_ENTRIES);
+        }
+        Node[] children = node.children.clone();
+        children[index] = insert(child, rest.substring(common), entry);
+        return node(node.label, children, node.terminals);
+    }
+
+    /**
+     * @return the node without the product under {@code rest}, or null when nothing is left below it
+     */
+    private Node remove(Node node, String rest, Long productId) {
+        Node[] children = node.children;
+        Entry[] terminals = node.terminals;
+        if (rest.isEmpty()) {
+            terminals = Arrays.stream(terminals).filter(entry -> !entry.suggestion.id().equals(productId)).toArray(Entry[]::new);
+        } else {
+            int index = childIndex(children, rest.charAt(0));
+            if (index < 0 || !rest.startsWith(children[index].label)) {
+                return node;
+            }
+            Node child = remove(children[index], rest.substring(children[index].label.length()), productId);
+            if (child == null) {
+                Node[] remaining = new Node[children.length - 1];
+                System.arraycopy(children, 0, remaining, 0, index);
+                System.arraycopy(children, index + 1, remaining, index, remaining.length - index);
+                children = remaining;
+            } else {
+                children = children.clone();
+                children[index] = child;
+            }
+        }
+
+        boolean isRoot = node.label.isEmpty();
+        if (!isRoot && terminals.length == 0 && children.length == 0) {
+            return null;
+        }
+        if (!isRoot && terminals.length == 0 && children.length == 1) {
+            Node onlyChild = children[0];
+            return new Node(node.label + onlyChild.label, onlyChild.children, onlyChild.terminals, onlyChild.top);
+        }
+        return node(node.label, children, terminals);
+    }
+
+    private Entry[] top(Node[] children, Entry[] terminals) {
+        Entry[] best = new Entry[suggestionsPerPrefix];
+        int size = 0;
+        for (Entry entry : terminals) {
+            size = offer(best, size, entry);
+        }
+        for (Node child : children) {
+            for (Entry entry : child.top) {
+                size = offer(best, size, entry);
+            }
+        }
+        return size == best.length ? best : Arrays.copyOf(best, size);
+    }
+
+    private static int offer(Entry[] best, int size, Entry entry) {
+        for (int i = 0; i < size; i++) {
+            if (best[i] == entry) {
+                return size;
+            }
+        }
+        int position = size;
+        while (position > 0 && entry.ranksBefore(best[position - 1])) {
+            position--;
+        }
+        if (position == best.length) {
+            return size;
+        }
+        int moved = Math.min(size, best.length - 1) - position;
+        System.arraycopy(best, position, best, position + 1, moved);
+        best[position] = entry;
+        return Math.min(size + 1, best.length);
+    }
+
+    private static Node child(Node[] children, char firstChar) {
+        int index = childIndex(children, firstChar);
+        return index < 0 ? null : children[index];
+    }
+
+    private static int childIndex(Node[] children, char firstChar) {
+        int low = 0;
+        int high = children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char middleChar = children[middle].label.charAt(0);
+            if (middleChar < firstChar) {
+                low = middle + 1;
+            } else if (middleChar > firstChar) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static Node[] insertAt(Node[] children, int index, Node child) {
+        Node[] inserted = new Node[children.length + 1];
+        System.arraycopy(children, 0, inserted, 0, index);
+        inserted[index] = child;
+        System.arraycopy(children, index, inserted, index + 1, children.length - index);
+        return inserted;
+    }
+
+    private static int commonPrefixLength(String first, String second) {
+        int max = Math.min(first.length(), second.length());
+        int length = 0;
+        while (length < max && first.charAt(length) == second.charAt(length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Node(String label, Node[] children, Entry[] terminals, Entry[] top) {
+    }
+
+    private record Entry(ProductSuggestionDto suggestion, long orderLineCount) {
+        boolean ranksBefore(Entry other) {
+            if (orderLineCount != other.orderLineCount) {
+                return orderLineCount > other.orderLineCount;
+            }
+            int byName = String.valueOf(suggestion.name()).compareToIgnoreCase(String.valueOf(other.suggestion.name()));
+            return byName != 0 ? byName < 0 : suggestion.id() < other.suggestion.id();
+        }
+    }
+}
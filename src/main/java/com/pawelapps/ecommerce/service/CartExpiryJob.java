@@ -0,0 +1,336 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.cache.CartSummaryCache;
+import com.pawelapps.ecommerce.cache.UserKeyCache;
+import com.pawelapps.ecommerce.datasource.ConnectionPoolMetrics;
+import com.pawelapps.ecommerce.dto.CartExpiryStatusDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deletes carts, their lines and guest users without orders once a cart was not touched for {@code ttl-days}.
+ * <p>
+ * Reading or changing a cart only records its id in memory, at most once per {@code touch-interval-ms} per
+ * cart. The recorded ids are written to cart.last_touched in batches every {@code touch-flush-interval-ms},
+ * so cart requests never wait for the write and read-only requests served by a replica can touch carts too.
+ * A crash loses at most one flush interval of touches, which is negligible against the TTL.
+ * <p>
+ * A sweep deletes the least recently touched expired carts in batches of {@code batch-size}, each in its own
+ * short transaction, starts no more than {@code max-batches-per-second} batches and waits while a connection
+ * pool is busy (threads waiting for a connection, or more than {@code busy-threshold} of its connections in
+ * use). A sweep that is still blocked after {@code max-busy-pauses} pauses ends and the next one continues.
+ */
+@Component
+public class CartExpiryJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CartExpiryJob.class);
+
+    private static final String SELECT_EXPIRED = "SELECT `id`, `user_id` FROM `cart` WHERE `last_touched` < ? " +
+            "ORDER BY `last_touched` LIMIT ? FOR UPDATE";
+
+    private static final int TOUCH_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final UserKeyCache userKeyCache;
+    private final CartSummaryCache cartSummaryCache;
+    private final Duration ttl;
+    private final long touchIntervalMillis;
+    private final int maxTrackedCarts;
+    private final int batchSize;
+    private final int maxBatchesPerSecond;
+    private final int maxBatchesPerRun;
+    private final double busyThreshold;
+    private final long busyPauseMillis;
+    private final int maxBusyPauses;
+
+    private final Map<Long, Long> lastTouchedMillis = new ConcurrentHashMap<>();
+    private final Set<Long> pendingTouches = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder runCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder busyPauseCount = new LongAdder();
+    private final LongAdder cartsDeleted = new LongAdder();
+    private final LongAdder cartProductsDeleted = new LongAdder();
+    private final LongAdder usersDeleted = new LongAdder();
+    private final LongAdder touchesWritten = new LongAdder();
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile long lastRunDurationMillis;
+    private volatile long lastRunCartsDeleted;
+    private ExecutorService runExecutor;
+
+    @Autowired
+    public CartExpiryJob(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         ConnectionPoolMetrics connectionPoolMetrics,
+                         UserKeyCache userKeyCache,
+                         CartSummaryCache cartSummaryCache,
+                         @Value("${ecommerce.cart-expiry.ttl-days:30}") int ttlDays,
+                         @Value("${ecommerce.cart-expiry.touch-interval-ms:3600000}") long touchIntervalMillis,
+                         @Value("${ecommerce.cart-expiry.max-tracked-carts:100000}") int maxTrackedCarts,
+                         @Value("${ecommerce.cart-expiry.batch-size:200}") int batchSize,
+                         @Value("${ecommerce.cart-expiry.max-batches-per-second:2}") int maxBatchesPerSecond,
+                         @Value("${ecommerce.cart-expiry.max-batches-per-run:500}") int maxBatchesPerRun,
+                         @Value("${ecommerce.cart-expiry.busy-threshold:0.5}") double busyThreshold,
+                         @Value("${ecommerce.cart-expiry.busy-pause-ms:5000}") long busyPauseMillis,
+                         @Value("${ecommerce.cart-expiry.max-busy-pauses:12}") int maxBusyPauses) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.connectionPoolMetrics = connectionPoolMetrics;
+        this.userKeyCache = userKeyCache;
+        this.cartSummaryCache = cartSummaryCache;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.touchIntervalMillis = touchIntervalMillis;
+        this.maxTrackedCarts = maxTrackedCarts;
+        this.batchSize = batchSize;
+        this.maxBatchesPerSecond = maxBatchesPerSecond;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.busyThreshold = busyThreshold;
+        this.busyPauseMillis = busyPauseMillis;
+        this.maxBusyPauses = maxBusyPauses;
+    }
+
+    @PostConstruct
+    public void start() {
+        runExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-expiry-run");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        runExecutor.shutdownNow();
+        flushTouches();
+    }
+
+    /**
+     * Marks a cart as in use. Cheap enough for every cart request: nothing is written on the calling thread.
+     */
+    public void touch(Long cartId) {
+        if (cartId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Long lastTouched = lastTouchedMillis.get(cartId);
+        if (lastTouched != null && now - lastTouched < touchIntervalMillis) {
+            return;
+        }
+        if (lastTouchedMillis.size() >= maxTrackedCarts) {
+            lastTouchedMillis.clear();
+        }
+        lastTouchedMillis.put(cartId, now);
+        pendingTouches.add(cartId);
+    }
+
+    @Scheduled(fixedDelayString = "${ecommerce.cart-expiry.touch-flush-interval-ms:60000}")
+    public void flushTouches() {
+        if (pendingTouches.isEmpty()) {
+            return;
+        }
+        List<Long> cartIds = new ArrayList<>(pendingTouches);
+        pendingTouches.removeAll(cartIds);
+
+        Timestamp touchedAt = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            for (int from = 0; from < cartIds.size(); from += TOUCH_BATCH_SIZE) {
+                List<Long> batch = cartIds.subList(from, Math.min(from + TOUCH_BATCH_SIZE, cartIds.size()));
+                List<Object> arguments = new ArrayList<>(batch.size() + 1);
+                arguments.add(touchedAt);
+                arguments.addAll(batch);
+                transactionTemplate.executeWithoutResult(status -> touchesWritten.add(jdbcTemplate.update(
+                        "UPDATE `cart` SET `last_touched` = ? WHERE `id` IN (" + placeholders(batch.size()) + ")",
+                        arguments.toArray())));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Writing cart touches failed, they are retried with the next flush: {}", e.getMessage());
+            pendingTouches.addAll(cartIds);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${ecommerce.cart-expiry.interval-ms:900000}",
+            fixedDelayString = "${ecommerce.cart-expiry.interval-ms:900000}")
+    public void scheduledSweep() {
+        // a sweep sleeps between batches and while pools are busy, keep it off the scheduler threads
+        startSweep();
+    }
+
+    /**
+     * Starts a sweep in the background.
+     *
+     * @return false when a sweep is already in progress
+     */
+    public boolean startSweep() {
+        if (running.get()) {
+            return false;
+        }
+        runExecutor.submit(this::sweep);
+        return true;
+    }
+
+    public CartExpiryStatusDto getStatus() {
+        return CartExpiryStatusDto.builder()
+                .running(running.get())
+                .lastRunStartedAt(lastRunStartedAt)
+                .lastRunDurationMillis(lastRunDurationMillis)
+                .lastRunCartsDeleted(lastRunCartsDeleted)
+                .runCount(runCount.sum())
+                .batchCount(batchCount.sum())
+                .busyPauseCount(busyPauseCount.sum())
+                .cartsDeleted(cartsDeleted.sum())
+                .cartProductsDeleted(cartProductsDeleted.sum())
+                .usersDeleted(usersDeleted.sum())
+                .touchesWritten(touchesWritten.sum())
+                .pendingTouches(pendingTouches.size())
+                .build();
+    }
+
+    void sweep() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long startedAtNanos = System.nanoTime();
+        lastRunStartedAt = LocalDateTime.now();
+        long runCartsDeleted = 0;
+        try {
+            flushTouches();
+            LocalDateTime expiredBefore = LocalDateTime.now().minus(ttl);
+            long nextBatchAt = System.nanoTime();
+            for (int batches = 0; batches < maxBatchesPerRun; batches++) {
+                nextBatchAt = awaitLoadBudget(nextBatchAt);
+                if (!awaitIdlePools()) {
+                    log.info("Cart expiry paused for peak traffic, continuing with the next run");
+                    break;
+                }
+                BatchResult batchResult = deleteExpiredBatch(expiredBefore);
+                runCartsDeleted += batchResult.carts();
+                if (batchResult.carts() < batchSize) {
+                    break;
+                }
+            }
+            log.info("Cart expiry deleted {} carts in {} ms", runCartsDeleted,
+                    Duration.ofNanos(System.nanoTime() - startedAtNanos).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Cart expiry failed", e);
+        } finally {
+            runCount.increment();
+            lastRunCartsDeleted = runCartsDeleted;
+            lastRunDurationMillis = Duration.ofNanos(System.nanoTime() - startedAtNanos).toMillis();
+            running.set(false);
+        }
+    }
+
+    /**
+     * @return when the next batch may start
+     */
+    private long awaitLoadBudget(long nextBatchAt) throws InterruptedException {
+        if (maxBatchesPerSecond <= 0) {
+            return nextBatchAt;
+        }
+        long wait = nextBatchAt - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        return Math.max(nextBatchAt, System.nanoTime()) + TimeUnit.SECONDS.toNanos(1) / maxBatchesPerSecond;
+    }
+
+    /**
+     * @return false when the pools stayed busy for {@code max-busy-pauses} pauses
+     */
+    private boolean awaitIdlePools() throws InterruptedException {
+        for (int pauses = 0; poolsBusy(); pauses++) {
+            if (pauses >= maxBusyPauses) {
+                return false;
+            }
+            busyPauseCount.increment();
+            TimeUnit.MILLISECONDS.sleep(busyPauseMillis);
+        }
+        return true;
+    }
+
+    private boolean poolsBusy() {
+        return connectionPoolMetrics.getPoolStatistics().stream().anyMatch(pool -> pool.getPendingThreads() > 0
+                || pool.getMaxConnections() > 0 && (double) pool.getActiveConnections() / pool.getMaxConnections() > busyThreshold);
+    }
+
+    /**
+     * Locks the expired carts of the batch, so a cart touched by a concurrent flush is either deleted
+     * before the touch or no longer expired.
+     */
+    BatchResult deleteExpiredBatch(LocalDateTime expiredBefore) {
+        List<ExpiredCart> expiredCarts = new ArrayList<>();
+        BatchResult batchResult = transactionTemplate.execute(status -> {
+            expiredCarts.addAll(jdbcTemplate.query(SELECT_EXPIRED,
+                    (resultSet, rowNumber) -> new ExpiredCart(resultSet.getLong("id"), resultSet.getObject("user_id", Long.class)),
+                    Timestamp.valueOf(expiredBefore), batchSize));
+            if (expiredCarts.isEmpty()) {
+                return new BatchResult(0, 0, 0, List.of());
+            }
+
+            Object[] cartIds = expiredCarts.stream().map(ExpiredCart::cartId).toArray();
+            Object[] userIds = expiredCarts.stream().map(ExpiredCart::userId).filter(userId -> userId != null).toArray();
+            List<String> emails = userIds.length == 0 ? List.of() : jdbcTemplate.queryForList(
+                    "SELECT `email` FROM `user` WHERE `id` IN (" + placeholders(userIds.length) + ")", String.class, userIds);
+
+            int cartProducts = jdbcTemplate.update(
+                    "DELETE FROM `cart_product` WHERE `cart_id` IN (" + placeholders(cartIds.length) + ")", cartIds);
+            int carts = jdbcTemplate.update(
+                    "DELETE FROM `cart` WHERE `id` IN (" + placeholders(cartIds.length) + ")", cartIds);
+            // users with orders stay, the orders (or archived orders) reference them
+            int users = userIds.length == 0 ? 0 : jdbcTemplate.update(
+                    "DELETE FROM `user` WHERE `id` IN (" + placeholders(userIds.length) + ") " +
+                            "AND NOT EXISTS (SELECT 1 FROM `orders` o WHERE o.`user_id` = `user`.`id`) " +
+                            "AND NOT EXISTS (SELECT 1 FROM `order_archive` a WHERE a.`user_id` = `user`.`id`)", userIds);
+            return new BatchResult(carts, cartProducts, users, emails);
+        });
+
+        batchCount.increment();
+        cartsDeleted.add(batchResult.carts());
+        cartProductsDeleted.add(batchResult.cartProducts());
+        usersDeleted.add(batchResult.users());
+        for (ExpiredCart expiredCart : expiredCarts) {
+            cartSummaryCache.evict(expiredCart.cartId());
+            lastTouchedMillis.remove(expiredCart.cartId());
+        }
+        batchResult.emails().forEach(userKeyCache::evict);
+        return batchResult;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    record BatchResult(int carts, int cartProducts, int users, List<String> emails) {
+    }
+
+    private record ExpiredCart(long cartId, Long userId) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.pawelapps.ecommerce.service;
 
+import com.pawelapps.ecommerce.cache.CartSummaryCache;
+import com.pawelapps.ecommerce.cache.UserKeyCache;
 import com.pawelapps.ecommerce.dao.CartProductRepository;
 import com.pawelapps.ecommerce.dao.CartRepository;
 import com.pawelapps.ecommerce.dao.ProductRepository;
@@ -9,6 +11,7 @@ import com.pawelapps.ecommerce.entity.CartProduct;
 import com.pawelapps.ecommerce.entity.Product;
 import com.pawelapps.ecommerce.entity.User;
 import com.pawelapps.ecommerce.exception.NotFoundException;
+import com.pawelapps.ecommerce.mapper.CartMapper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,20 +28,31 @@ public class CartProductServiceImpl implements CartProductService {
     private final CartProductRepository cartProductRepository;
     private final CartRepository cartRepository;
     private final ProductRepository productRepository;
+    private final UserKeyCache userKeyCache;
+    private final CartMapper cartMapper;
+    private final CartSummaryCache cartSummaryCache;
+    private final CartExpiryJob cartExpiryJob;
 
     @PersistenceContext
     private EntityManager entityManager;
 
     @Autowired
-    public CartProductServiceImpl(CartProductRepository cartProductRepository, CartRepository cartRepository, ProductRepository productRepository) {
+    public CartProductServiceImpl(CartProductRepository cartProductRepository, CartRepository cartRepository, ProductRepository productRepository,
+                                  UserKeyCache userKeyCache, CartMapper cartMapper, CartSummaryCache cartSummaryCache,
+                                  CartExpiryJob cartExpiryJob) {
         this.cartProductRepository = cartProductRepository;
         this.cartRepository = cartRepository;
         this.productRepository = productRepository;
+        this.userKeyCache = userKeyCache;
+        this.cartMapper = cartMapper;
+        this.cartSummaryCache = cartSummaryCache;
+        this.cartExpiryJob = cartExpiryJob;
     }
 
     @Override
     public CartProduct saveCartProduct(CartProduct cartProduct) {
         cartProduct.setCartProductId(null);
+        evictCartSummary(cartProduct);
         return this.cartProductRepository.save(cartProduct);
     }
 
@@ -49,12 +63,18 @@ public class CartProductServiceImpl implements CartProductService {
 
     @Override
     public CartProduct updateCartProduct(CartProduct cartProduct) {
+        evictCartSummary(cartProduct);
         return this.cartProductRepository.save(cartProduct);
     }
 
     @Override
     public List<CartProduct> findCartProductsByUserEmail(String email) {
-        List<CartProduct> cartProducts = cartProductRepository.findCartProductsByUserEmail(email);
+        UserKeyCache.UserKeys userKeys = userKeyCache.resolve(email);
+        if (!userKeys.hasCart()) {
+            return new ArrayList<>();
+        }
+        cartExpiryJob.touch(userKeys.cartId());
+        List<CartProduct> cartProducts = cartProductRepository.findCartProductsByCartId(userKeys.cartId());
         return cartProducts;
     }
 
@@ -65,6 +85,8 @@ public class CartProductServiceImpl implements CartProductService {
         Product product = productRepository.findById(cartProduct.getProduct().getId()).orElseThrow(() -> new NotFoundException("Product with id " + id + " doesn't exist"));
         if (cartProduct.getQuantity() < product.getUnitsInStock()) {
             updatedRows = cartProductRepository.increaseCartProductQuantityByOne(id);
+            evictCartSummary(cartProduct);
+            touchCart(cartProduct);
         } else {
             throw new IllegalStateException("Not enough units in stock");
         }
@@ -77,6 +99,8 @@ public class CartProductServiceImpl implements CartProductService {
         CartProduct cartProduct = cartProductRepository.findById(id).orElseThrow(() -> new NotFoundException("Product with id " + id + " doesn't exist"));
         if (cartProduct.getQuantity() != 0) {
             updatedRows = cartProductRepository.decreaseCartProductQuantityByOne(id);
+            evictCartSummary(cartProduct);
+            touchCart(cartProduct);
         } else {
             throw new IllegalStateException("Value can not be lower than 0");
         }
@@ -85,60 +109,80 @@ public class CartProductServiceImpl implements CartProductService {
 
     @Override
     public void deleteCartProduct(Long cartProductId) {
+        cartProductRepository.findCartIdById(cartProductId).ifPresent(cartId -> {
+            cartSummaryCache.evict(cartId);
+            cartExpiryJob.touch(cartId);
+        });
         cartProductRepository.deleteCartProduct(cartProductId);
     }
 
     @Override
     public void deleteAllCartProductsByUserEmail(String email) {
-        cartProductRepository.deleteAllCartProductsByUserEmail(email);
+        UserKeyCache.UserKeys userKeys = userKeyCache.resolve(email);
+        if (userKeys.hasCart()) {
+            cartProductRepository.deleteAllCartProductsByCartId(userKeys.cartId());
+            cartSummaryCache.evict(userKeys.cartId());
+            cartExpiryJob.touch(userKeys.cartId());
+        }
     }
 
+    /**
+     * Adding a product the cart already contains increases the quantity of its line, so double clicks and
+     * retried requests never create a second line for the same product.
+     */
     public CartProductDto saveCartProductToCart(CartProductDto cartProductDto, String userEmail) {
 
         Cart cart = getOrCreateCart(userEmail);
+        cartExpiryJob.touch(cart.getId());
 
         CartProduct cartProduct = createCartProductFromDto(cartProductDto, cart);
+        if (cartProduct.getProduct() == null || cartProduct.getProduct().getId() == null) {
+            CartProduct savedCartProduct = cartProductRepository.save(cartProduct);
+            cartSummaryCache.evict(cart.getId());
+            return cartProductDto.withCartProductId(savedCartProduct.getCartProductId()).withCartId(cart.getId());
+        }
 
-        CartProduct savedCartProduct = cartProductRepository.save(cartProduct);
-        cartProductDto.setCartProductId(savedCartProduct.getCartProductId());
-        cartProductDto.setCart(cartProduct.getCart());
+        Long productId = cartProduct.getProduct().getId();
+        cartProductRepository.upsertCartProduct(cart.getId(), productId, cartProduct.getQuantity(), cartProduct.getName(),
+                cartProduct.getDescription(), cartProduct.getUnitPrice(), cartProduct.getImageUrl());
+        cartSummaryCache.evict(cart.getId());
 
-        return cartProductDto;
+        CartProduct savedCartProduct = cartProductRepository.findByCartIdAndProductId(cart.getId(), productId).orElseThrow();
+        return cartProductDto.withCartProductId(savedCartProduct.getCartProductId())
+                .withQuantity(savedCartProduct.getQuantity())
+                .withCartId(cart.getId());
     }
 
     public Cart getOrCreateCart(String userEmail) {
-        Cart cart = cartRepository.findByUserEmail(userEmail);
+        UserKeyCache.UserKeys userKeys = userKeyCache.resolve(userEmail);
+        Cart cart = userKeys.hasCart() ? cartRepository.findById(userKeys.cartId()).orElse(null) : null;
         if (cart == null) {
             User user = User.builder().email(userEmail).build();
             cart = Cart.builder().user(user).cartProducts(new ArrayList<>()).build();
             cartRepository.save(cart);
+            userKeyCache.evict(userEmail);
         }
         return cart;
     }
 
     public CartProduct createCartProductFromDto(CartProductDto cartProductDto, Cart cart) {
-        CartProduct cartProduct = CartProduct.builder()
-                .product(cartProductDto.getProduct())
-                .quantity(cartProductDto.getQuantity())
-                .name(cartProductDto.getName())
-                .description(cartProductDto.getDescription())
-                .unitPrice(cartProductDto.getUnitPrice())
-                .imageUrl(cartProductDto.getImageUrl())
-                .cart(cart)
-                .build();
+        CartProduct cartProduct = cartMapper.toCartProduct(cartProductDto);
+        cartProduct.setCartProductId(null);
+        cartProduct.setCart(cart);
         return cartProduct;
     }
 
-    public CartProduct createCartProductFromDto(CartProductDto cartProductDto) {
-        CartProduct cartProduct = CartProduct.builder()
-                .product(cartProductDto.getProduct())
-                .quantity(cartProductDto.getQuantity())
-                .name(cartProductDto.getName())
-                .description(cartProductDto.getDescription())
-                .unitPrice(cartProductDto.getUnitPrice())
-                .imageUrl(cartProductDto.getImageUrl())
-                .cart(cartProductDto.getCart())
-                .build();
-        return cartProduct;
+    private void touchCart(CartProduct cartProduct) {
+        if (cartProduct.getCart() != null) {
+            cartExpiryJob.touch(cartProduct.getCart().getId());
+        }
+    }
+
+    private void evictCartSummary(CartProduct cartProduct) {
+        if (cartProduct.getCart() != null && cartProduct.getCart().getId() != null) {
+            cartSummaryCache.evict(cartProduct.getCart().getId());
+        } else {
+            cartSummaryCache.clear();
+        }
     }
 }
@@ -1,7 +1,10 @@
 package com.pawelapps.ecommerce.service;
 
 import com.pawelapps.ecommerce.dto.CartDto;
+import com.pawelapps.ecommerce.dto.SummaryDto;
 
 public interface CartService {
     CartDto getCartByUserEmail(String userEmail);
+
+    SummaryDto getCartSummaryByUserEmail(String userEmail);
 }
@@ -1,40 +1,68 @@
 package com.pawelapps.ecommerce.service;
 
+import com.pawelapps.ecommerce.cache.CartSummaryCache;
+import com.pawelapps.ecommerce.cache.UserKeyCache;
+import com.pawelapps.ecommerce.dao.CartProductRepository;
 import com.pawelapps.ecommerce.dao.CartRepository;
 import com.pawelapps.ecommerce.dto.CartDto;
+import com.pawelapps.ecommerce.dto.SummaryDto;
 import com.pawelapps.ecommerce.entity.Cart;
-import com.pawelapps.ecommerce.entity.CartProduct;
+import com.pawelapps.ecommerce.mapper.CartMapper;
+import com.pawelapps.ecommerce.pricing.PricingEngine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class CartServiceImpl implements CartService {
 
     private final CartRepository cartRepository;
+    private final UserKeyCache userKeyCache;
+    private final CartMapper cartMapper;
+    private final CartProductRepository cartProductRepository;
+    private final PricingEngine pricingEngine;
+    private final CartSummaryCache cartSummaryCache;
+    private final CartExpiryJob cartExpiryJob;
 
     @Autowired
-    public CartServiceImpl(CartRepository cartRepository) {
+    public CartServiceImpl(CartRepository cartRepository, UserKeyCache userKeyCache, CartMapper cartMapper,
+                           CartProductRepository cartProductRepository, PricingEngine pricingEngine, CartSummaryCache cartSummaryCache,
+                           CartExpiryJob cartExpiryJob) {
         this.cartRepository = cartRepository;
+        this.userKeyCache = userKeyCache;
+        this.cartMapper = cartMapper;
+        this.cartProductRepository = cartProductRepository;
+        this.pricingEngine = pricingEngine;
+        this.cartSummaryCache = cartSummaryCache;
+        this.cartExpiryJob = cartExpiryJob;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CartDto getCartByUserEmail(String userEmail) {
-        Cart cartFromDb = cartRepository.findByUserEmail(userEmail);
+        UserKeyCache.UserKeys userKeys = userKeyCache.resolve(userEmail);
+        cartExpiryJob.touch(userKeys.cartId());
+        Cart cartFromDb = userKeys.hasCart() ? cartRepository.findWithCartProductsById(userKeys.cartId()).orElse(null) : null;
 
         if (cartFromDb != null) {
-            List<CartProduct> cartProductsFromDb = cartFromDb.getCartProducts();
-            List<CartProduct> dtoCartProducts = cartProductsFromDb.stream().collect(Collectors.toList());
-            CartDto cartDto = CartDto.builder()
-                    .user(cartFromDb.getUser())
-                    .cartProducts(dtoCartProducts).build();
-            return cartDto;
+            return cartMapper.toCartDto(cartFromDb);
         } else {
             return null;
         }
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SummaryDto getCartSummaryByUserEmail(String userEmail) {
+        UserKeyCache.UserKeys userKeys = userKeyCache.resolve(userEmail);
+        if (!userKeys.hasCart()) {
+            return pricingEngine.priceCart(List.of()).toSummaryDto();
+        }
+        cartExpiryJob.touch(userKeys.cartId());
+        return cartSummaryCache.get(userKeys.cartId(),
+                () -> pricingEngine.priceCart(cartProductRepository.findCartProductsByCartId(userKeys.cartId())).toSummaryDto());
+    }
 }
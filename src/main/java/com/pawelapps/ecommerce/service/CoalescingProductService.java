@@ -0,0 +1,117 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.cache.SingleFlight;
+import com.pawelapps.ecommerce.cache.SingleFlightRegistry;
+import com.pawelapps.ecommerce.dto.ProductDto;
+import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.mapper.ProductMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The {@link ProductService} injected everywhere. Concurrent identical catalog reads - a promotion
+ * sending everybody to the same product or category - share one call to {@link ProductServiceImpl}.
+ * Coalescing happens in front of its transactional proxy, so waiting callers hold neither a transaction
+ * nor a connection. Calls made inside a transaction are passed through, as they need entities of their own
+ * persistence context.
+ * <p>
+ * The shared result is mapped to DTOs inside the loading transaction, and every caller gets entities of
+ * its own mapped back from them. With open-session-in-view the loaded entities belong to the first
+ * caller's session, which is neither thread-safe nor open for as long as the other requests need it.
+ */
+@Service
+@Primary
+public class CoalescingProductService implements ProductService {
+
+    private final ProductService productService;
+    private final ProductMapper productMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SingleFlight<Long, ProductDto> productById;
+    private final SingleFlight<Long, List<ProductDto>> productsByCategoryId;
+    private final SingleFlight<Boolean, List<ProductDto>> allProducts;
+
+    @Autowired
+    public CoalescingProductService(@Qualifier("productServiceImpl") ProductService productService,
+                                    ProductMapper productMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    SingleFlightRegistry singleFlightRegistry) {
+        this.productService = productService;
+        this.productMapper = productMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.productById = singleFlightRegistry.create("product-by-id");
+        this.productsByCategoryId = singleFlightRegistry.create("products-by-category-id");
+        this.allProducts = singleFlightRegistry.create("all-products");
+    }
+
+    @Override
+    public Product getProductById(Long id) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return productService.getProductById(id);
+        }
+        return productMapper.toProduct(productById.execute(id,
+                () -> readOnlyTransaction.execute(status -> productMapper.toProductDto(productService.getProductById(id)))));
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return productService.getAllProducts();
+        }
+        return toProducts(allProducts.execute(Boolean.TRUE, () -> loadProductDtos(productService::getAllProducts)));
+    }
+
+    @Override
+    public List<Product> getProductsByCategoryId(Long id) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return productService.getProductsByCategoryId(id);
+        }
+        return toProducts(productsByCategoryId.execute(id, () -> loadProductDtos(() -> productService.getProductsByCategoryId(id))));
+    }
+
+    private List<ProductDto> loadProductDtos(Supplier<List<Product>> loader) {
+        return readOnlyTransaction.execute(status -> loader.get().stream().map(productMapper::toProductDto).toList());
+    }
+
+    private List<Product> toProducts(List<ProductDto> productDtos) {
+        return productDtos.stream().map(productMapper::toProduct).toList();
+    }
+
+    @Override
+    public Product createProduct(Product product) {
+        return productService.createProduct(product);
+    }
+
+    @Override
+    public Product updateProduct(Product product) {
+        return productService.updateProduct(product);
+    }
+
+    @Override
+    public void deleteProductById(Long id) {
+        productService.deleteProductById(id);
+    }
+
+    @Override
+    public List<Product> getProductsByNameOrSku(String nameOrSku) {
+        return productService.getProductsByNameOrSku(nameOrSku);
+    }
+
+    @Override
+    public List<Product> getProductsAfterId(Long afterId, int pageSize) {
+        return productService.getProductsAfterId(afterId, pageSize);
+    }
+
+    @Override
+    public Product decreaseProductQuantity(Long productId, int quantityToDecrease) {
+        return productService.decreaseProductQuantity(productId, quantityToDecrease);
+    }
+}
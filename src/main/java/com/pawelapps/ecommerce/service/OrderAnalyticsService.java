@@ -0,0 +1,21 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.dto.AnalyticsPeriod;
+import com.pawelapps.ecommerce.dto.RevenuePeriodDto;
+import com.pawelapps.ecommerce.dto.SalesTotalDto;
+import com.pawelapps.ecommerce.entity.Order;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface OrderAnalyticsService {
+    void recordOrder(Order order);
+
+    List<RevenuePeriodDto> getRevenue(LocalDate from, LocalDate to, AnalyticsPeriod period);
+
+    List<SalesTotalDto> getTopProducts(LocalDate from, LocalDate to, int limit);
+
+    List<SalesTotalDto> getCategories(LocalDate from, LocalDate to);
+
+    int rebuildBefore(LocalDate before);
+}
@@ -0,0 +1,188 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.dao.OrderArchiveRepository;
+import com.pawelapps.ecommerce.dao.OrderDailyRollupRepository;
+import com.pawelapps.ecommerce.dao.OrderRepository;
+import com.pawelapps.ecommerce.dao.ProductDailyRollupRepository;
+import com.pawelapps.ecommerce.dto.AnalyticsPeriod;
+import com.pawelapps.ecommerce.dto.RevenuePeriodDto;
+import com.pawelapps.ecommerce.dto.SalesTotalDto;
+import com.pawelapps.ecommerce.entity.*;
+import com.pawelapps.ecommerce.pricing.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Order analytics answered from daily rollup rows, so a query reads one row per day (or per product and
+ * day) in the requested range instead of scanning orders and order items. Rollups are incremented in
+ * the transaction that places the order, with one upsert per row; product rows are always touched in
+ * product id order so concurrent orders lock them in the same order.
+ */
+@Service
+@Transactional
+public class OrderAnalyticsServiceImpl implements OrderAnalyticsService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final OrderDailyRollupRepository orderDailyRollupRepository;
+    private final ProductDailyRollupRepository productDailyRollupRepository;
+    private final OrderRepository orderRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public OrderAnalyticsServiceImpl(OrderDailyRollupRepository orderDailyRollupRepository,
+                                     ProductDailyRollupRepository productDailyRollupRepository,
+                                     OrderRepository orderRepository,
+                                     OrderArchiveRepository orderArchiveRepository) {
+        this.orderDailyRollupRepository = orderDailyRollupRepository;
+        this.productDailyRollupRepository = productDailyRollupRepository;
+        this.orderRepository = orderRepository;
+        this.orderArchiveRepository = orderArchiveRepository;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrder(Order order) {
+        LocalDate orderDate = order.getDateCreated().toLocalDate();
+        Map<Long, ProductSales> productSales = new TreeMap<>();
+        long units = 0;
+        long revenueCents = 0;
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            long lineCents = Money.lineTotal(Money.toCents(orderProduct.getUnitPrice()), orderProduct.getQuantity());
+            units += orderProduct.getQuantity();
+            revenueCents += lineCents;
+
+            Product product = orderProduct.getProduct();
+            ProductCategory productCategory = product.getProductCategory();
+            productSales.merge(product.getId(),
+                    new ProductSales(productCategory != null ? productCategory.getId() : null, orderProduct.getQuantity(), lineCents),
+                    ProductSales::add);
+        }
+
+        Summary summary = order.getSummary();
+        long shippingCents = summary != null && summary.getShippingPrice() != null ? Money.toCents(summary.getShippingPrice()) : 0;
+        orderDailyRollupRepository.increment(orderDate, 1, units, revenueCents, shippingCents);
+        productSales.forEach((productId, sales) -> productDailyRollupRepository.increment(
+                orderDate, productId, sales.productCategoryId(), sales.units(), sales.revenueCents()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RevenuePeriodDto> getRevenue(LocalDate from, LocalDate to, AnalyticsPeriod period) {
+        Map<LocalDate, OrderDailyRollup> periods = new LinkedHashMap<>();
+        for (OrderDailyRollup day : orderDailyRollupRepository.findBetween(from, to)) {
+            periods.merge(period.start(day.getOrderDate()), copy(day), (total, next) -> {
+                total.setOrderCount(total.getOrderCount() + next.getOrderCount());
+                total.setUnits(total.getUnits() + next.getUnits());
+                total.setRevenueCents(total.getRevenueCents() + next.getRevenueCents());
+                total.setShippingCents(total.getShippingCents() + next.getShippingCents());
+                return total;
+            });
+        }
+
+        return periods.entrySet().stream()
+                .map(entry -> {
+                    OrderDailyRollup total = entry.getValue();
+                    BigDecimal revenue = Money.toBigDecimal(total.getRevenueCents());
+                    BigDecimal averageBasket = total.getOrderCount() == 0 ? BigDecimal.ZERO.setScale(Money.SCALE)
+                            : revenue.divide(BigDecimal.valueOf(total.getOrderCount()), Money.SCALE, RoundingMode.HALF_UP);
+                    return new RevenuePeriodDto(entry.getKey(), total.getOrderCount(), total.getUnits(), revenue,
+                            Money.toBigDecimal(total.getShippingCents()), averageBasket);
+                })
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SalesTotalDto> getTopProducts(LocalDate from, LocalDate to, int limit) {
+        return productDailyRollupRepository.sumByProduct(from, to, PageRequest.of(0, Math.max(1, Math.min(limit, MAX_LIMIT)))).stream()
+                .map(this::toSalesTotalDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SalesTotalDto> getCategories(LocalDate from, LocalDate to) {
+        return productDailyRollupRepository.sumByCategory(from, to).stream()
+                .map(this::toSalesTotalDto)
+                .toList();
+    }
+
+    /**
+     * Recomputes the rollups of every day before {@code before} from the order tables. Orders placed now
+     * only touch today's rows, so rebuilding past days does not race with checkout.
+     *
+     * @return the number of days rebuilt
+     */
+    @Override
+    public int rebuildBefore(LocalDate before) {
+        // days up to the newest archived order are no longer (fully) in the order tables, their rollups are kept
+        LocalDateTime latestArchived = orderArchiveRepository.findLatestDateCreated();
+        LocalDate from = latestArchived != null ? latestArchived.toLocalDate().plusDays(1) : LocalDate.EPOCH;
+        if (!from.isBefore(before)) {
+            return 0;
+        }
+
+        orderDailyRollupRepository.deleteBetween(from, before);
+        productDailyRollupRepository.deleteBetween(from, before);
+
+        Map<LocalDate, OrderDailyRollup> days = new TreeMap<>();
+        for (OrderRepository.DailyOrders dailyOrders : orderRepository.sumOrdersPerDay(from.atStartOfDay(), before.atStartOfDay())) {
+            days.put(dailyOrders.getOrderDate(), OrderDailyRollup.builder()
+                    .orderDate(dailyOrders.getOrderDate())
+                    .orderCount(dailyOrders.getOrderCount())
+                    .shippingCents(dailyOrders.getShippingPrice() != null ? Money.toCents(dailyOrders.getShippingPrice()) : 0)
+                    .build());
+        }
+        for (OrderRepository.DailyProductSales sales : orderRepository.sumProductSalesPerDay(from.atStartOfDay(), before.atStartOfDay())) {
+            long revenueCents = sales.getRevenue() != null ? Money.toCents(sales.getRevenue()) : 0;
+            OrderDailyRollup day = days.get(sales.getOrderDate());
+            day.setUnits(day.getUnits() + sales.getUnits());
+            day.setRevenueCents(day.getRevenueCents() + revenueCents);
+            if (sales.getProductId() != null) {
+                entityManager.persist(ProductDailyRollup.builder()
+                        .key(new ProductDailyRollup.Key(sales.getOrderDate(), sales.getProductId()))
+                        .productCategoryId(sales.getProductCategoryId())
+                        .units(sales.getUnits())
+                        .revenueCents(revenueCents)
+                        .build());
+            }
+        }
+        days.values().forEach(entityManager::persist);
+        return days.size();
+    }
+
+    private SalesTotalDto toSalesTotalDto(ProductDailyRollupRepository.SalesTotal salesTotal) {
+        return new SalesTotalDto(salesTotal.getId(), salesTotal.getUnits(), Money.toBigDecimal(salesTotal.getRevenueCents()));
+    }
+
+    private OrderDailyRollup copy(OrderDailyRollup day) {
+        return OrderDailyRollup.builder()
+                .orderDate(day.getOrderDate())
+                .orderCount(day.getOrderCount())
+                .units(day.getUnits())
+                .revenueCents(day.getRevenueCents())
+                .shippingCents(day.getShippingCents())
+                .build();
+    }
+
+    private record ProductSales(Long productCategoryId, long units, long revenueCents) {
+        ProductSales add(ProductSales other) {
+            return new ProductSales(productCategoryId, units + other.units, revenueCents + other.revenueCents);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.dto.OrderArchiveStatusDto;
+import com.pawelapps.ecommerce.entity.OrderArchive;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves orders older than {@code min-age-days} from the order tables to order_archive, oldest first, so the
+ * order tables and their indexes only hold recent orders. Each batch of {@code batch-size} orders is
+ * archived and deleted in one transaction, no more than {@code max-batches-per-second} batches a second.
+ * Because the oldest orders go first, every archived order is older than every order left behind, which
+ * is what lets order history continue from the order tables into the archive.
+ * <p>
+ * Archived order items no longer count as sold units, so the stock reconciliation baselines of their
+ * products are lowered by the same amount in the same transaction.
+ */
+@Component
+public class OrderArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveJob.class);
+
+    private static final String SELECT_BATCH = "SELECT `id` FROM `orders` WHERE `date_created` < ? " +
+            "ORDER BY `date_created`, `id` LIMIT ? FOR UPDATE";
+
+    private static final String INSERT_ARCHIVE = "INSERT INTO `order_archive` " +
+            "(`order_id`, `user_id`, `customer_email`, `date_created`, `payload`, `date_archived`) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String LOWER_BASELINE = "UPDATE `product_stock_baseline` " +
+            "SET `units_in_stock_and_sold` = `units_in_stock_and_sold` - ? WHERE `product_id` = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderSnapshotService orderSnapshotService;
+    private final OrderArchiveService orderArchiveService;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatchesPerSecond;
+    private final int maxBatchesPerRun;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder runCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder ordersArchived = new LongAdder();
+    private final LongAdder payloadBytes = new LongAdder();
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile long lastRunDurationMillis;
+    private volatile long lastRunOrdersArchived;
+    private ExecutorService runExecutor;
+
+    @Autowired
+    public OrderArchiveJob(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           OrderSnapshotService orderSnapshotService,
+                           OrderArchiveService orderArchiveService,
+                           @Value("${ecommerce.order-archive.min-age-days:365}") int minAgeDays,
+                           @Value("${ecommerce.order-archive.batch-size:200}") int batchSize,
+                           @Value("${ecommerce.order-archive.max-batches-per-second:2}") int maxBatchesPerSecond,
+                           @Value("${ecommerce.order-archive.max-batches-per-run:1000}") int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderSnapshotService = orderSnapshotService;
+        this.orderArchiveService = orderArchiveService;
+        this.minAge = Duration.ofDays(minAgeDays);
+        this.batchSize = batchSize;
+        this.maxBatchesPerSecond = maxBatchesPerSecond;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @PostConstruct
+    public void start() {
+        runExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-archive-run");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        runExecutor.shutdownNow();
+    }
+
+    @Scheduled(cron = "${ecommerce.order-archive.cron:0 0 4 * * *}")
+    public void scheduledArchive() {
+        // a run sleeps between batches for minutes, keep it off the scheduler threads
+        startArchive();
+    }
+
+    /**
+     * Starts a run in the background.
+     *
+     * @return false when a run is already in progress
+     */
+    public boolean startArchive() {
+        if (running.get()) {
+            return false;
+        }
+        runExecutor.submit(this::archive);
+        return true;
+    }
+
+    public OrderArchiveStatusDto getStatus() {
+        long archived = ordersArchived.sum();
+        return OrderArchiveStatusDto.builder()
+                .running(running.get())
+                .lastRunStartedAt(lastRunStartedAt)
+                .lastRunDurationMillis(lastRunDurationMillis)
+                .lastRunOrdersArchived(lastRunOrdersArchived)
+                .runCount(runCount.sum())
+                .batchCount(batchCount.sum())
+                .ordersArchived(archived)
+                .averagePayloadBytes(archived == 0 ? 0 : (double) payloadBytes.sum() / archived)
+                .build();
+    }
+
+    void archive() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long startedAtNanos = System.nanoTime();
+        lastRunStartedAt = LocalDateTime.now();
+        long runOrdersArchived = 0;
+        try {
+            LocalDateTime createdBefore = LocalDateTime.now().minus(minAge);
+            long nextBatchAt = System.nanoTime();
+            for (int batches = 0; batches < maxBatchesPerRun; batches++) {
+                nextBatchAt = awaitLoadBudget(nextBatchAt);
+                int archived = archiveBatch(createdBefore);
+                runOrdersArchived += archived;
+                if (archived < batchSize) {
+                    break;
+                }
+            }
+            log.info("Order archive moved {} orders in {} ms", runOrdersArchived,
+                    Duration.ofNanos(System.nanoTime() - startedAtNanos).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Order archive failed", e);
+        } finally {
+            runCount.increment();
+            lastRunOrdersArchived = runOrdersArchived;
+            lastRunDurationMillis = Duration.ofNanos(System.nanoTime() - startedAtNanos).toMillis();
+            running.set(false);
+        }
+    }
+
+    /**
+     * @return when the next batch may start
+     */
+    private long awaitLoadBudget(long nextBatchAt) throws InterruptedException {
+        if (maxBatchesPerSecond <= 0) {
+            return nextBatchAt;
+        }
+        long wait = nextBatchAt - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        return Math.max(nextBatchAt, System.nanoTime()) + TimeUnit.SECONDS.toNanos(1) / maxBatchesPerSecond;
+    }
+
+    /**
+     * @return the number of orders archived
+     */
+    int archiveBatch(LocalDateTime createdBefore) {
+        int archived = transactionTemplate.execute(status -> {
+            List<Long> orderIds = jdbcTemplate.queryForList(SELECT_BATCH, Long.class, Timestamp.valueOf(createdBefore), batchSize);
+            if (orderIds.isEmpty()) {
+                return 0;
+            }
+
+            List<OrderArchive> orderArchives = orderSnapshotService.findByOrderIds(orderIds).stream()
+                    .map(orderArchiveService::toArchive)
+                    .toList();
+            jdbcTemplate.batchUpdate(INSERT_ARCHIVE, orderArchives, orderArchives.size(), (statement, orderArchive) -> {
+                statement.setLong(1, orderArchive.getOrderId());
+                statement.setObject(2, orderArchive.getUserId());
+                statement.setString(3, orderArchive.getCustomerEmail());
+                statement.setTimestamp(4, Timestamp.valueOf(orderArchive.getDateCreated()));
+                statement.setBytes(5, orderArchive.getPayload());
+                statement.setTimestamp(6, Timestamp.valueOf(orderArchive.getDateArchived()));
+            });
+            orderArchives.forEach(orderArchive -> payloadBytes.add(orderArchive.getPayload().length));
+
+            String orderIdList = placeholders(orderIds.size());
+            Object[] orderIdArguments = orderIds.toArray();
+            List<Object[]> unitsSold = jdbcTemplate.query("SELECT SUM(`quantity`), `product_id` FROM `order_item` " +
+                            "WHERE `order_id` IN (" + orderIdList + ") AND `product_id` IS NOT NULL GROUP BY `product_id`",
+                    (resultSet, rowNumber) -> new Object[]{resultSet.getLong(1), resultSet.getLong(2)}, orderIdArguments);
+            jdbcTemplate.batchUpdate(LOWER_BASELINE, unitsSold);
+
+            List<Object[]> dependents = jdbcTemplate.query("SELECT `summary_id`, `shipping_address_id`, `customer_id` FROM `orders` " +
+                            "WHERE `id` IN (" + orderIdList + ")",
+                    (resultSet, rowNumber) -> new Object[]{resultSet.getObject(1, Long.class),
+                            resultSet.getObject(2, Long.class), resultSet.getObject(3, Long.class)}, orderIdArguments);
+
+            jdbcTemplate.update("DELETE FROM `order_snapshot` WHERE `order_id` IN (" + orderIdList + ")", orderIdArguments);
+            jdbcTemplate.update("DELETE FROM `order_item` WHERE `order_id` IN (" + orderIdList + ")", orderIdArguments);
+            jdbcTemplate.update("DELETE FROM `orders` WHERE `id` IN (" + orderIdList + ")", orderIdArguments);
+            deleteByIds("summary", "", dependents, 0);
+            deleteByIds("shipping_address", "", dependents, 1);
+            // a customer may have placed orders that are not archived yet
+            deleteByIds("customer", " AND NOT EXISTS (SELECT 1 FROM `orders` o WHERE o.`customer_id` = `customer`.`id`)", dependents, 2);
+            return orderArchives.size();
+        });
+
+        batchCount.increment();
+        ordersArchived.add(archived);
+        return archived;
+    }
+
+    private void deleteByIds(String table, String condition, List<Object[]> rows, int column) {
+        Object[] ids = rows.stream().map(row -> row[column]).filter(Objects::nonNull).distinct().toArray();
+        if (ids.length > 0) {
+            jdbcTemplate.update("DELETE FROM `" + table + "` WHERE `id` IN (" + placeholders(ids.length) + ")" + condition, ids);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
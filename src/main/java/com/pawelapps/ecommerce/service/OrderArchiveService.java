@@ -0,0 +1,22 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryPageDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryQuery;
+import com.pawelapps.ecommerce.entity.OrderArchive;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderArchiveService {
+    OrderArchive toArchive(OrderDto orderDto);
+
+    Optional<OrderDto> findByOrderId(Long orderId);
+
+    List<OrderDto> findAll();
+
+    OrderHistoryPageDto findByUserIdIn(Collection<Long> userIds, OrderHistoryQuery orderHistoryQuery);
+
+    OrderHistoryPageDto findByCustomerEmail(String customerEmail, OrderHistoryQuery orderHistoryQuery);
+}
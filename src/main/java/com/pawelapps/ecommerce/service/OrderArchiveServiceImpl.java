@@ -0,0 +1,121 @@
+package com.pawelapps.ecommerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pawelapps.ecommerce.dao.OrderArchiveRepository;
+import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryPageDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryQuery;
+import com.pawelapps.ecommerce.entity.OrderArchive;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads orders moved to order_archive by {@link OrderArchiveJob}. Archived orders are stored as their
+ * gzip-compressed snapshot and paged by the same (date_created, id) cursor as the order tables.
+ */
+@Service
+@Transactional
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+
+    @Autowired
+    public OrderArchiveServiceImpl(OrderArchiveRepository orderArchiveRepository, ObjectMapper objectMapper,
+                                   @Value("${ecommerce.order-history.max-page-size:100}") int maxPageSize) {
+        this.orderArchiveRepository = orderArchiveRepository;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public OrderArchive toArchive(OrderDto orderDto) {
+        return OrderArchive.builder()
+                .orderId(orderDto.id())
+                .userId(orderDto.user() != null ? orderDto.user().id() : null)
+                .customerEmail(orderDto.customer() != null ? orderDto.customer().email() : null)
+                .dateCreated(orderDto.dateCreated())
+                .payload(writePayload(orderDto))
+                .dateArchived(LocalDateTime.now())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<OrderDto> findByOrderId(Long orderId) {
+        return orderArchiveRepository.findById(orderId).map(orderArchive -> readPayload(orderArchive.getPayload()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderDto> findAll() {
+        return orderArchiveRepository.findAllOrderByOrderId().stream()
+                .map(orderArchive -> readPayload(orderArchive.getPayload()))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderHistoryPageDto findByUserIdIn(Collection<Long> userIds, OrderHistoryQuery orderHistoryQuery) {
+        int pageSize = pageSize(orderHistoryQuery);
+        return readPage(orderArchiveRepository.findByUserIdIn(userIds, orderHistoryQuery.fromOrEarliest(),
+                orderHistoryQuery.beforeDate(), orderHistoryQuery.beforeOrderId(), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderHistoryPageDto findByCustomerEmail(String customerEmail, OrderHistoryQuery orderHistoryQuery) {
+        int pageSize = pageSize(orderHistoryQuery);
+        return readPage(orderArchiveRepository.findByCustomerEmail(customerEmail, orderHistoryQuery.fromOrEarliest(),
+                orderHistoryQuery.beforeDate(), orderHistoryQuery.beforeOrderId(), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    private int pageSize(OrderHistoryQuery orderHistoryQuery) {
+        return Math.max(1, Math.min(orderHistoryQuery.size(), maxPageSize));
+    }
+
+    private OrderHistoryPageDto readPage(List<OrderArchive> orderArchives, int pageSize) {
+        List<OrderArchive> page = orderArchives.size() <= pageSize ? orderArchives : orderArchives.subList(0, pageSize);
+        List<OrderDto> orders = page.stream().map(orderArchive -> readPayload(orderArchive.getPayload())).toList();
+        if (orderArchives.size() <= pageSize) {
+            return new OrderHistoryPageDto(orders, null);
+        }
+        OrderArchive last = page.get(pageSize - 1);
+        return new OrderHistoryPageDto(orders, OrderHistoryQuery.encodeCursor(last.getDateCreated(), last.getOrderId()));
+    }
+
+    private byte[] writePayload(OrderDto orderDto) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, orderDto);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Order " + orderDto.id() + " could not be archived", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private OrderDto readPayload(byte[] payload) {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(gzip, OrderDto.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Archived order has unreadable payload", e);
+        }
+    }
+}
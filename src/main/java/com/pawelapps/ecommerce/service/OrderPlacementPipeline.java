@@ -0,0 +1,176 @@
+package com.pawelapps.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pawelapps.ecommerce.dao.OrderRequestRepository;
+import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.entity.OrderRequest;
+import com.pawelapps.ecommerce.entity.OrderRequestStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists accepted order requests in the background. Request ids wait in a bounded queue, so a full queue
+ * is reported back to the caller instead of piling up work, and each worker writes several orders per
+ * transaction. Orders are always rebuilt from the stored request payload, which lets a failed batch be
+ * replayed one order per transaction so a single bad order (e.g. out of stock) only fails its own request.
+ */
+@Component
+public class OrderPlacementPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPlacementPipeline.class);
+
+    private final OrderService orderService;
+    private final OrderRequestRepository orderRequestRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Long> queue;
+    private final int batchSize;
+    private final int workers;
+    private ExecutorService executorService;
+
+    @Autowired
+    public OrderPlacementPipeline(OrderService orderService,
+                                  OrderRequestRepository orderRequestRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${ecommerce.checkout.queue-capacity:1000}") int queueCapacity,
+                                  @Value("${ecommerce.checkout.batch-size:20}") int batchSize,
+                                  @Value("${ecommerce.checkout.workers:2}") int workers) {
+        this.orderService = orderService;
+        this.orderRequestRepository = orderRequestRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.workers = workers;
+    }
+
+    @PostConstruct
+    public void start() {
+        executorService = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "order-placement");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            executorService.submit(this::drainQueue);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executorService.shutdownNow();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingRequests() {
+        for (OrderRequest orderRequest : orderRequestRepository.findByStatusOrderById(OrderRequestStatus.PENDING)) {
+            if (!submit(orderRequest.getId())) {
+                log.warn("Checkout queue is full, remaining pending order requests are resumed on next start");
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return false when the queue is full and the request has to be retried later
+     */
+    public boolean submit(Long orderRequestId) {
+        return queue.offer(orderRequestId);
+    }
+
+    public boolean isFull() {
+        return queue.remainingCapacity() == 0;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void drainQueue() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                placeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Unexpected error while placing orders", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void placeBatch(List<Long> orderRequestIds) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> orderRequestIds.forEach(this::place));
+        } catch (RuntimeException batchException) {
+            for (Long orderRequestId : orderRequestIds) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> place(orderRequestId));
+                } catch (RuntimeException e) {
+                    log.warn("Order request {} failed: {}", orderRequestId, e.getMessage());
+                    transactionTemplate.executeWithoutResult(status -> markFailed(orderRequestId, e));
+                }
+            }
+        }
+    }
+
+    private void place(Long orderRequestId) {
+        OrderRequest orderRequest = orderRequestRepository.findByIdForUpdate(orderRequestId).orElse(null);
+        if (orderRequest == null || orderRequest.getStatus() != OrderRequestStatus.PENDING) {
+            return;
+        }
+
+        OrderDto savedOrderDto = orderService.saveOrder(readPayload(orderRequest));
+
+        orderRequest.setStatus(OrderRequestStatus.COMPLETED);
+        orderRequest.setOrderId(savedOrderDto.id());
+        orderRequest.setPayload(null);
+        orderRequest.setLastUpdated(LocalDateTime.now());
+    }
+
+    private OrderDto readPayload(OrderRequest orderRequest) {
+        try {
+            return objectMapper.readValue(orderRequest.getPayload(), OrderDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order request " + orderRequest.getId() + " has unreadable payload", e);
+        }
+    }
+
+    private void markFailed(Long orderRequestId, RuntimeException exception) {
+        orderRequestRepository.findByIdForUpdate(orderRequestId).ifPresent(orderRequest -> {
+            if (orderRequest.getStatus() == OrderRequestStatus.PENDING) {
+                orderRequest.setStatus(OrderRequestStatus.FAILED);
+                String failureReason = String.valueOf(exception.getMessage());
+                orderRequest.setFailureReason(failureReason.length() > 255 ? failureReason.substring(0, 255) : failureReason);
+                orderRequest.setLastUpdated(LocalDateTime.now());
+            }
+        });
+    }
+}
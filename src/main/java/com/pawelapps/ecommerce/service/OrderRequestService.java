@@ -0,0 +1,10 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.dto.OrderRequestDto;
+
+public interface OrderRequestService {
+    OrderRequestDto acceptOrder(OrderDto orderDto, String idempotencyKey);
+
+    OrderRequestDto getOrderRequestByIdempotencyKey(String idempotencyKey);
+}
@@ -0,0 +1,150 @@
+package com.pawelapps.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pawelapps.ecommerce.dao.OrderRequestRepository;
+import com.pawelapps.ecommerce.dao.ProductRepository;
+import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.dto.OrderProductDto;
+import com.pawelapps.ecommerce.dto.OrderRequestDto;
+import com.pawelapps.ecommerce.entity.OrderRequest;
+import com.pawelapps.ecommerce.entity.OrderRequestStatus;
+import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.exception.CheckoutUnavailableException;
+import com.pawelapps.ecommerce.exception.InvalidOrderException;
+import com.pawelapps.ecommerce.exception.NotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Accepts orders for asynchronous placement. Every step commits on its own so the request row is
+ * visible to the pipeline workers before it is queued, and a concurrent retry with the same
+ * idempotency key always ends up reading the request stored by the first attempt.
+ */
+@Service
+public class OrderRequestServiceImpl implements OrderRequestService {
+
+    private final OrderRequestRepository orderRequestRepository;
+    private final ProductRepository productRepository;
+    private final OrderPlacementPipeline orderPlacementPipeline;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OrderRequestServiceImpl(OrderRequestRepository orderRequestRepository, ProductRepository productRepository,
+                                   OrderPlacementPipeline orderPlacementPipeline, ObjectMapper objectMapper) {
+        this.orderRequestRepository = orderRequestRepository;
+        this.productRepository = productRepository;
+        this.orderPlacementPipeline = orderPlacementPipeline;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public OrderRequestDto acceptOrder(OrderDto orderDto, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > 255) {
+            throw new InvalidOrderException("Idempotency key must be between 1 and 255 characters");
+        }
+
+        OrderRequest existingOrderRequest = orderRequestRepository.findByIdempotencyKey(idempotencyKey).orElse(null);
+        if (existingOrderRequest != null) {
+            return mapExistingOrderRequest(existingOrderRequest, orderDto);
+        }
+
+        validateOrder(orderDto);
+
+        if (orderPlacementPipeline.isFull()) {
+            throw new CheckoutUnavailableException("Checkout is busy, please retry");
+        }
+
+        OrderRequest orderRequest;
+        try {
+            orderRequest = orderRequestRepository.saveAndFlush(OrderRequest.builder()
+                    .idempotencyKey(idempotencyKey)
+                    .userEmail(orderDto.user().email())
+                    .status(OrderRequestStatus.PENDING)
+                    .payload(writePayload(orderDto))
+                    .dateCreated(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            return mapExistingOrderRequest(orderRequestRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e), orderDto);
+        }
+
+        if (!orderPlacementPipeline.submit(orderRequest.getId())) {
+            orderRequestRepository.deleteById(orderRequest.getId());
+            throw new CheckoutUnavailableException("Checkout is busy, please retry");
+        }
+
+        return mapOrderRequestToOrderRequestDto(orderRequest);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderRequestDto getOrderRequestByIdempotencyKey(String idempotencyKey) {
+        OrderRequest orderRequest = orderRequestRepository.findByIdempotencyKey(idempotencyKey)
+                .orElseThrow(() -> new NotFoundException("Order request doesn't exist"));
+        return mapOrderRequestToOrderRequestDto(orderRequest);
+    }
+
+    private OrderRequestDto mapExistingOrderRequest(OrderRequest orderRequest, OrderDto orderDto) {
+        if (!Objects.equals(orderRequest.getUserEmail(), orderDto.user() == null ? null : orderDto.user().email())) {
+            throw new InvalidOrderException("Idempotency key was already used for another order");
+        }
+        return mapOrderRequestToOrderRequestDto(orderRequest);
+    }
+
+    private void validateOrder(OrderDto orderDto) {
+        if (orderDto.user() == null || orderDto.user().email() == null) {
+            throw new InvalidOrderException("Order has no user");
+        }
+        if (orderDto.orderProducts().isEmpty()) {
+            throw new InvalidOrderException("Order has no products");
+        }
+
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (OrderProductDto orderProduct : orderDto.orderProducts()) {
+            if (orderProduct.product() == null || orderProduct.product().id() == null || orderProduct.quantity() <= 0) {
+                throw new InvalidOrderException("Order product must reference a product and have a positive quantity");
+            }
+            quantities.merge(orderProduct.product().id(), orderProduct.quantity(), Integer::sum);
+        }
+
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        quantities.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new InvalidOrderException("Product with id " + productId + " doesn't exist");
+            }
+            if (product.getUnitsInStock() < quantity) {
+                throw new InvalidOrderException("Not enough quantity available for product with id " + productId);
+            }
+        });
+    }
+
+    private String writePayload(OrderDto orderDto) {
+        try {
+            return objectMapper.writeValueAsString(orderDto);
+        } catch (JsonProcessingException e) {
+            throw new InvalidOrderException("Order can not be serialized");
+        }
+    }
+
+    private OrderRequestDto mapOrderRequestToOrderRequestDto(OrderRequest orderRequest) {
+        return OrderRequestDto.builder()
+                .id(orderRequest.getId())
+                .idempotencyKey(orderRequest.getIdempotencyKey())
+                .userEmail(orderRequest.getUserEmail())
+                .status(orderRequest.getStatus())
+                .orderId(orderRequest.getOrderId())
+                .failureReason(orderRequest.getFailureReason())
+                .build();
+    }
+}
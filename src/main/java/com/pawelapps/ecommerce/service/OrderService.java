@@ -1,6 +1,8 @@
 package com.pawelapps.ecommerce.service;
 
 import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryPageDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryQuery;
 import com.pawelapps.ecommerce.entity.Order;
 
 import java.util.List;
@@ -10,9 +12,9 @@ public interface OrderService {
 
     List<OrderDto> getAllOrders();
 
-    List<OrderDto> findByCustomerEmail(String customerEmail);
+    OrderHistoryPageDto findByCustomerEmail(String customerEmail, OrderHistoryQuery orderHistoryQuery);
 
-    List<OrderDto> findByUserEmail(String userEmail);
+    OrderHistoryPageDto findByUserEmail(String userEmail, OrderHistoryQuery orderHistoryQuery);
 
     OrderDto findById(Long id);
 
@@ -1,17 +1,25 @@
 package com.pawelapps.ecommerce.service;
 
+import com.pawelapps.ecommerce.cache.UserKeyCache;
 import com.pawelapps.ecommerce.dao.OrderRepository;
 import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryPageDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryQuery;
 import com.pawelapps.ecommerce.entity.Order;
 import com.pawelapps.ecommerce.entity.OrderProduct;
+import com.pawelapps.ecommerce.entity.Summary;
+import com.pawelapps.ecommerce.mapper.OrderMapper;
+import com.pawelapps.ecommerce.pricing.PricingEngine;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 @Transactional
@@ -19,14 +27,34 @@ public class OrderServiceImpl implements OrderService {
 
     private OrderRepository orderRepository;
     private ProductService productService;
+    private UserKeyCache userKeyCache;
+    private OutboxService outboxService;
+    private OrderMapper orderMapper;
+    private OrderSnapshotService orderSnapshotService;
+    private PricingEngine pricingEngine;
+    private OrderAnalyticsService orderAnalyticsService;
+    private OrderArchiveService orderArchiveService;
+    private int maxPageSize;
 
     @PersistenceContext
     private EntityManager entityManager;
 
     @Autowired
-    public OrderServiceImpl(OrderRepository orderRepository, ProductService productService) {
+    public OrderServiceImpl(OrderRepository orderRepository, ProductService productService, UserKeyCache userKeyCache,
+                            OutboxService outboxService, OrderMapper orderMapper, OrderSnapshotService orderSnapshotService,
+                            PricingEngine pricingEngine, OrderAnalyticsService orderAnalyticsService,
+                            OrderArchiveService orderArchiveService,
+                            @Value("${ecommerce.order-history.max-page-size:100}") int maxPageSize) {
         this.orderRepository = orderRepository;
         this.productService = productService;
+        this.userKeyCache = userKeyCache;
+        this.outboxService = outboxService;
+        this.orderMapper = orderMapper;
+        this.orderSnapshotService = orderSnapshotService;
+        this.pricingEngine = pricingEngine;
+        this.orderAnalyticsService = orderAnalyticsService;
+        this.orderArchiveService = orderArchiveService;
+        this.maxPageSize = maxPageSize;
     }
 
     @Override
@@ -34,74 +62,99 @@ public class OrderServiceImpl implements OrderService {
         Order order = this.mapOrderDtoToOrder(orderDto);
 
         for (OrderProduct op : order.getOrderProducts()) {
-            productService.decreaseProductQuantity(op.getProduct().getId(), op.getQuantity());
+            // keep the stored product rather than the one sent by the client, it is priced and goes into the snapshot
+            op.setProduct(productService.decreaseProductQuantity(op.getProduct().getId(), op.getQuantity()));
         }
 
-        Order savedOrder = orderRepository.save(order);
-
+        if (order.getSummary() == null) {
+            order.setSummary(new Summary());
+        }
+        pricingEngine.priceOrder(order.getOrderProducts()).applyTo(order.getSummary());
 
-        orderDto.setId(savedOrder.getId());
+        Order savedOrder = orderRepository.save(order);
+        orderSnapshotService.saveSnapshot(savedOrder);
+        orderAnalyticsService.recordOrder(savedOrder);
+        outboxService.recordOrderCreated(savedOrder);
+        if (order.getUser() != null) {
+            userKeyCache.evict(order.getUser().getEmail());
+        }
 
-        return orderDto;
+        return mapOrderToOrderDto(savedOrder);
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getAllOrders() {
-        List<Order> orders = orderRepository.findAll();
-        List<OrderDto> ordersDto = orders.stream().map(order -> this.mapOrderToOrderDto(order)).collect(Collectors.toList());
-        return ordersDto;
-
+        // archived orders are the oldest ones, listing them first keeps the list ordered by order id
+        List<OrderDto> orders = new ArrayList<>(orderArchiveService.findAll());
+        orders.addAll(orderSnapshotService.findAll());
+        return orders;
     }
 
     @Override
-    public List<OrderDto> findByCustomerEmail(String email) {
-        List<Order> orders = orderRepository.findByCustomerEmail(email);
-        List<OrderDto> ordersDto = orders.stream().map(order -> this.mapOrderToOrderDto(order)).collect(Collectors.toList());
-        return ordersDto;
+    @Transactional(readOnly = true)
+    public OrderHistoryPageDto findByCustomerEmail(String email, OrderHistoryQuery orderHistoryQuery) {
+        return continueIntoArchive(orderSnapshotService.findByCustomerEmail(email, orderHistoryQuery), orderHistoryQuery,
+                archiveQuery -> orderArchiveService.findByCustomerEmail(email, archiveQuery));
     }
 
     @Override
-    public List<OrderDto> findByUserEmail(String userEmail) {
-        List<Order> orders = orderRepository.findByUserEmail(userEmail);
-        List<OrderDto> ordersDto = orders.stream().map(order -> this.mapOrderToOrderDto(order)).collect(Collectors.toList());
-        return ordersDto;
+    @Transactional(readOnly = true)
+    public OrderHistoryPageDto findByUserEmail(String userEmail, OrderHistoryQuery orderHistoryQuery) {
+        UserKeyCache.UserKeys userKeys = userKeyCache.resolve(userEmail);
+        if (userKeys.userIds().isEmpty()) {
+            return new OrderHistoryPageDto(new ArrayList<>(), null);
+        }
+        return continueIntoArchive(orderSnapshotService.findByUserIdIn(userKeys.userIds(), orderHistoryQuery), orderHistoryQuery,
+                archiveQuery -> orderArchiveService.findByUserIdIn(userKeys.userIds(), archiveQuery));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderDto findById(Long id) {
-        Order order = this.orderRepository.findById(id).orElseThrow();
-        OrderDto orderDto = this.mapOrderToOrderDto(order);
-        return orderDto;
+        return orderSnapshotService.findByOrderId(id)
+                .or(() -> orderArchiveService.findByOrderId(id))
+                .orElseThrow();
     }
 
-    @Override
-    public OrderDto mapOrderToOrderDto(Order order) {
-        OrderDto orderDto = new OrderDto();
-        orderDto.setId(order.getId());
-        orderDto.setCustomer(order.getCustomer());
-        orderDto.setShippingAddress(order.getShippingAddress());
-        orderDto.setSummary(order.getSummary());
-        orderDto.setUser(order.getUser());
+    /**
+     * Archived orders are older than every order left in the order tables, so once the last page of the
+     * order tables is reached, history carries on with the newest archived orders matching the same query.
+     */
+    private OrderHistoryPageDto continueIntoArchive(OrderHistoryPageDto page, OrderHistoryQuery orderHistoryQuery,
+                                                    Function<OrderHistoryQuery, OrderHistoryPageDto> findInArchive) {
+        if (page.nextCursor() != null) {
+            return page;
+        }
 
-        List<OrderProduct> orderProducts = order.getOrderProducts();
-        orderProducts.forEach(orderDto::addOrderProduct);
+        int remaining = Math.max(1, Math.min(orderHistoryQuery.size(), maxPageSize)) - page.orders().size();
+        OrderHistoryPageDto archivePage = findInArchive.apply(OrderHistoryQuery.builder()
+                .from(orderHistoryQuery.from())
+                .to(orderHistoryQuery.to())
+                .cursor(orderHistoryQuery.cursor())
+                .size(Math.max(1, remaining))
+                .build());
+        if (archivePage.orders().isEmpty()) {
+            return page;
+        }
+        if (remaining <= 0) {
+            // the page is full, the next one starts in the archive
+            OrderDto lastOrder = page.orders().get(page.orders().size() - 1);
+            return new OrderHistoryPageDto(page.orders(), OrderHistoryQuery.encodeCursor(lastOrder.dateCreated(), lastOrder.id()));
+        }
+        List<OrderDto> orders = new ArrayList<>(page.orders());
+        orders.addAll(archivePage.orders());
+        return new OrderHistoryPageDto(orders, archivePage.nextCursor());
+    }
 
-        return orderDto;
+    @Override
+    public OrderDto mapOrderToOrderDto(Order order) {
+        return orderMapper.toOrderDto(order);
     }
 
     @Override
     public Order mapOrderDtoToOrder(OrderDto orderDto) {
-        Order order = new Order();
-        order.setId(orderDto.getId());
-        order.setCustomer(orderDto.getCustomer());
-        order.setShippingAddress(orderDto.getShippingAddress());
-        order.setSummary(orderDto.getSummary());
-        order.setUser(orderDto.getUser());
-
-        List<OrderProduct> orderProducts = orderDto.getOrderProducts();
-        orderProducts.forEach(order::addOrderProduct);
-
-        return order;
+        return orderMapper.toOrder(orderDto);
     }
 }
@@ -0,0 +1,78 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.dao.OrderRepository;
+import com.pawelapps.ecommerce.dao.OrderSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Writes snapshots for orders placed before {@link OrderSnapshotService} existed, one batch per transaction.
+ * New orders get their snapshot when they are saved, so once a run finds nothing left to convert the job
+ * stops querying until the next restart.
+ */
+@Component
+public class OrderSnapshotBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSnapshotBackfill.class);
+
+    private final OrderSnapshotRepository orderSnapshotRepository;
+    private final OrderRepository orderRepository;
+    private final OrderSnapshotService orderSnapshotService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private volatile boolean completed;
+
+    @Autowired
+    public OrderSnapshotBackfill(OrderSnapshotRepository orderSnapshotRepository,
+                                 OrderRepository orderRepository,
+                                 OrderSnapshotService orderSnapshotService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${ecommerce.order-snapshot.backfill-batch-size:100}") int batchSize,
+                                 @Value("${ecommerce.order-snapshot.backfill-max-batches-per-run:10}") int maxBatchesPerRun) {
+        this.orderSnapshotRepository = orderSnapshotRepository;
+        this.orderRepository = orderRepository;
+        this.orderSnapshotService = orderSnapshotService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(initialDelayString = "${ecommerce.order-snapshot.backfill-initial-delay-ms:10000}",
+            fixedDelayString = "${ecommerce.order-snapshot.backfill-interval-ms:1000}")
+    public void backfill() {
+        if (completed) {
+            return;
+        }
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer converted = transactionTemplate.execute(status -> backfillBatch());
+                if (converted == null || converted < batchSize) {
+                    completed = true;
+                    log.info("Order snapshot backfill completed");
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Order snapshot backfill failed, retrying on next run: {}", e.getMessage());
+        }
+    }
+
+    int backfillBatch() {
+        List<Long> orderIds = orderSnapshotRepository.findOrderIdsWithoutSnapshot(PageRequest.of(0, batchSize));
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        orderRepository.findByIdIn(orderIds).forEach(orderSnapshotService::saveSnapshot);
+        return orderIds.size();
+    }
+}
@@ -0,0 +1,24 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryPageDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryQuery;
+import com.pawelapps.ecommerce.entity.Order;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderSnapshotService {
+    void saveSnapshot(Order order);
+
+    Optional<OrderDto> findByOrderId(Long orderId);
+
+    List<OrderDto> findAll();
+
+    List<OrderDto> findByOrderIds(Collection<Long> orderIds);
+
+    OrderHistoryPageDto findByUserIdIn(Collection<Long> userIds, OrderHistoryQuery orderHistoryQuery);
+
+    OrderHistoryPageDto findByCustomerEmail(String customerEmail, OrderHistoryQuery orderHistoryQuery);
+}
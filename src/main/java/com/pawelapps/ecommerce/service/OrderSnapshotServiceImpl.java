@@ -0,0 +1,158 @@
+package com.pawelapps.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pawelapps.ecommerce.dao.OrderRepository;
+import com.pawelapps.ecommerce.dao.OrderSnapshotRepository;
+import com.pawelapps.ecommerce.dao.OrderSnapshotRepository.OrderPayload;
+import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryPageDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryQuery;
+import com.pawelapps.ecommerce.entity.Order;
+import com.pawelapps.ecommerce.entity.OrderSnapshot;
+import com.pawelapps.ecommerce.mapper.OrderMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Orders are never changed once placed, so their detail is written once as a JSON snapshot and read back
+ * without joins. Orders that have no snapshot yet (placed before snapshots existed and not reached by
+ * {@link OrderSnapshotBackfill}) are still read through the Order.detail entity graph.
+ */
+@Service
+@Transactional
+public class OrderSnapshotServiceImpl implements OrderSnapshotService {
+
+    private final OrderSnapshotRepository orderSnapshotRepository;
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public OrderSnapshotServiceImpl(OrderSnapshotRepository orderSnapshotRepository, OrderRepository orderRepository,
+                                    OrderMapper orderMapper, ObjectMapper objectMapper,
+                                    @Value("${ecommerce.order-history.max-page-size:100}") int maxPageSize) {
+        this.orderSnapshotRepository = orderSnapshotRepository;
+        this.orderRepository = orderRepository;
+        this.orderMapper = orderMapper;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public void saveSnapshot(Order order) {
+        OrderSnapshot orderSnapshot = OrderSnapshot.builder()
+                .orderId(order.getId())
+                .payload(writePayload(orderMapper.toOrderDto(order)))
+                .dateCreated(LocalDateTime.now())
+                .build();
+        // persist rather than save: the id is assigned, so save would merge and select the row first
+        entityManager.persist(orderSnapshot);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<OrderDto> findByOrderId(Long orderId) {
+        Optional<OrderSnapshot> orderSnapshot = orderSnapshotRepository.findById(orderId);
+        if (orderSnapshot.isPresent()) {
+            return Optional.of(readPayload(orderSnapshot.get().getPayload()));
+        }
+        return orderRepository.findById(orderId).map(orderMapper::toOrderDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderDto> findAll() {
+        return readOrders(orderSnapshotRepository.findAllPayloads());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderDto> findByOrderIds(Collection<Long> orderIds) {
+        return readOrders(orderSnapshotRepository.findPayloadsByOrderIdIn(orderIds));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderHistoryPageDto findByUserIdIn(Collection<Long> userIds, OrderHistoryQuery orderHistoryQuery) {
+        int pageSize = pageSize(orderHistoryQuery);
+        return readPage(orderSnapshotRepository.findPayloadsByUserIdIn(userIds, orderHistoryQuery.fromOrEarliest(),
+                orderHistoryQuery.beforeDate(), orderHistoryQuery.beforeOrderId(), withNextPageProbe(pageSize)), pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderHistoryPageDto findByCustomerEmail(String customerEmail, OrderHistoryQuery orderHistoryQuery) {
+        int pageSize = pageSize(orderHistoryQuery);
+        return readPage(orderSnapshotRepository.findPayloadsByCustomerEmail(customerEmail, orderHistoryQuery.fromOrEarliest(),
+                orderHistoryQuery.beforeDate(), orderHistoryQuery.beforeOrderId(), withNextPageProbe(pageSize)), pageSize);
+    }
+
+    private int pageSize(OrderHistoryQuery orderHistoryQuery) {
+        return Math.max(1, Math.min(orderHistoryQuery.size(), maxPageSize));
+    }
+
+    // one row more than the page holds tells whether an older page exists
+    private Pageable withNextPageProbe(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    private OrderHistoryPageDto readPage(List<OrderPayload> orderPayloads, int pageSize) {
+        if (orderPayloads.size() <= pageSize) {
+            return new OrderHistoryPageDto(readOrders(orderPayloads), null);
+        }
+        List<OrderPayload> page = orderPayloads.subList(0, pageSize);
+        OrderPayload last = page.get(pageSize - 1);
+        return new OrderHistoryPageDto(readOrders(page), OrderHistoryQuery.encodeCursor(last.getDateCreated(), last.getOrderId()));
+    }
+
+    private List<OrderDto> readOrders(List<OrderPayload> orderPayloads) {
+        List<Long> orderIdsWithoutSnapshot = orderPayloads.stream()
+                .filter(orderPayload -> orderPayload.getPayload() == null)
+                .map(OrderPayload::getOrderId)
+                .toList();
+        Map<Long, Order> ordersWithoutSnapshot = orderIdsWithoutSnapshot.isEmpty() ? Map.of() :
+                orderRepository.findByIdIn(orderIdsWithoutSnapshot).stream()
+                        .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        return orderPayloads.stream()
+                .map(orderPayload -> orderPayload.getPayload() != null
+                        ? readPayload(orderPayload.getPayload())
+                        : orderMapper.toOrderDto(ordersWithoutSnapshot.get(orderPayload.getOrderId())))
+                .toList();
+    }
+
+    private String writePayload(OrderDto orderDto) {
+        try {
+            return objectMapper.writeValueAsString(orderDto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order " + orderDto.id() + " could not be serialized", e);
+        }
+    }
+
+    private OrderDto readPayload(String payload) {
+        try {
+            return objectMapper.readValue(payload, OrderDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order snapshot has unreadable payload", e);
+        }
+    }
+}
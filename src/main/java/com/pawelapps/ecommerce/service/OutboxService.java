@@ -0,0 +1,10 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.entity.Order;
+import com.pawelapps.ecommerce.entity.Product;
+
+public interface OutboxService {
+    void recordOrderCreated(Order order);
+
+    void recordStockChanged(Product product, int quantityChange);
+}
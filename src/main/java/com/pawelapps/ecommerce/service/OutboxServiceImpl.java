@@ -0,0 +1,85 @@
+package com.pawelapps.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pawelapps.ecommerce.dao.OutboxEventRepository;
+import com.pawelapps.ecommerce.entity.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes order events into the outbox_event table. Events must be recorded inside the transaction
+ * that changes the order or stock, so they are committed or rolled back together with it.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void recordOrderCreated(Order order) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", order.getId());
+        payload.put("userEmail", order.getUser() != null ? order.getUser().getEmail() : null);
+        payload.put("customerEmail", order.getCustomer() != null ? order.getCustomer().getEmail() : null);
+        if (order.getSummary() != null) {
+            payload.put("totalCartValue", order.getSummary().getTotalCartValue());
+            payload.put("totalQuantityOfProducts", order.getSummary().getTotalQuantityOfProducts());
+            payload.put("shippingPrice", order.getSummary().getShippingPrice());
+        }
+
+        List<Map<String, Object>> lines = new ArrayList<>();
+        if (order.getOrderProducts() != null) {
+            for (OrderProduct orderProduct : order.getOrderProducts()) {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("productId", orderProduct.getProduct() != null ? orderProduct.getProduct().getId() : null);
+                line.put("quantity", orderProduct.getQuantity());
+                line.put("unitPrice", orderProduct.getUnitPrice());
+                lines.add(line);
+            }
+        }
+        payload.put("orderProducts", lines);
+
+        save(OutboxEventType.ORDER_CREATED, order.getId(), payload);
+    }
+
+    @Override
+    public void recordStockChanged(Product product, int quantityChange) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("productId", product.getId());
+        payload.put("sku", product.getSku());
+        payload.put("unitsInStock", product.getUnitsInStock());
+        payload.put("quantityChange", quantityChange);
+
+        save(OutboxEventType.STOCK_CHANGED, product.getId(), payload);
+    }
+
+    private void save(OutboxEventType eventType, Long aggregateId, Map<String, Object> payload) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .eventType(eventType)
+                    .aggregateId(aggregateId)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .dateCreated(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " event", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.catalog.ProductFileFormat;
+import com.pawelapps.ecommerce.dto.ProductImportReportDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface ProductCatalogService {
+
+    ProductImportReportDto importProducts(InputStream inputStream, ProductFileFormat format) throws IOException;
+
+    void exportProducts(OutputStream outputStream, ProductFileFormat format) throws IOException;
+}
@@ -0,0 +1,306 @@
+package com.pawelapps.ecommerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pawelapps.ecommerce.cache.CartSummaryCache;
+import com.pawelapps.ecommerce.catalog.ProductFileFormat;
+import com.pawelapps.ecommerce.catalog.ProductFileReader;
+import com.pawelapps.ecommerce.catalog.ProductFileWriter;
+import com.pawelapps.ecommerce.catalog.ProductRow;
+import com.pawelapps.ecommerce.dao.ProductCategoryRepository;
+import com.pawelapps.ecommerce.dao.ProductRepository;
+import com.pawelapps.ecommerce.dto.ProductImportRejectDto;
+import com.pawelapps.ecommerce.dto.ProductImportReportDto;
+import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.search.ProductSuggestionIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk catalog import and export. Imports stream the file in batches: each batch is parsed and validated
+ * in parallel, then upserted by sku with one JDBC batch statement in its own transaction, so an 80k row
+ * feed never holds more than one batch in memory or one long transaction open. A batch the database
+ * rejects is replayed row by row, so one bad row only rejects itself. Runs outside of any transaction,
+ * transactions are started per batch.
+ */
+@Service
+public class ProductCatalogServiceImpl implements ProductCatalogService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalogServiceImpl.class);
+
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final BigDecimal MAX_UNIT_PRICE = new BigDecimal("99999999999.99");
+
+    // missing optional fields keep the current value of an existing product
+    private static final String UPSERT_PRODUCT = "INSERT INTO `product` (`sku`, `name`, `description`, `unit_price`, " +
+            "`image_url`, `active`, `units_in_stock`, `category_id`, `date_created`, `last_updated`) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE `name` = ?, `description` = COALESCE(?, `description`), `unit_price` = ?, " +
+            "`image_url` = COALESCE(?, `image_url`), `active` = COALESCE(?, `active`), " +
+            "`units_in_stock` = COALESCE(?, `units_in_stock`), `category_id` = ?, `last_updated` = ?";
+
+    private static final String SELECT_PRODUCT_PAGE = "SELECT `id`, `sku`, `name`, `description`, `unit_price`, " +
+            "`image_url`, `active`, `units_in_stock`, `category_id` FROM `product` WHERE `id` > ? ORDER BY `id` LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ProductCategoryRepository productCategoryRepository;
+    private final CartSummaryCache cartSummaryCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+    private final ProductSuggestionIndex productSuggestionIndex;
+    private final int batchSize;
+    private final int maxReportedRejects;
+
+    @Autowired
+    public ProductCatalogServiceImpl(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     ProductCategoryRepository productCategoryRepository,
+                                     CartSummaryCache cartSummaryCache,
+                                     EntityManagerFactory entityManagerFactory,
+                                     ObjectMapper objectMapper,
+                                     ProductSuggestionIndex productSuggestionIndex,
+                                     @Value("${ecommerce.product-import.batch-size:500}") int batchSize,
+                                     @Value("${ecommerce.product-import.max-reported-rejects:1000}") int maxReportedRejects) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.productCategoryRepository = productCategoryRepository;
+        this.cartSummaryCache = cartSummaryCache;
+        this.entityManagerFactory = entityManagerFactory;
+        this.objectMapper = objectMapper;
+        this.productSuggestionIndex = productSuggestionIndex;
+        this.batchSize = batchSize;
+        this.maxReportedRejects = maxReportedRejects;
+    }
+
+    @Override
+    public ProductImportReportDto importProducts(InputStream inputStream, ProductFileFormat format) throws IOException {
+        ProductFileReader reader = new ProductFileReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), format, objectMapper);
+        Set<Long> categoryIds = new HashSet<>(readOnlyTransactionTemplate.execute(status -> productCategoryRepository.findAllIds()));
+        ImportProgress progress = new ImportProgress();
+
+        List<SourceRecord> batch = new ArrayList<>(batchSize);
+        while (reader.next()) {
+            batch.add(new SourceRecord(reader.getRecordLine(), reader.getRecord()));
+            if (batch.size() == batchSize) {
+                importBatch(batch, reader, categoryIds, progress);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, reader, categoryIds, progress);
+        }
+
+        if (progress.rowsImported > 0) {
+            productSuggestionIndex.rebuild();
+        }
+        log.info("Catalog import finished: {} rows read, {} imported, {} rejected",
+                progress.rowsRead, progress.rowsImported, progress.rowsRejected);
+        return new ProductImportReportDto(progress.rowsRead, progress.rowsImported, progress.rowsRejected, progress.rejects);
+    }
+
+    private void importBatch(List<SourceRecord> batch, ProductFileReader reader, Set<Long> categoryIds, ImportProgress progress) {
+        List<CheckedRecord> checkedRecords = batch.parallelStream()
+                .map(sourceRecord -> check(sourceRecord, reader, categoryIds))
+                .toList();
+
+        List<CheckedRecord> validRecords = new ArrayList<>(checkedRecords.size());
+        for (CheckedRecord checkedRecord : checkedRecords) {
+            if (checkedRecord.rejectReason() == null) {
+                validRecords.add(checkedRecord);
+            } else {
+                progress.reject(checkedRecord, checkedRecord.rejectReason(), maxReportedRejects);
+            }
+        }
+        progress.rowsRead += batch.size();
+
+        if (!validRecords.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                transactionTemplate.executeWithoutResult(status -> upsert(validRecords, now));
+                progress.rowsImported += validRecords.size();
+            } catch (DataAccessException batchException) {
+                for (CheckedRecord validRecord : validRecords) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> upsert(List.of(validRecord), now));
+                        progress.rowsImported++;
+                    } catch (DataAccessException e) {
+                        progress.reject(validRecord, e.getMostSpecificCause().getMessage(), maxReportedRejects);
+                    }
+                }
+            }
+            evictCachedProducts();
+        }
+
+        log.info("Catalog import progress: {} rows read, {} imported, {} rejected",
+                progress.rowsRead, progress.rowsImported, progress.rowsRejected);
+    }
+
+    private CheckedRecord check(SourceRecord sourceRecord, ProductFileReader reader, Set<Long> categoryIds) {
+        ProductRow productRow;
+        try {
+            productRow = reader.parse(sourceRecord.text());
+        } catch (IllegalArgumentException e) {
+            return new CheckedRecord(sourceRecord.line(), null, e.getMessage());
+        }
+        return new CheckedRecord(sourceRecord.line(), productRow, validate(productRow, categoryIds));
+    }
+
+    /**
+     * @return why the row can't be imported, or null when it is valid
+     */
+    private String validate(ProductRow productRow, Set<Long> categoryIds) {
+        if (productRow.sku() == null || productRow.sku().isBlank()) {
+            return "Missing sku";
+        }
+        if (productRow.name() == null || productRow.name().isBlank()) {
+            return "Missing name";
+        }
+        if (tooLong(productRow.sku()) || tooLong(productRow.name()) || tooLong(productRow.description()) || tooLong(productRow.imageUrl())) {
+            return "Text longer than " + MAX_TEXT_LENGTH + " characters";
+        }
+        if (productRow.unitPrice() == null) {
+            return "Missing unitPrice";
+        }
+        if (productRow.unitPrice().signum() < 0 || productRow.unitPrice().stripTrailingZeros().scale() > 2
+                || productRow.unitPrice().compareTo(MAX_UNIT_PRICE) > 0) {
+            return "Invalid unitPrice " + productRow.unitPrice().toPlainString();
+        }
+        if (productRow.unitsInStock() != null && productRow.unitsInStock() < 0) {
+            return "Negative unitsInStock";
+        }
+        if (productRow.categoryId() == null) {
+            return "Missing categoryId";
+        }
+        if (!categoryIds.contains(productRow.categoryId())) {
+            return "Unknown categoryId " + productRow.categoryId();
+        }
+        return null;
+    }
+
+    private boolean tooLong(String text) {
+        return text != null && text.length() > MAX_TEXT_LENGTH;
+    }
+
+    private void upsert(List<CheckedRecord> records, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(UPSERT_PRODUCT, records, records.size(), (statement, checkedRecord) -> {
+            ProductRow productRow = checkedRecord.productRow();
+            statement.setString(1, productRow.sku());
+            statement.setString(2, productRow.name());
+            statement.setString(3, productRow.description());
+            statement.setBigDecimal(4, productRow.unitPrice());
+            statement.setString(5, productRow.imageUrl());
+            statement.setBoolean(6, productRow.active() == null || productRow.active());
+            statement.setInt(7, productRow.unitsInStock() == null ? 0 : productRow.unitsInStock());
+            statement.setLong(8, productRow.categoryId());
+            statement.setTimestamp(9, timestamp);
+            statement.setTimestamp(10, timestamp);
+            statement.setString(11, productRow.name());
+            statement.setString(12, productRow.description());
+            statement.setBigDecimal(13, productRow.unitPrice());
+            statement.setString(14, productRow.imageUrl());
+            setNullable(statement, 15, productRow.active(), Types.BOOLEAN);
+            setNullable(statement, 16, productRow.unitsInStock(), Types.INTEGER);
+            statement.setLong(17, productRow.categoryId());
+            statement.setTimestamp(18, timestamp);
+        });
+    }
+
+    private static void setNullable(PreparedStatement statement, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, sqlType);
+        } else {
+            statement.setObject(index, value, sqlType);
+        }
+    }
+
+    /**
+     * Rows written with plain JDBC bypass Hibernate, so cached products, category queries and priced cart
+     * summaries are dropped once the batch is committed.
+     */
+    private void evictCachedProducts() {
+        entityManagerFactory.getCache().evict(Product.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(ProductRepository.PRODUCTS_BY_CATEGORY_REGION);
+        cartSummaryCache.clear();
+    }
+
+    /**
+     * Streams the catalog ordered by id, reading one page of products per read-only transaction.
+     */
+    @Override
+    public void exportProducts(OutputStream outputStream, ProductFileFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        ProductFileWriter productFileWriter = new ProductFileWriter(writer, format, objectMapper);
+
+        long lastId = 0;
+        List<ProductPageRow> page;
+        do {
+            long afterId = lastId;
+            page = readOnlyTransactionTemplate.execute(status -> jdbcTemplate.query(SELECT_PRODUCT_PAGE,
+                    (resultSet, rowNumber) -> new ProductPageRow(resultSet.getLong("id"), new ProductRow(
+                            resultSet.getString("sku"),
+                            resultSet.getString("name"),
+                            resultSet.getString("description"),
+                            resultSet.getBigDecimal("unit_price"),
+                            resultSet.getString("image_url"),
+                            resultSet.getBoolean("active"),
+                            resultSet.getInt("units_in_stock"),
+                            resultSet.getObject("category_id", Long.class))),
+                    afterId, batchSize));
+            for (ProductPageRow productPageRow : page) {
+                productFileWriter.write(productPageRow.productRow());
+                lastId = productPageRow.id();
+            }
+            productFileWriter.flush();
+        } while (page.size() == batchSize);
+    }
+
+    private record SourceRecord(long line, String text) {
+    }
+
+    private record CheckedRecord(long line, ProductRow productRow, String rejectReason) {
+    }
+
+    private record ProductPageRow(long id, ProductRow productRow) {
+    }
+
+    private static class ImportProgress {
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+        private final List<ProductImportRejectDto> rejects = new ArrayList<>();
+
+        void reject(CheckedRecord checkedRecord, String reason, int maxReportedRejects) {
+            rowsRejected++;
+            if (rejects.size() < maxReportedRejects) {
+                rejects.add(new ProductImportRejectDto(checkedRecord.line(),
+                        checkedRecord.productRow() != null ? checkedRecord.productRow().sku() : null, reason));
+            }
+        }
+    }
+}
@@ -27,11 +27,13 @@ public class ProductCategoryServiceImpl implements ProductCategoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ProductCategory getProductCategoryById(Long id) {
         return productCategoryRepository.findById(id).orElseThrow(() -> new NotFoundException("Product category with id " + id + " doesn't exist"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductCategory> getAllProductCategories() {
         return productCategoryRepository.findAll();
     }
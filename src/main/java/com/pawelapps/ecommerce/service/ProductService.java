@@ -20,5 +20,10 @@ public interface ProductService {
 
     List<Product> getProductsByNameOrSku(String nameOrSku);
 
+    /**
+     * Keyset page of products ordered by id, for streaming the whole catalog without holding it in memory.
+     */
+    List<Product> getProductsAfterId(Long afterId, int pageSize);
+
     Product decreaseProductQuantity(Long productId, int quantityToDecrease);
 }
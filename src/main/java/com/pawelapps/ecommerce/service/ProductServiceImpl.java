@@ -1,11 +1,15 @@
 package com.pawelapps.ecommerce.service;
 
+import com.pawelapps.ecommerce.cache.CartSummaryCache;
 import com.pawelapps.ecommerce.dao.ProductRepository;
 import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.event.StockLevelBroadcaster;
 import com.pawelapps.ecommerce.exception.NotFoundException;
-import jakarta.transaction.Transactional;
+import com.pawelapps.ecommerce.search.ProductSuggestionIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,50 +19,81 @@ import java.util.List;
 public class ProductServiceImpl implements ProductService {
 
     ProductRepository productRepository;
+    OutboxService outboxService;
+    CartSummaryCache cartSummaryCache;
+    StockLevelBroadcaster stockLevelBroadcaster;
+    ProductSuggestionIndex productSuggestionIndex;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, OutboxService outboxService, CartSummaryCache cartSummaryCache,
+                              StockLevelBroadcaster stockLevelBroadcaster, ProductSuggestionIndex productSuggestionIndex) {
         this.productRepository = productRepository;
+        this.outboxService = outboxService;
+        this.cartSummaryCache = cartSummaryCache;
+        this.stockLevelBroadcaster = stockLevelBroadcaster;
+        this.productSuggestionIndex = productSuggestionIndex;
     }
 
     @Override
     public Product createProduct(Product product) {
         product.setDateCreated(LocalDateTime.now());
         productRepository.save(product);
+        productSuggestionIndex.productSaved(product);
         return product;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Product getProductById(Long id) {
         return productRepository.findById(id).orElseThrow(() -> new NotFoundException("Product with id " + id + " doesn't exist"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
     @Override
     public Product updateProduct(Product product) {
+        Integer previousUnitsInStock = product.getId() != null ? productRepository.findUnitsInStockById(product.getId()).orElse(null) : null;
         product.setLastUpdated(LocalDateTime.now());
-        return productRepository.save(product);
+        cartSummaryCache.clear();
+        Product savedProduct = productRepository.save(product);
+        // restocks and corrections reach the warehouse and analytics as incremental events, like sales do
+        if (previousUnitsInStock != null && previousUnitsInStock != savedProduct.getUnitsInStock()) {
+            outboxService.recordStockChanged(savedProduct, savedProduct.getUnitsInStock() - previousUnitsInStock);
+        }
+        stockLevelBroadcaster.stockChanged(savedProduct.getId(), savedProduct.getUnitsInStock());
+        productSuggestionIndex.productSaved(savedProduct);
+        return savedProduct;
     }
 
     @Override
     public void deleteProductById(Long id) {
+        cartSummaryCache.clear();
         productRepository.deleteById(id);
+        productSuggestionIndex.productDeleted(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Product> getProductsByCategoryId(Long id) {
         return productRepository.findByProductCategoryId(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Product> getProductsByNameOrSku(String nameOrSku) {
         return productRepository.findByNameLikeOrSkuLike(nameOrSku);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> getProductsAfterId(Long afterId, int pageSize) {
+        return productRepository.findPageAfterId(afterId, PageRequest.of(0, pageSize));
+    }
+
     @Override
     public Product decreaseProductQuantity(Long productId, int quantityToDecrease) {
         Product product = getProductById(productId);
@@ -69,6 +104,9 @@ public class ProductServiceImpl implements ProductService {
         }
 
         product.setUnitsInStock(newQuantity);
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        outboxService.recordStockChanged(savedProduct, -quantityToDecrease);
+        stockLevelBroadcaster.stockChanged(savedProduct.getId(), savedProduct.getUnitsInStock());
+        return savedProduct;
     }
 }
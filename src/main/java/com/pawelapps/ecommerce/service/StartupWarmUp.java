@@ -0,0 +1,147 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.entity.ProductCategory;
+import com.pawelapps.ecommerce.search.ProductSuggestionIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Warms a new node up before it takes traffic. Spring Boot reports readiness only after all application
+ * runners returned, so while this runs the node stays out of the load balancer. First the catalog is
+ * loaded from the database in parallel - categories and products into the second-level cache, the
+ * products-by-category query cache and the suggestion index - then the hot catalog endpoints are called
+ * over the local port for {@code rounds} rounds to get MVC, Jackson and Hibernate paths compiled by the JIT.
+ * Failures are logged and never stop the node from starting.
+ */
+@Component
+public class StartupWarmUp implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmUp.class);
+
+    private static final int WARM_UP_CATEGORIES = 5;
+
+    private final ProductService productService;
+    private final ProductCategoryService productCategoryService;
+    private final ProductSuggestionIndex productSuggestionIndex;
+    private final ApplicationContext applicationContext;
+    private final boolean enabled;
+    private final int parallelism;
+    private final int rounds;
+    private final long maxDurationMillis;
+
+    @Autowired
+    public StartupWarmUp(ProductService productService,
+                         ProductCategoryService productCategoryService,
+                         ProductSuggestionIndex productSuggestionIndex,
+                         ApplicationContext applicationContext,
+                         @Value("${ecommerce.warm-up.enabled:false}") boolean enabled,
+                         @Value("${ecommerce.warm-up.parallelism:4}") int parallelism,
+                         @Value("${ecommerce.warm-up.rounds:100}") int rounds,
+                         @Value("${ecommerce.warm-up.max-duration-ms:30000}") long maxDurationMillis) {
+        this.productService = productService;
+        this.productCategoryService = productCategoryService;
+        this.productSuggestionIndex = productSuggestionIndex;
+        this.applicationContext = applicationContext;
+        this.enabled = enabled;
+        this.parallelism = parallelism;
+        this.rounds = rounds;
+        this.maxDurationMillis = maxDurationMillis;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            List<ProductCategory> categories = preloadCatalog();
+            int requests = callHotEndpoints(categories, start + maxDurationMillis);
+            log.info("Warm-up finished in {} ms, {} warm-up requests", System.currentTimeMillis() - start, requests);
+        } catch (RuntimeException e) {
+            log.warn("Warm-up failed after {} ms: {}", System.currentTimeMillis() - start, e.getMessage());
+        }
+    }
+
+    List<ProductCategory> preloadCatalog() {
+        ExecutorService executorService = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture<List<ProductCategory>> categories =
+                    CompletableFuture.supplyAsync(productCategoryService::getAllProductCategories, executorService);
+            List<CompletableFuture<?>> loads = new ArrayList<>();
+            loads.add(categories);
+            loads.add(CompletableFuture.runAsync(productService::getAllProducts, executorService));
+            loads.add(CompletableFuture.runAsync(productSuggestionIndex::rebuild, executorService));
+            loads.add(categories.thenComposeAsync(loaded -> CompletableFuture.allOf(loaded.stream()
+                    .map(category -> CompletableFuture.runAsync(() -> productService.getProductsByCategoryId(category.getId()), executorService))
+                    .toArray(CompletableFuture[]::new)), executorService));
+            CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new)).join();
+            return categories.join();
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private int callHotEndpoints(List<ProductCategory> categories, long deadline) {
+        if (!(applicationContext instanceof WebServerApplicationContext webServerApplicationContext)
+                || webServerApplicationContext.getWebServer() == null) {
+            return 0;
+        }
+        String baseUrl = "http://localhost:" + webServerApplicationContext.getWebServer().getPort() + "/api";
+        List<String> paths = new ArrayList<>(List.of("/product-categories", "/products", "/products/suggestions?q=a"));
+        categories.stream().limit(WARM_UP_CATEGORIES).forEach(category -> {
+            paths.add("/product-categories/" + category.getId());
+            paths.add("/products/products-by-category-id/" + category.getId());
+            if (category.getProducts() != null) {
+                category.getProducts().stream().findFirst().map(Product::getId).ifPresent(id -> paths.add("/products/" + id));
+            }
+        });
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        List<HttpRequest> requests = paths.stream()
+                .map(path -> HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(10)).build())
+                .toList();
+        int sent = 0;
+        for (int round = 0; round < rounds && System.currentTimeMillis() < deadline; round++) {
+            for (HttpRequest request : requests) {
+                try {
+                    HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 500) {
+                        log.debug("Warm-up request {} returned {}", request.uri(), response.statusCode());
+                    }
+                } catch (IOException e) {
+                    log.debug("Warm-up request {} failed: {}", request.uri(), e.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return sent;
+                }
+                sent++;
+            }
+        }
+        return sent;
+    }
+}
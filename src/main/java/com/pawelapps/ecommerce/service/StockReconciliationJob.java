@@ -0,0 +1,342 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.dto.StockDiscrepancyDto;
+import com.pawelapps.ecommerce.dto.StockReconciliationStatusDto;
+import com.pawelapps.ecommerce.entity.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks product.units_in_stock against the units sold in order_item. Orders move units from stock to
+ * sold in one transaction, so stock plus sold stays at the baseline stored in product_stock_baseline
+ * unless a stock update was lost. A product whose stock was set by an administrator since the last check
+ * (last_updated is newer than the baseline) is re-baselined instead of being reported.
+ * <p>
+ * The product id space is split into partitions that are checked in parallel on a fixed pool of
+ * {@code parallelism} threads, and no more than {@code max-partitions-per-second} partitions are started
+ * per second, which together bound the load a run puts on the database. Each partition is one aggregate
+ * query in a read-only transaction; writes only happen for new baselines and repairs.
+ */
+@Component
+public class StockReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReconciliationJob.class);
+
+    private static final String SELECT_PARTITION = "SELECT p.`id`, p.`units_in_stock`, p.`last_updated`, " +
+            "COALESCE(s.`units_sold`, 0) AS `units_sold`, b.`units_in_stock_and_sold`, b.`date_checked` " +
+            "FROM `product` p " +
+            "LEFT JOIN (SELECT `product_id`, SUM(`quantity`) AS `units_sold` FROM `order_item` " +
+            "WHERE `product_id` BETWEEN ? AND ? GROUP BY `product_id`) s ON s.`product_id` = p.`id` " +
+            "LEFT JOIN `product_stock_baseline` b ON b.`product_id` = p.`id` " +
+            "WHERE p.`id` BETWEEN ? AND ?";
+
+    private static final String UPSERT_BASELINE = "INSERT INTO `product_stock_baseline` " +
+            "(`product_id`, `units_in_stock_and_sold`, `date_checked`) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE `units_in_stock_and_sold` = VALUES(`units_in_stock_and_sold`), `date_checked` = VALUES(`date_checked`)";
+
+    // skipped when an administrator changed the stock after the check or the repair would make it negative
+    private static final String REPAIR_STOCK = "UPDATE `product` SET `units_in_stock` = `units_in_stock` - ? " +
+            "WHERE `id` = ? AND `units_in_stock` - ? >= 0 AND (`last_updated` IS NULL OR `last_updated` <= ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final long partitionSize;
+    private final int parallelism;
+    private final int maxPartitionsPerSecond;
+    private final boolean repair;
+    private final int maxReportedDiscrepancies;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Run currentRun;
+    private ExecutorService partitionExecutor;
+    private ExecutorService runExecutor;
+
+    @Autowired
+    public StockReconciliationJob(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  EntityManagerFactory entityManagerFactory,
+                                  @Value("${ecommerce.stock-reconciliation.partition-size:1000}") long partitionSize,
+                                  @Value("${ecommerce.stock-reconciliation.parallelism:2}") int parallelism,
+                                  @Value("${ecommerce.stock-reconciliation.max-partitions-per-second:5}") int maxPartitionsPerSecond,
+                                  @Value("${ecommerce.stock-reconciliation.repair:false}") boolean repair,
+                                  @Value("${ecommerce.stock-reconciliation.max-reported-discrepancies:1000}") int maxReportedDiscrepancies) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.entityManagerFactory = entityManagerFactory;
+        this.partitionSize = partitionSize;
+        this.parallelism = parallelism;
+        this.maxPartitionsPerSecond = maxPartitionsPerSecond;
+        this.repair = repair;
+        this.maxReportedDiscrepancies = maxReportedDiscrepancies;
+    }
+
+    @PostConstruct
+    public void start() {
+        partitionExecutor = Executors.newFixedThreadPool(parallelism, daemonThreads("stock-reconciliation"));
+        runExecutor = Executors.newSingleThreadExecutor(daemonThreads("stock-reconciliation-run"));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        runExecutor.shutdownNow();
+        partitionExecutor.shutdownNow();
+        partitionExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Scheduled(cron = "${ecommerce.stock-reconciliation.cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        // a run sleeps and waits for partitions, keep it off the scheduler threads
+        startReconcile();
+    }
+
+    /**
+     * Starts a run in the background.
+     *
+     * @return false when a run is already in progress
+     */
+    public boolean startReconcile() {
+        if (running.get()) {
+            return false;
+        }
+        runExecutor.submit(this::reconcile);
+        return true;
+    }
+
+    public StockReconciliationStatusDto getStatus() {
+        Run run = currentRun;
+        return run != null ? run.toStatusDto(running.get()) : StockReconciliationStatusDto.builder().discrepancies(List.of()).build();
+    }
+
+    void reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<long[]> partitions = partitions();
+            Run run = new Run(partitions.size());
+            currentRun = run;
+            log.info("Stock reconciliation started, {} partitions", partitions.size());
+
+            List<Future<?>> futures = new ArrayList<>(partitions.size());
+            long nextPartitionAt = System.nanoTime();
+            for (long[] partition : partitions) {
+                nextPartitionAt = awaitLoadBudget(nextPartitionAt);
+                futures.add(partitionExecutor.submit(() -> {
+                    try {
+                        run.add(reconcilePartition(partition[0], partition[1], repair));
+                    } catch (RuntimeException e) {
+                        run.partitionsFailed.incrementAndGet();
+                        log.warn("Stock reconciliation of products {}-{} failed: {}", partition[0], partition[1], e.getMessage());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            run.finish();
+            log.info("Stock reconciliation finished in {} ms: {} products checked, {} discrepancies, {} repaired, {} partitions failed",
+                    run.durationMillis(), run.productsChecked.get(), run.discrepancyCount.get(), run.repairedCount.get(), run.partitionsFailed.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            log.error("Stock reconciliation failed", e);
+        } finally {
+            if (currentRun != null) {
+                currentRun.finish();
+            }
+            running.set(false);
+        }
+    }
+
+    private List<long[]> partitions() {
+        long[] idRange = readOnlyTransactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+                "SELECT MIN(`id`), MAX(`id`) FROM `product`",
+                (resultSet, rowNumber) -> new long[]{resultSet.getLong(1), resultSet.getLong(2)}));
+        if (idRange == null || idRange[1] == 0) {
+            return List.of();
+        }
+        List<long[]> partitions = new ArrayList<>();
+        for (long fromId = idRange[0]; fromId <= idRange[1]; fromId += partitionSize) {
+            partitions.add(new long[]{fromId, Math.min(fromId + partitionSize - 1, idRange[1])});
+        }
+        return partitions;
+    }
+
+    /**
+     * @return when the next partition may start
+     */
+    private long awaitLoadBudget(long nextPartitionAt) throws InterruptedException {
+        if (maxPartitionsPerSecond <= 0) {
+            return nextPartitionAt;
+        }
+        long wait = nextPartitionAt - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        return Math.max(nextPartitionAt, System.nanoTime()) + TimeUnit.SECONDS.toNanos(1) / maxPartitionsPerSecond;
+    }
+
+    PartitionResult reconcilePartition(long fromId, long toId, boolean repair) {
+        LocalDateTime checkedAt = LocalDateTime.now();
+        List<StockRow> stockRows = readOnlyTransactionTemplate.execute(status -> jdbcTemplate.query(SELECT_PARTITION,
+                (resultSet, rowNumber) -> {
+                    Timestamp lastUpdated = resultSet.getTimestamp("last_updated");
+                    Timestamp dateChecked = resultSet.getTimestamp("date_checked");
+                    long baseline = resultSet.getLong("units_in_stock_and_sold");
+                    boolean hasBaseline = !resultSet.wasNull();
+                    return new StockRow(resultSet.getLong("id"),
+                            resultSet.getInt("units_in_stock"),
+                            resultSet.getLong("units_sold"),
+                            hasBaseline ? baseline : null,
+                            lastUpdated != null ? lastUpdated.toLocalDateTime() : null,
+                            dateChecked != null ? dateChecked.toLocalDateTime() : null);
+                },
+                fromId, toId, fromId, toId));
+
+        List<StockRow> newBaselines = new ArrayList<>();
+        List<StockRow> drifted = new ArrayList<>();
+        for (StockRow stockRow : stockRows) {
+            if (stockRow.baseline() == null
+                    || (stockRow.lastUpdated() != null && stockRow.lastUpdated().isAfter(stockRow.dateChecked()))) {
+                newBaselines.add(stockRow);
+            } else if (stockRow.drift() != 0) {
+                drifted.add(stockRow);
+            }
+        }
+
+        List<StockDiscrepancyDto> discrepancies = new ArrayList<>(drifted.size());
+        if (!newBaselines.isEmpty() || (repair && !drifted.isEmpty())) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Timestamp timestamp = Timestamp.valueOf(checkedAt);
+                jdbcTemplate.batchUpdate(UPSERT_BASELINE, newBaselines, newBaselines.size(), (statement, stockRow) -> {
+                    statement.setLong(1, stockRow.productId());
+                    statement.setLong(2, stockRow.unitsInStock() + stockRow.unitsSold());
+                    statement.setTimestamp(3, timestamp);
+                });
+                for (StockRow stockRow : drifted) {
+                    boolean repaired = repair && jdbcTemplate.update(REPAIR_STOCK,
+                            stockRow.drift(), stockRow.productId(), stockRow.drift(), timestamp) == 1;
+                    discrepancies.add(stockRow.toDiscrepancyDto(repaired));
+                }
+            });
+        } else {
+            drifted.forEach(stockRow -> discrepancies.add(stockRow.toDiscrepancyDto(false)));
+        }
+
+        discrepancies.stream()
+                .filter(StockDiscrepancyDto::repaired)
+                .forEach(discrepancy -> entityManagerFactory.getCache().evict(Product.class, discrepancy.productId()));
+        return new PartitionResult(stockRows.size(), discrepancies);
+    }
+
+    record PartitionResult(int productsChecked, List<StockDiscrepancyDto> discrepancies) {
+    }
+
+    private record StockRow(long productId, int unitsInStock, long unitsSold, Long baseline,
+                            LocalDateTime lastUpdated, LocalDateTime dateChecked) {
+
+        /**
+         * @return how many units too many are in stock
+         */
+        long drift() {
+            return unitsInStock + unitsSold - baseline;
+        }
+
+        StockDiscrepancyDto toDiscrepancyDto(boolean repaired) {
+            return new StockDiscrepancyDto(productId, unitsInStock, unitsInStock - drift(), repaired);
+        }
+    }
+
+    private class Run {
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedAtNanos = System.nanoTime();
+        private final int partitionsTotal;
+        private final AtomicInteger partitionsDone = new AtomicInteger();
+        private final AtomicInteger partitionsFailed = new AtomicInteger();
+        private final AtomicLong productsChecked = new AtomicLong();
+        private final AtomicLong discrepancyCount = new AtomicLong();
+        private final AtomicLong repairedCount = new AtomicLong();
+        private final List<StockDiscrepancyDto> discrepancies = Collections.synchronizedList(new ArrayList<>());
+        private volatile LocalDateTime finishedAt;
+        private volatile long finishedAtNanos;
+
+        Run(int partitionsTotal) {
+            this.partitionsTotal = partitionsTotal;
+        }
+
+        void add(PartitionResult partitionResult) {
+            productsChecked.addAndGet(partitionResult.productsChecked());
+            discrepancyCount.addAndGet(partitionResult.discrepancies().size());
+            for (StockDiscrepancyDto discrepancy : partitionResult.discrepancies()) {
+                if (discrepancy.repaired()) {
+                    repairedCount.incrementAndGet();
+                }
+                if (discrepancies.size() < maxReportedDiscrepancies) {
+                    discrepancies.add(discrepancy);
+                }
+            }
+            partitionsDone.incrementAndGet();
+        }
+
+        void finish() {
+            if (finishedAt == null) {
+                finishedAtNanos = System.nanoTime();
+                finishedAt = LocalDateTime.now();
+            }
+        }
+
+        long durationMillis() {
+            long endNanos = finishedAt != null ? finishedAtNanos : System.nanoTime();
+            return Duration.ofNanos(endNanos - startedAtNanos).toMillis();
+        }
+
+        StockReconciliationStatusDto toStatusDto(boolean running) {
+            return StockReconciliationStatusDto.builder()
+                    .running(running)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .durationMillis(durationMillis())
+                    .partitionsTotal(partitionsTotal)
+                    .partitionsDone(partitionsDone.get())
+                    .partitionsFailed(partitionsFailed.get())
+                    .productsChecked(productsChecked.get())
+                    .discrepancyCount(discrepancyCount.get())
+                    .repairedCount(repairedCount.get())
+                    .discrepancies(List.copyOf(discrepancies))
+                    .build();
+        }
+    }
+}
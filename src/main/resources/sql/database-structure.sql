@@ -25,8 +25,10 @@ DROP TABLE IF EXISTS `cart`;
 CREATE TABLE `cart` (
   `id` bigint NOT NULL AUTO_INCREMENT,
   `user_id` bigint DEFAULT NULL,
+  `last_touched` datetime NOT NULL,
   PRIMARY KEY (`id`),
   KEY `user_id` (`user_id`),
+  KEY `last_touched` (`last_touched`),
   CONSTRAINT `cart_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=24 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -48,7 +50,7 @@ CREATE TABLE `cart_product` (
   `image_url` varchar(255) DEFAULT NULL,
   `cart_id` bigint DEFAULT NULL,
   PRIMARY KEY (`PK_cart_product_id`),
-  KEY `cart_id` (`cart_id`),
+  UNIQUE KEY `cart_product` (`cart_id`,`product_id`),
   CONSTRAINT `cart_product_ibfk_1` FOREIGN KEY (`cart_id`) REFERENCES `cart` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=51 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -70,6 +72,43 @@ CREATE TABLE `customer` (
 ) ENGINE=InnoDB AUTO_INCREMENT=51 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `order_archive`
+--
+
+DROP TABLE IF EXISTS `order_archive`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `order_archive` (
+  `order_id` bigint NOT NULL,
+  `user_id` bigint DEFAULT NULL,
+  `customer_email` varchar(255) DEFAULT NULL,
+  `date_created` datetime(6) NOT NULL,
+  `payload` longblob NOT NULL,
+  `date_archived` datetime DEFAULT NULL,
+  PRIMARY KEY (`order_id`),
+  KEY `user_id_date_created` (`user_id`,`date_created`),
+  KEY `customer_email_date_created` (`customer_email`,`date_created`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `order_daily_rollup`
+--
+
+DROP TABLE IF EXISTS `order_daily_rollup`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `order_daily_rollup` (
+  `order_date` date NOT NULL,
+  `order_count` bigint NOT NULL,
+  `units` bigint NOT NULL,
+  `revenue_cents` bigint NOT NULL,
+  `shipping_cents` bigint NOT NULL,
+  PRIMARY KEY (`order_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `order_item`
 --
@@ -88,10 +127,50 @@ CREATE TABLE `order_item` (
   `order_id` bigint DEFAULT NULL,
   PRIMARY KEY (`id`),
   KEY `order_id` (`order_id`),
+  KEY `product_id` (`product_id`),
   CONSTRAINT `order_item_ibfk_1` FOREIGN KEY (`order_id`) REFERENCES `orders` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=66 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `order_request`
+--
+
+DROP TABLE IF EXISTS `order_request`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `order_request` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `idempotency_key` varchar(255) NOT NULL,
+  `user_email` varchar(255) DEFAULT NULL,
+  `status` varchar(255) DEFAULT NULL,
+  `order_id` bigint DEFAULT NULL,
+  `failure_reason` varchar(255) DEFAULT NULL,
+  `payload` longtext,
+  `date_created` datetime(6) DEFAULT NULL,
+  `last_updated` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `idempotency_key` (`idempotency_key`),
+  KEY `status` (`status`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `order_snapshot`
+--
+
+DROP TABLE IF EXISTS `order_snapshot`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `order_snapshot` (
+  `order_id` bigint NOT NULL,
+  `payload` longtext,
+  `date_created` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`order_id`),
+  CONSTRAINT `order_snapshot_ibfk_1` FOREIGN KEY (`order_id`) REFERENCES `orders` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `orders`
 --
@@ -105,14 +184,14 @@ CREATE TABLE `orders` (
   `customer_id` bigint DEFAULT NULL,
   `shipping_address_id` bigint DEFAULT NULL,
   `status` varchar(255) DEFAULT NULL,
-  `date_created` datetime DEFAULT NULL,
+  `date_created` datetime(6) NOT NULL,
   `last_updated` datetime DEFAULT NULL,
   `user_id` bigint DEFAULT NULL,
   PRIMARY KEY (`id`),
   KEY `customer_id` (`customer_id`),
   KEY `shipping_address_id` (`shipping_address_id`),
   KEY `summary_id` (`summary_id`),
-  KEY `user_id` (`user_id`),
+  KEY `user_id_date_created` (`user_id`,`date_created`),
   CONSTRAINT `orders_ibfk_1` FOREIGN KEY (`customer_id`) REFERENCES `customer` (`id`),
   CONSTRAINT `orders_ibfk_2` FOREIGN KEY (`shipping_address_id`) REFERENCES `shipping_address` (`id`),
   CONSTRAINT `orders_ibfk_3` FOREIGN KEY (`summary_id`) REFERENCES `summary` (`id`),
@@ -120,6 +199,25 @@ CREATE TABLE `orders` (
 ) ENGINE=InnoDB AUTO_INCREMENT=51 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `outbox_event`
+--
+
+DROP TABLE IF EXISTS `outbox_event`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `outbox_event` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `event_type` varchar(255) DEFAULT NULL,
+  `aggregate_id` bigint DEFAULT NULL,
+  `payload` longtext,
+  `date_created` datetime(6) DEFAULT NULL,
+  `date_published` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `date_published` (`date_published`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `product`
 --
@@ -140,11 +238,30 @@ CREATE TABLE `product` (
   `last_updated` datetime(6) DEFAULT NULL,
   `category_id` bigint NOT NULL,
   PRIMARY KEY (`id`),
+  UNIQUE KEY `sku` (`sku`),
   KEY `fk_category` (`category_id`),
   CONSTRAINT `fk_category` FOREIGN KEY (`category_id`) REFERENCES `product_category` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=67 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `product_daily_rollup`
+--
+
+DROP TABLE IF EXISTS `product_daily_rollup`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `product_daily_rollup` (
+  `order_date` date NOT NULL,
+  `product_id` bigint NOT NULL,
+  `product_category_id` bigint DEFAULT NULL,
+  `units` bigint NOT NULL,
+  `revenue_cents` bigint NOT NULL,
+  PRIMARY KEY (`order_date`,`product_id`),
+  KEY `order_date_product_category_id` (`order_date`,`product_category_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `product_category`
 --
@@ -159,6 +276,22 @@ CREATE TABLE `product_category` (
 ) ENGINE=InnoDB AUTO_INCREMENT=29 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `product_stock_baseline`
+--
+
+DROP TABLE IF EXISTS `product_stock_baseline`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `product_stock_baseline` (
+  `product_id` bigint NOT NULL,
+  `units_in_stock_and_sold` bigint NOT NULL,
+  `date_checked` datetime(6) NOT NULL,
+  PRIMARY KEY (`product_id`),
+  CONSTRAINT `product_stock_baseline_ibfk_1` FOREIGN KEY (`product_id`) REFERENCES `product` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `shipping_address`
 --
@@ -202,7 +335,8 @@ DROP TABLE IF EXISTS `user`;
 CREATE TABLE `user` (
   `id` bigint NOT NULL AUTO_INCREMENT,
   `email` varchar(255) DEFAULT NULL,
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `email` (`email`)
 ) ENGINE=InnoDB AUTO_INCREMENT=32 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 /*!40103 SET TIME_ZONE=@OLD_TIME_ZONE */;
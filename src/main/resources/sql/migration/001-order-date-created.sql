@@ -0,0 +1,8 @@
+-- Order history is paged by (date_created, id) per user. Orders placed before date_created was
+-- written get their last update time, or the migration time when they were never updated.
+UPDATE `orders` SET `date_created` = COALESCE(`last_updated`, NOW(6)) WHERE `date_created` IS NULL;
+
+ALTER TABLE `orders`
+  MODIFY `date_created` datetime(6) NOT NULL,
+  ADD KEY `user_id_date_created` (`user_id`,`date_created`),
+  DROP KEY `user_id`;
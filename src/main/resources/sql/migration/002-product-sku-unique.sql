@@ -0,0 +1,3 @@
+-- Catalog imports upsert products by sku. Duplicate skus have to be resolved before this runs.
+ALTER TABLE `product`
+  ADD UNIQUE KEY `sku` (`sku`);
@@ -0,0 +1,3 @@
+-- Stock reconciliation sums order_item quantities per product id range.
+ALTER TABLE `order_item`
+  ADD KEY `product_id` (`product_id`);
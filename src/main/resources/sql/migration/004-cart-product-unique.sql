@@ -0,0 +1,18 @@
+-- Add-to-cart upserts on (cart_id, product_id). Duplicate lines are merged into the oldest line of each
+-- cart and product first. The unique key also backs the cart_id foreign key, so the old cart_id key goes.
+UPDATE `cart_product` `kept`
+  JOIN (SELECT `cart_id`, `product_id`, MIN(`PK_cart_product_id`) AS `kept_id`, SUM(`quantity`) AS `quantity`
+        FROM `cart_product`
+        WHERE `cart_id` IS NOT NULL AND `product_id` IS NOT NULL
+        GROUP BY `cart_id`, `product_id`
+        HAVING COUNT(*) > 1) `merged` ON `merged`.`kept_id` = `kept`.`PK_cart_product_id`
+  SET `kept`.`quantity` = `merged`.`quantity`;
+
+DELETE `duplicate` FROM `cart_product` `duplicate`
+  JOIN `cart_product` `kept` ON `kept`.`cart_id` = `duplicate`.`cart_id`
+                            AND `kept`.`product_id` = `duplicate`.`product_id`
+                            AND `kept`.`PK_cart_product_id` < `duplicate`.`PK_cart_product_id`;
+
+ALTER TABLE `cart_product`
+  ADD UNIQUE KEY `cart_product` (`cart_id`, `product_id`),
+  DROP KEY `cart_id`;
@@ -0,0 +1,9 @@
+-- Carts expire a configurable time after they were last touched. Existing carts start their TTL now.
+ALTER TABLE `cart`
+  ADD COLUMN `last_touched` datetime DEFAULT NULL;
+
+UPDATE `cart` SET `last_touched` = NOW();
+
+ALTER TABLE `cart`
+  MODIFY `last_touched` datetime NOT NULL,
+  ADD KEY `last_touched` (`last_touched`);
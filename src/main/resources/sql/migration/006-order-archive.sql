@@ -0,0 +1,12 @@
+-- Orders older than ecommerce.order-archive.min-age-days are moved here by OrderArchiveJob, one gzipped OrderDto per row.
+CREATE TABLE `order_archive` (
+  `order_id` bigint NOT NULL,
+  `user_id` bigint DEFAULT NULL,
+  `customer_email` varchar(255) DEFAULT NULL,
+  `date_created` datetime(6) NOT NULL,
+  `payload` longblob NOT NULL,
+  `date_archived` datetime DEFAULT NULL,
+  PRIMARY KEY (`order_id`),
+  KEY `user_id_date_created` (`user_id`,`date_created`),
+  KEY `customer_email_date_created` (`customer_email`,`date_created`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,20 @@
+-- Order analytics read per-day rollups that checkout keeps up to date. Past days are filled in
+-- afterwards with POST /api/analytics/rebuild.
+CREATE TABLE `order_daily_rollup` (
+  `order_date` date NOT NULL,
+  `order_count` bigint NOT NULL,
+  `units` bigint NOT NULL,
+  `revenue_cents` bigint NOT NULL,
+  `shipping_cents` bigint NOT NULL,
+  PRIMARY KEY (`order_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `product_daily_rollup` (
+  `order_date` date NOT NULL,
+  `product_id` bigint NOT NULL,
+  `product_category_id` bigint DEFAULT NULL,
+  `units` bigint NOT NULL,
+  `revenue_cents` bigint NOT NULL,
+  PRIMARY KEY (`order_date`,`product_id`),
+  KEY `order_date_product_category_id` (`order_date`,`product_category_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
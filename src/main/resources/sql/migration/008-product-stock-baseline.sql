@@ -0,0 +1,9 @@
+-- Stock reconciliation keeps units in stock plus units sold per product here. Products start without a
+-- row and are baselined on the next reconciliation run.
+CREATE TABLE `product_stock_baseline` (
+  `product_id` bigint NOT NULL,
+  `units_in_stock_and_sold` bigint NOT NULL,
+  `date_checked` datetime(6) NOT NULL,
+  PRIMARY KEY (`product_id`),
+  CONSTRAINT `product_stock_baseline_ibfk_1` FOREIGN KEY (`product_id`) REFERENCES `product` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
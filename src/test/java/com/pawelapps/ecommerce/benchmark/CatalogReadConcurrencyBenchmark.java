@@ -0,0 +1,100 @@
+package com.pawelapps.ecommerce.benchmark;
+
+import com.pawelapps.ecommerce.ECommerceAppApplication;
+import com.pawelapps.ecommerce.datasource.StatementListener;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Product listing throughput of the blocking MVC endpoint against its asynchronous variant under 32
+ * concurrent clients, on an embedded Tomcat capped at four request threads. Every statement is held for
+ * {@code latencyMillis} on its connection to stand in for a MySQL round trip, since the application runs
+ * on in-memory H2 here. The blocking stack serves at most four listings at a time; the asynchronous one
+ * is bounded by the catalog read pool and the connection pool instead. Run like {@link MappingBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class CatalogReadConcurrencyBenchmark {
+
+    @Param({"/api/products", "/api/products/async"})
+    private String endpoint;
+
+    @Param({"50"})
+    private int latencyMillis;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        StatementListener simulatedLatency = (sql, method, elapsedNanos) -> LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        context = new SpringApplicationBuilder(ECommerceAppApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=4",
+                        "server.tomcat.threads.min-spare=4",
+                        "ecommerce.catalog-read.pool-size=16",
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "spring.datasource.url=jdbc:h2:mem:catalog-benchmark;MODE=MYSQL;DATABASE_TO_LOWER=TRUE",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+                        "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true",
+                        "spring.security.oauth2.resourceserver.jwt.jwk-set-uri=http://localhost:9/jwks",
+                        "okta.oauth2.issuer=https://localhost/oauth2/default",
+                        "ecommerce.outbox.sink=memory",
+                        "logging.level.root=WARN")
+                .initializers(applicationContext -> applicationContext.getBeanFactory().registerSingleton("simulatedLatency", simulatedLatency))
+                .run();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO `product_category` (`id`, `category_name`) VALUES (1, 'Benchmark')");
+        for (int i = 1; i <= 20; i++) {
+            jdbcTemplate.update("INSERT INTO `product` (`sku`, `name`, `unit_price`, `active`, `units_in_stock`, `category_id`) VALUES (?, ?, 10.00, TRUE, 100, 1)",
+                    "sku-" + i, "Product " + i);
+        }
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + endpoint)).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listProducts() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CatalogReadConcurrencyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
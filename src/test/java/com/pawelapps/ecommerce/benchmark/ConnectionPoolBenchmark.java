@@ -0,0 +1,87 @@
+package com.pawelapps.ecommerce.benchmark;
+
+import com.pawelapps.ecommerce.datasource.ConnectionPoolMetrics;
+import com.pawelapps.ecommerce.datasource.SlowQueryLog;
+import com.pawelapps.ecommerce.datasource.StatementTimingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eight threads borrowing a connection from a pool smaller than the thread count and running one
+ * prepared query, with the production profile's pool metrics and slow query log against a bare pool.
+ * Runs on in-memory H2, so it measures the pool and the instrumentation overhead rather than MySQL. Run
+ * like {@link MappingBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ConnectionPoolBenchmark {
+
+    @Param({"none", "metrics", "metrics-and-slow-query-log"})
+    private String instrumentation;
+
+    private HikariDataSource hikariDataSource;
+    private SlowQueryLog slowQueryLog;
+    private DataSource dataSource;
+
+    @Setup
+    public void setUp() throws SQLException {
+        hikariDataSource = new HikariDataSource();
+        hikariDataSource.setJdbcUrl("jdbc:h2:mem:pool-benchmark;DB_CLOSE_DELAY=-1");
+        hikariDataSource.setMaximumPoolSize(4);
+        hikariDataSource.setMinimumIdle(4);
+        if (!instrumentation.equals("none")) {
+            new ConnectionPoolMetrics().postProcessBeforeInitialization(hikariDataSource, "dataSource");
+        }
+        dataSource = hikariDataSource;
+        if (instrumentation.equals("metrics-and-slow-query-log")) {
+            slowQueryLog = new SlowQueryLog(200, 0.1, 1000);
+            dataSource = new StatementTimingDataSource(hikariDataSource, List.of(slowQueryLog));
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("CREATE TABLE IF NOT EXISTS product (id BIGINT PRIMARY KEY, units_in_stock INT)");
+            connection.createStatement().execute("MERGE INTO product KEY (id) VALUES (1, 10)");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (slowQueryLog != null) {
+            slowQueryLog.close();
+        }
+        hikariDataSource.close();
+    }
+
+    @Benchmark
+    public int borrowAndQuery() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT units_in_stock FROM product WHERE id = ?")) {
+            statement.setLong(1, 1);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConnectionPoolBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
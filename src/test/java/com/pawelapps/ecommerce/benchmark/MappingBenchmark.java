@@ -0,0 +1,112 @@
+package com.pawelapps.ecommerce.benchmark;
+
+import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.entity.*;
+import com.pawelapps.ecommerce.mapper.OrderMapper;
+import com.pawelapps.ecommerce.mapper.OrderMapperImpl;
+import com.pawelapps.ecommerce.mapper.ProductMapperImpl;
+import com.pawelapps.ecommerce.mapper.UserMapperImpl;
+import lombok.Getter;
+import lombok.Setter;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order -> DTO mapping cost of the generated mapper against the approaches it replaced: the reflective
+ * ModelMapper bean and the hand-written copy of entity references into the old mutable OrderDto.
+ * <p>
+ * Run after {@code mvn test-compile} with
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.pawelapps.ecommerce.benchmark.MappingBenchmark
+ * </pre>
+ * The gc profiler adds gc.alloc.rate.norm, the bytes allocated per mapped order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({"1", "10"})
+    private int orderProducts;
+
+    private Order order;
+    private OrderMapper orderMapper;
+    private ModelMapper modelMapper;
+
+    @Setup
+    public void setUp() {
+        ProductCategory productCategory = ProductCategory.builder().id(1L).categoryName("Mugs").build();
+        order = Order.builder()
+                .id(1L)
+                .user(User.builder().id(1L).email("user@email.com").build())
+                .customer(Customer.builder().id(1L).firstName("John").lastName("Smith").email("john@email.com").build())
+                .shippingAddress(ShippingAddress.builder().id(1L).city("City").country("Country").build())
+                .summary(Summary.builder().id(1L).totalCartValue(BigDecimal.TEN).totalQuantityOfProducts(orderProducts).build())
+                .build();
+        for (long i = 0; i < orderProducts; i++) {
+            Product product = Product.builder().id(i).sku("SKU-" + i).name("Mug " + i).unitPrice(BigDecimal.ONE)
+                    .unitsInStock(10).productCategory(productCategory).build();
+            order.addOrderProduct(OrderProduct.builder().id(i).product(product).name(product.getName())
+                    .unitPrice(product.getUnitPrice()).quantity(1).build());
+        }
+
+        orderMapper = new OrderMapperImpl(new ProductMapperImpl(), new UserMapperImpl());
+        modelMapper = new ModelMapper();
+    }
+
+    @Benchmark
+    public OrderDto generatedMapper() {
+        return orderMapper.toOrderDto(order);
+    }
+
+    @Benchmark
+    public LegacyOrderDto modelMapper() {
+        return modelMapper.map(order, LegacyOrderDto.class);
+    }
+
+    @Benchmark
+    public LegacyOrderDto handWritten() {
+        LegacyOrderDto orderDto = new LegacyOrderDto();
+        orderDto.setId(order.getId());
+        orderDto.setCustomer(order.getCustomer());
+        orderDto.setShippingAddress(order.getShippingAddress());
+        orderDto.setSummary(order.getSummary());
+        orderDto.setUser(order.getUser());
+        order.getOrderProducts().forEach(orderDto.getOrderProducts()::add);
+        return orderDto;
+    }
+
+    /**
+     * Shape of OrderDto before the generated mappers: a mutable bean holding entity references.
+     */
+    @Getter
+    @Setter
+    public static class LegacyOrderDto {
+        private Long id;
+        private Customer customer;
+        private ShippingAddress shippingAddress;
+        private Summary summary;
+        private User user;
+        private List<OrderProduct> orderProducts = new ArrayList<>();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
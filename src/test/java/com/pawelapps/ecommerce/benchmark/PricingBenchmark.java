@@ -0,0 +1,66 @@
+package com.pawelapps.ecommerce.benchmark;
+
+import com.pawelapps.ecommerce.entity.CartProduct;
+import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.pricing.OrderTotals;
+import com.pawelapps.ecommerce.pricing.PricingEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart pricing with {@link PricingEngine} (cents summed as longs) against the straightforward BigDecimal
+ * multiply and add per line. Run like {@link MappingBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingBenchmark {
+
+    @Param({"5", "50"})
+    private int cartProducts;
+
+    private List<CartProduct> cart;
+    private PricingEngine pricingEngine;
+
+    @Setup
+    public void setUp() {
+        cart = new ArrayList<>(cartProducts);
+        for (long i = 0; i < cartProducts; i++) {
+            Product product = Product.builder().id(i).unitPrice(BigDecimal.valueOf(199 + i * 37, 2)).build();
+            cart.add(CartProduct.builder().product(product).quantity(1 + (int) (i % 4)).build());
+        }
+        pricingEngine = new PricingEngine(new BigDecimal("9.99"), new BigDecimal("100"));
+    }
+
+    @Benchmark
+    public OrderTotals pricingEngine() {
+        return pricingEngine.priceCart(cart);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal totalCartValue = BigDecimal.ZERO;
+        for (CartProduct cartProduct : cart) {
+            totalCartValue = totalCartValue.add(cartProduct.getProduct().getUnitPrice().multiply(BigDecimal.valueOf(cartProduct.getQuantity())));
+        }
+        return totalCartValue;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PricingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
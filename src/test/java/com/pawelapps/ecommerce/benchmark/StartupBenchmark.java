@@ -0,0 +1,80 @@
+package com.pawelapps.ecommerce.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request: starts the application command given as arguments {@code runs} times and
+ * measures from process start until {@code GET /api/product-categories} first answers 200. Every run uses
+ * the in-memory H2 settings of the {@code cds-training} profile without exiting or warming up. JMH is not
+ * used because every sample needs a fresh JVM. Compare the fat jar with the layout of the Dockerfile, run
+ * in a directory prepared like its builder and training steps:
+ * <pre>
+ * java -cp target/test-classes com.pawelapps.ecommerce.benchmark.StartupBenchmark 5 java -jar app.jar
+ * java -cp target/test-classes com.pawelapps.ecommerce.benchmark.StartupBenchmark 5 \
+ *     java -XX:SharedArchiveFile=application.jsa -cp 'application.jar:BOOT-INF/lib/*' com.pawelapps.ecommerce.ECommerceAppApplication
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: StartupBenchmark <runs> <command...>");
+            System.exit(1);
+        }
+        int runs = Integer.parseInt(args[0]);
+        List<String> command = Arrays.asList(args).subList(1, args.length);
+
+        long[] millis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            millis[run] = timeToFirstRequest(command);
+            System.out.printf("run %d: %d ms%n", run + 1, millis[run]);
+        }
+        Arrays.sort(millis);
+        System.out.printf("time to first request: median %d ms, min %d ms, max %d ms%n", millis[runs / 2], millis[0], millis[runs - 1]);
+    }
+
+    private static long timeToFirstRequest(List<String> command) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(command);
+        arguments.addAll(List.of("--spring.profiles.active=cds-training", "--ecommerce.startup.exit-when-ready=false",
+                "--ecommerce.warm-up.enabled=false", "--server.port=" + port));
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(500)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/product-categories")).build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(arguments).redirectErrorStream(true).redirectOutput(new File(System.getProperty("java.io.tmpdir"), "startup-benchmark.log")).start();
+        try {
+            while (process.isAlive()) {
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(20);
+            }
+            throw new IllegalStateException("Application exited with " + process.exitValue() + ", see startup-benchmark.log in the temp directory");
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+}
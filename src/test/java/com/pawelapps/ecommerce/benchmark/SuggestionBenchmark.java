@@ -0,0 +1,81 @@
+package com.pawelapps.ecommerce.benchmark;
+
+import com.pawelapps.ecommerce.dto.ProductSuggestionDto;
+import com.pawelapps.ecommerce.search.ProductSuggestionIndex;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead lookups against an index of 100,000 products with generated two and three word names, for
+ * prefixes of one to six characters. Run like {@link MappingBenchmark}; gc.alloc.rate.norm is the
+ * allocation per lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SuggestionBenchmark {
+
+    private static final String[] WORDS = {"blue", "black", "cup", "mug", "plate", "bowl", "glass", "steel", "ceramic",
+            "travel", "coffee", "tea", "espresso", "bamboo", "holder", "set", "large", "small", "matte", "classic"};
+
+    private ProductSuggestionIndex productSuggestionIndex;
+    private String[] prefixes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:suggestion-benchmark;MODE=MYSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS `product` (`id` BIGINT PRIMARY KEY, `name` VARCHAR(255), `sku` VARCHAR(255), `active` BOOLEAN)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS `order_item` (`id` BIGINT AUTO_INCREMENT PRIMARY KEY, `product_id` BIGINT)");
+
+        Random random = new Random(42);
+        List<Object[]> products = new ArrayList<>();
+        List<Object[]> orderItems = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + (random.nextBoolean() ? " " + WORDS[random.nextInt(WORDS.length)] : "") + " " + id;
+            products.add(new Object[]{id, name, "SKU-" + id, true});
+            for (int i = random.nextInt(3); i > 0; i--) {
+                orderItems.add(new Object[]{id});
+            }
+        }
+        jdbcTemplate.batchUpdate("MERGE INTO `product` KEY (`id`) VALUES (?, ?, ?, ?)", products);
+        jdbcTemplate.batchUpdate("INSERT INTO `order_item` (`product_id`) VALUES (?)", orderItems);
+
+        productSuggestionIndex = new ProductSuggestionIndex(jdbcTemplate, 10);
+        productSuggestionIndex.rebuild();
+
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            prefixes[i] = word.substring(0, 1 + random.nextInt(Math.min(6, word.length())));
+        }
+    }
+
+    @Benchmark
+    public List<ProductSuggestionDto> suggest() {
+        return productSuggestionIndex.suggest(prefixes[next++ & (prefixes.length - 1)], 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SuggestionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
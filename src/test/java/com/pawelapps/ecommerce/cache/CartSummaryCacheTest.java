@@ -0,0 +1,54 @@
+package com.pawelapps.ecommerce.cache;
+
+import com.pawelapps.ecommerce.dto.SummaryDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CartSummaryCacheTest {
+
+    private final CartSummaryCache cartSummaryCache = new CartSummaryCache(100);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Supplier<SummaryDto> loader = () -> SummaryDto.builder()
+            .totalCartValue(BigDecimal.valueOf(loads.incrementAndGet()))
+            .build();
+
+    @Test
+    void shouldLoadSummaryOncePerCart() {
+        SummaryDto first = cartSummaryCache.get(1L, loader);
+        SummaryDto second = cartSummaryCache.get(1L, loader);
+        cartSummaryCache.get(2L, loader);
+
+        assertSame(first, second);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldReloadEvictedCartOnly() {
+        cartSummaryCache.get(1L, loader);
+        cartSummaryCache.get(2L, loader);
+
+        cartSummaryCache.evict(1L);
+        cartSummaryCache.get(1L, loader);
+        cartSummaryCache.get(2L, loader);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void shouldReloadAllCartsAfterClear() {
+        cartSummaryCache.get(1L, loader);
+        cartSummaryCache.get(2L, loader);
+
+        cartSummaryCache.clear();
+        cartSummaryCache.get(1L, loader);
+        cartSummaryCache.get(2L, loader);
+
+        assertEquals(4, loads.get());
+    }
+}
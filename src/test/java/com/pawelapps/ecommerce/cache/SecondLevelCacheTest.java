@@ -0,0 +1,98 @@
+package com.pawelapps.ecommerce.cache;
+
+import com.pawelapps.ecommerce.dao.ProductCategoryRepository;
+import com.pawelapps.ecommerce.dao.ProductRepository;
+import com.pawelapps.ecommerce.dto.CacheRegionStatisticsDto;
+import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.entity.ProductCategory;
+import com.pawelapps.ecommerce.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCategoryRepository productCategoryRepository;
+
+    @Autowired
+    private SecondLevelCacheStatistics secondLevelCacheStatistics;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ProductCategory productCategory;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        productCategory = productCategoryRepository.save(ProductCategory.builder().categoryName("Cached cups").build());
+        product = productRepository.save(Product.builder()
+                .sku("L2-CACHE-1")
+                .name("Cached cup")
+                .unitPrice(BigDecimal.valueOf(24.35))
+                .active(true)
+                .unitsInStock(10)
+                .dateCreated(LocalDateTime.now())
+                .productCategory(productCategory)
+                .build());
+        secondLevelCacheStatistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteById(product.getId());
+        productCategoryRepository.deleteById(productCategory.getId());
+    }
+
+    @Test
+    void shouldServeRepeatedProductReadsFromCache() {
+        productService.getProductById(product.getId());
+        productService.getProductById(product.getId());
+
+        assertEquals(1, region("product").getHitCount());
+    }
+
+    @Test
+    void shouldServeRepeatedCategoryQueriesFromQueryCache() {
+        productService.getProductsByCategoryId(productCategory.getId());
+        List<Product> products = productService.getProductsByCategoryId(productCategory.getId());
+
+        assertEquals(1, products.size());
+        assertEquals(1, region(ProductRepository.PRODUCTS_BY_CATEGORY_REGION).getHitCount());
+    }
+
+    @Test
+    void shouldNotServeStaleStockAfterDecreasingQuantity() {
+        productService.getProductById(product.getId());
+        productService.getProductsByCategoryId(productCategory.getId());
+
+        transactionTemplate.executeWithoutResult(status -> productService.decreaseProductQuantity(product.getId(), 3));
+
+        assertEquals(7, productService.getProductById(product.getId()).getUnitsInStock());
+        assertEquals(7, productService.getProductsByCategoryId(productCategory.getId()).get(0).getUnitsInStock());
+    }
+
+    private CacheRegionStatisticsDto region(String regionName) {
+        return secondLevelCacheStatistics.getRegionStatistics().stream()
+                .filter(region -> region.getRegionName().equals(regionName))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,95 @@
+package com.pawelapps.ecommerce.cache;
+
+import com.pawelapps.ecommerce.dto.CoalescingStatisticsDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>("test");
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentCalls() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                results.add(executorService.submit(() -> singleFlight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "product 1";
+                })));
+            }
+            awaitCalls(5);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("product 1", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        CoalescingStatisticsDto statistics = singleFlight.getStatistics();
+        assertEquals(1, statistics.getLoadCount());
+        assertEquals(4, statistics.getSharedCount());
+        assertEquals(0.8, statistics.getCoalescingRatio(), 0.0001);
+    }
+
+    @Test
+    void shouldShareLoaderExceptionWithWaitingCalls() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executorService.submit(() -> singleFlight.execute(1L, () -> {
+                await(release);
+                throw new IllegalStateException("database unavailable");
+            }));
+            awaitCalls(1);
+            Future<String> second = executorService.submit(() -> singleFlight.execute(1L, () -> "not loaded"));
+            awaitCalls(2);
+            release.countDown();
+
+            ExecutionException firstException = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+            ExecutionException secondException = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, firstException.getCause());
+            assertInstanceOf(IllegalStateException.class, secondException.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldLoadAgainOnceCallFinished() {
+        assertEquals("first", singleFlight.execute(1L, () -> "first"));
+        assertEquals("second", singleFlight.execute(1L, () -> "second"));
+        assertEquals("other key", singleFlight.execute(2L, () -> "other key"));
+
+        assertEquals(3, singleFlight.getStatistics().getLoadCount());
+    }
+
+    private void awaitCalls(long calls) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (singleFlight.getStatistics().getCallCount() < calls) {
+            assertTrue(System.currentTimeMillis() < deadline, "calls did not arrive");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
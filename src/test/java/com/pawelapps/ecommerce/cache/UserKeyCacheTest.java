@@ -0,0 +1,66 @@
+package com.pawelapps.ecommerce.cache;
+
+import com.pawelapps.ecommerce.dao.CartRepository;
+import com.pawelapps.ecommerce.dao.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserKeyCacheTest {
+
+    private final String userEmail = "test@email.com";
+
+    private UserRepository userRepository;
+    private CartRepository cartRepository;
+    private UserKeyCache userKeyCache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        cartRepository = mock(CartRepository.class);
+        userKeyCache = new UserKeyCache(userRepository, cartRepository, 100);
+    }
+
+    @Test
+    void shouldResolveKeysOnceAndServeFromCache() {
+        when(userRepository.findIdsByEmail(userEmail)).thenReturn(List.of(3L));
+        when(cartRepository.findIdsByUserEmail(userEmail)).thenReturn(List.of(7L));
+
+        UserKeyCache.UserKeys first = userKeyCache.resolve(userEmail);
+        UserKeyCache.UserKeys second = userKeyCache.resolve(userEmail);
+
+        assertEquals(List.of(3L), second.userIds());
+        assertEquals(7L, second.cartId());
+        assertSame(first, second);
+        verify(userRepository, times(1)).findIdsByEmail(userEmail);
+        verify(cartRepository, times(1)).findIdsByUserEmail(userEmail);
+    }
+
+    @Test
+    void shouldNotCacheUnknownUser() {
+        when(userRepository.findIdsByEmail(userEmail)).thenReturn(List.of());
+        when(cartRepository.findIdsByUserEmail(userEmail)).thenReturn(List.of());
+
+        UserKeyCache.UserKeys userKeys = userKeyCache.resolve(userEmail);
+        userKeyCache.resolve(userEmail);
+
+        assertFalse(userKeys.hasCart());
+        verify(userRepository, times(2)).findIdsByEmail(userEmail);
+    }
+
+    @Test
+    void shouldReloadKeysAfterEviction() {
+        when(userRepository.findIdsByEmail(userEmail)).thenReturn(List.of(3L));
+        when(cartRepository.findIdsByUserEmail(userEmail)).thenReturn(List.of()).thenReturn(List.of(7L));
+
+        assertFalse(userKeyCache.resolve(userEmail).hasCart());
+
+        userKeyCache.evict(userEmail);
+
+        assertEquals(7L, userKeyCache.resolve(userEmail).cartId());
+    }
+}
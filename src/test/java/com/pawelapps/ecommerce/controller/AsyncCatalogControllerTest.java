@@ -0,0 +1,113 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.pawelapps.ecommerce.configuration.CatalogReadConfiguration;
+import com.pawelapps.ecommerce.configuration.SecurityConfiguration;
+import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.exception.NotFoundException;
+import com.pawelapps.ecommerce.service.ProductCategoryService;
+import com.pawelapps.ecommerce.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = AsyncCatalogController.class, properties = "ecommerce.catalog-read.stream-page-size=2")
+@Import({SecurityConfiguration.class, CatalogReadConfiguration.class})
+@AutoConfigureMockMvc
+public class AsyncCatalogControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private ProductCategoryService productCategoryService;
+
+    @Test
+    void shouldReturnAllProductsAsynchronously() throws Exception {
+        when(productService.getAllProducts()).thenReturn(List.of(product(1L), product(2L)));
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/products/async"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].name", is("Product 2")));
+    }
+
+    @Test
+    void shouldReturnNotFoundForMissingProduct() throws Exception {
+        when(productService.getProductById(5L)).thenThrow(new NotFoundException("Product with id 5 doesn't exist"));
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/products/async/5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldStreamProductsPageByPage() throws Exception {
+        when(productService.getProductsAfterId(0L, 2)).thenReturn(List.of(product(1L), product(2L)));
+        when(productService.getProductsAfterId(2L, 2)).thenReturn(List.of(product(3L)));
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/products/async/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(3, body.lines().count());
+        verify(productService, never()).getProductsAfterId(3L, 2);
+    }
+
+    @Test
+    void shouldStreamOnCatalogReadPool() throws Exception {
+        AtomicReference<String> streamingThread = new AtomicReference<>();
+        when(productService.getProductsAfterId(0L, 2)).thenAnswer(invocation -> {
+            streamingThread.set(Thread.currentThread().getName());
+            return List.of();
+        });
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/products/async/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+
+        // streamed bodies run on the MVC async executor, which must be the bounded pool, not a thread per request
+        assertTrue(streamingThread.get().startsWith("catalog-read-"), streamingThread.get());
+    }
+
+    private Product product(Long id) {
+        return Product.builder()
+                .id(id)
+                .sku("sku-" + id)
+                .name("Product " + id)
+                .build();
+    }
+}
@@ -104,7 +104,7 @@ public class CartProductControllerTest {
         @BeforeEach
         void setUp() {
             cartProductDto = CartProductDto.builder().name("Cart Product 1").quantity(10).build();
-            cartProduct = CartProduct.builder().name(cartProductDto.getName()).quantity(cartProductDto.getQuantity()).build();
+            cartProduct = CartProduct.builder().name(cartProductDto.name()).quantity(cartProductDto.quantity()).build();
         }
 
         private void testForbiddenAccessWhenSavingCartProduct() throws Exception {
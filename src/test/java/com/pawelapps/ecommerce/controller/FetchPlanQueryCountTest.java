@@ -0,0 +1,185 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.pawelapps.ecommerce.cache.UserKeyCache;
+import com.pawelapps.ecommerce.entity.*;
+import com.pawelapps.ecommerce.service.OrderSnapshotService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the fetch plan of each read endpoint: the number of SQL statements must not depend on how many
+ * products, cart items or order items are returned. Data is seeded in the test transaction and the
+ * persistence context and second-level cache are cleared before every request, so each count is a cold read.
+ */
+@SpringBootTest(properties = "ecommerce.outbox.relay-interval-ms=3600000")
+@AutoConfigureMockMvc
+@Transactional
+class FetchPlanQueryCountTest {
+
+    private static final String USER_EMAIL = "fetch-plan@email.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserKeyCache userKeyCache;
+
+    @Autowired
+    private OrderSnapshotService orderSnapshotService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private ProductCategory productCategory;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        productCategory = ProductCategory.builder().categoryName("Fetch plan mugs").build();
+        entityManager.persist(productCategory);
+        Product firstProduct = product("FETCH-1");
+        Product secondProduct = product("FETCH-2");
+
+        User cartUser = User.builder().email(USER_EMAIL).build();
+        Cart cart = Cart.builder().user(cartUser).build();
+        cart.addCartProduct(CartProduct.builder().product(firstProduct).name("First").quantity(1).build());
+        cart.addCartProduct(CartProduct.builder().product(secondProduct).name("Second").quantity(2).build());
+        entityManager.persist(cart);
+
+        Customer customer = Customer.builder().firstName("First Name").lastName("Last Name").email(USER_EMAIL).build();
+        order = Order.builder()
+                .customer(customer)
+                .user(cartUser)
+                .shippingAddress(ShippingAddress.builder().city("City").build())
+                .summary(Summary.builder().totalCartValue(BigDecimal.TEN).build())
+                .build();
+        order.addOrderProduct(OrderProduct.builder().product(firstProduct).name("First").quantity(1).build());
+        order.addOrderProduct(OrderProduct.builder().product(secondProduct).name("Second").quantity(2).build());
+        entityManager.persist(order);
+        entityManager.flush();
+    }
+
+    private void saveSnapshot() {
+        orderSnapshotService.saveSnapshot(entityManager.find(Order.class, order.getId()));
+        entityManager.flush();
+    }
+
+    private Product product(String sku) {
+        Product product = Product.builder().sku(sku).name(sku).unitPrice(BigDecimal.ONE).unitsInStock(10).build();
+        productCategory.addProduct(product);
+        entityManager.persist(product);
+        return product;
+    }
+
+    @Test
+    void productListShouldLoadProductsWithCategoriesInOneQuery() throws Exception {
+        assertStatements(1, MockMvcRequestBuilders.get("/api/products"));
+    }
+
+    @Test
+    void productsByCategoryShouldLoadProductsWithCategoriesInOneQuery() throws Exception {
+        assertStatements(1, MockMvcRequestBuilders.get("/api/products/products-by-category-id/" + productCategory.getId()))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void categoryListShouldLoadCategoriesWithProductsInOneQuery() throws Exception {
+        assertStatements(1, MockMvcRequestBuilders.get("/api/product-categories"));
+    }
+
+    // Endpoints keyed by email first resolve the user and cart ids (two statements, see UserKeyCache)
+
+    @Test
+    @WithMockUser(username = USER_EMAIL)
+    void cartViewShouldLoadCartUserAndProductsInOneQuery() throws Exception {
+        assertStatements(3, MockMvcRequestBuilders.get("/api/cart/" + USER_EMAIL))
+                .andExpect(jsonPath("$.user.email").value(USER_EMAIL))
+                .andExpect(jsonPath("$.cartProducts", hasSize(2)))
+                .andExpect(jsonPath("$.cartProducts[0].product.productCategory.categoryName").value("Fetch plan mugs"));
+    }
+
+    @Test
+    @WithMockUser(username = USER_EMAIL)
+    void cartProductsShouldLoadProductsInOneQuery() throws Exception {
+        assertStatements(3, MockMvcRequestBuilders.get("/api/cart-products/" + USER_EMAIL))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    @WithMockUser(username = USER_EMAIL)
+    void orderDetailShouldBeReadFromSnapshotInOneQuery() throws Exception {
+        saveSnapshot();
+
+        assertStatements(1, MockMvcRequestBuilders.get("/api/orders/id").param("id", order.getId().toString()))
+                .andExpect(jsonPath("$.customer.firstName").value("First Name"))
+                .andExpect(jsonPath("$.shippingAddress.city").value("City"))
+                .andExpect(jsonPath("$.orderProducts", hasSize(2)))
+                .andExpect(jsonPath("$.orderProducts[0].product.sku").exists());
+    }
+
+    @Test
+    @WithMockUser(username = USER_EMAIL)
+    void orderDetailWithoutSnapshotShouldLoadWholeOrderInOneQuery() throws Exception {
+        // snapshot lookup misses, then the Order.detail graph
+        assertStatements(2, MockMvcRequestBuilders.get("/api/orders/id").param("id", order.getId().toString()))
+                .andExpect(jsonPath("$.customer.firstName").value("First Name"))
+                .andExpect(jsonPath("$.orderProducts", hasSize(2)))
+                .andExpect(jsonPath("$.orderProducts[0].product.sku").exists());
+    }
+
+    @Test
+    @WithMockUser(username = USER_EMAIL)
+    void userOrdersShouldBeReadFromSnapshotsInOneQuery() throws Exception {
+        saveSnapshot();
+
+        // the last page also looks for older orders in order_archive
+        assertStatements(4, MockMvcRequestBuilders.get("/api/orders/user").param("userEmail", USER_EMAIL))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].orderProducts", hasSize(2)));
+    }
+
+    @Test
+    @WithMockUser(username = USER_EMAIL)
+    void userOrdersWithoutSnapshotShouldLoadOrdersInOneQuery() throws Exception {
+        // snapshot lookup returns the order id without payload, then the Order.detail graph, then the archive
+        assertStatements(5, MockMvcRequestBuilders.get("/api/orders/user").param("userEmail", USER_EMAIL))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].orderProducts", hasSize(2)));
+    }
+
+    private ResultActions assertStatements(long expected, MockHttpServletRequestBuilder request) throws Exception {
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        userKeyCache.clear();
+        statistics.clear();
+
+        ResultActions resultActions = mockMvc.perform(request).andExpect(status().isOk());
+
+        assertEquals(expected, statistics.getPrepareStatementCount(), "SQL statements for " + request);
+        return resultActions;
+    }
+}
@@ -1,11 +1,7 @@
 package com.pawelapps.ecommerce.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.pawelapps.ecommerce.dto.OrderDto;
-import com.pawelapps.ecommerce.entity.Customer;
-import com.pawelapps.ecommerce.entity.OrderProduct;
-import com.pawelapps.ecommerce.entity.ShippingAddress;
-import com.pawelapps.ecommerce.entity.Summary;
+import com.pawelapps.ecommerce.dto.*;
 import com.pawelapps.ecommerce.service.OrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,7 +14,6 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -43,23 +38,21 @@ public class OrderControllerTest {
 
     @BeforeEach
     void setUp() {
-        List<OrderProduct> orderProducts = new ArrayList<>();
-
-        ShippingAddress shippingAddress = ShippingAddress.builder()
+        ShippingAddressDto shippingAddress = ShippingAddressDto.builder()
                 .country("Sample Country")
                 .city("Sample City")
                 .streetAddress("Sample Street 24/36")
                 .zipCode("12-345")
                 .build();
 
-        Customer customer = Customer.builder()
+        CustomerDto customer = CustomerDto.builder()
                 .firstName("John")
                 .lastName("Smith")
                 .email("johnsmith@email.com")
                 .phoneNumber(123456789)
                 .build();
 
-        OrderProduct orderProduct = OrderProduct.builder()
+        OrderProductDto orderProduct = OrderProductDto.builder()
                 .name("Test Product")
                 .description("Product for testing purposes")
                 .unitPrice(BigDecimal.valueOf(2.59))
@@ -67,7 +60,7 @@ public class OrderControllerTest {
                 .quantity(4)
                 .build();
 
-        Summary summary = Summary.builder()
+        SummaryDto summary = SummaryDto.builder()
                 .totalCartValue(BigDecimal.valueOf(10.36))
                 .totalQuantityOfProducts(4)
                 .build();
@@ -76,11 +69,8 @@ public class OrderControllerTest {
                 .customer(customer)
                 .shippingAddress(shippingAddress)
                 .summary(summary)
+                .orderProducts(List.of(orderProduct))
                 .build();
-
-        orderProducts.add(orderProduct);
-
-        orderDto.setOrderProducts(orderProducts);
     }
 
     @Test
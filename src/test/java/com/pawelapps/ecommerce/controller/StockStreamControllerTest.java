@@ -0,0 +1,77 @@
+package com.pawelapps.ecommerce.controller;
+
+import com.pawelapps.ecommerce.configuration.SecurityConfiguration;
+import com.pawelapps.ecommerce.dao.ProductRepository;
+import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.event.StockLevelBroadcaster;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(value = StockStreamController.class, properties = "ecommerce.stock-stream.max-products-per-subscription=2")
+@Import({SecurityConfiguration.class, StockLevelBroadcaster.class})
+@AutoConfigureMockMvc
+public class StockStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockLevelBroadcaster stockLevelBroadcaster;
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    @Test
+    void shouldSendCurrentLevelsThenCoalescedChanges() throws Exception {
+        when(productRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(
+                Product.builder().id(1L).unitsInStock(10).build(),
+                Product.builder().id(2L).unitsInStock(3).build()));
+
+        MockHttpServletResponse response = mockMvc.perform(MockMvcRequestBuilders.get("/api/products/stock-stream?productIds=1,2"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        awaitContent(response, "{\"productId\":2,\"unitsInStock\":3}");
+        assertTrue(response.getContentAsString().contains("{\"productId\":1,\"unitsInStock\":10}"));
+
+        stockLevelBroadcaster.stockChanged(1L, 9);
+        stockLevelBroadcaster.stockChanged(1L, 8);
+        stockLevelBroadcaster.stockChanged(3L, 1);
+        stockLevelBroadcaster.flush();
+
+        awaitContent(response, "{\"productId\":1,\"unitsInStock\":8}");
+        assertFalse(response.getContentAsString().contains("\"unitsInStock\":9"));
+        assertFalse(response.getContentAsString().contains("\"productId\":3"));
+    }
+
+    @Test
+    void shouldRejectTooManyProducts() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/products/stock-stream?productIds=1,2,3"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!response.getContentAsString().contains(expected)) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Expected " + expected + " in " + response.getContentAsString());
+            }
+            Thread.sleep(10);
+        }
+    }
+}
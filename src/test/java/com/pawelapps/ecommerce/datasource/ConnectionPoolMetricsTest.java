@@ -0,0 +1,63 @@
+package com.pawelapps.ecommerce.datasource;
+
+import com.pawelapps.ecommerce.dto.ConnectionPoolStatisticsDto;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolMetricsTest {
+
+    private ConnectionPoolMetrics connectionPoolMetrics;
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        connectionPoolMetrics = new ConnectionPoolMetrics();
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:pool-metrics");
+        dataSource.setPoolName("test-pool");
+        dataSource.setMaximumPoolSize(1);
+        dataSource.setConnectionTimeout(250);
+        connectionPoolMetrics.postProcessBeforeInitialization(dataSource, "dataSource");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void shouldCountAcquiresUsageAndTimeouts() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        }
+
+        List<ConnectionPoolStatisticsDto> poolStatistics = connectionPoolMetrics.getPoolStatistics();
+
+        assertEquals(1, poolStatistics.size());
+        ConnectionPoolStatisticsDto statistics = poolStatistics.get(0);
+        assertEquals("test-pool", statistics.getPoolName());
+        assertEquals(1, statistics.getMaxConnections());
+        // a timed out wait is counted as an acquire as well
+        assertEquals(2, statistics.getAcquireCount());
+        assertEquals(1, statistics.getTimeoutCount());
+        assertTrue(statistics.getMaxAcquireMillis() >= 0);
+    }
+
+    @Test
+    void shouldForgetClosedPool() throws SQLException {
+        dataSource.getConnection().close();
+
+        dataSource.close();
+
+        assertTrue(connectionPoolMetrics.getPoolStatistics().isEmpty());
+    }
+}
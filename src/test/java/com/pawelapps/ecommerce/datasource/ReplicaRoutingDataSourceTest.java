@@ -0,0 +1,95 @@
+package com.pawelapps.ecommerce.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicReference<String> currentUser = new AtomicReference<>();
+
+    private DataSource primary;
+    private DataSource replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        currentUser.set(null);
+        primary = h2("routing_primary");
+        replica = h2("routing_replica");
+    }
+
+    private void route(List<DataSource> replicas, long readYourWritesWindowMillis) {
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replicas, currentUser::get, readYourWritesWindowMillis, 60000));
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    private String currentNode(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplicaAndOthersToPrimary() {
+        route(List.of(replica), 5000);
+
+        assertEquals("routing_replica", currentNode(readOnlyTransaction));
+        assertEquals("routing_primary", currentNode(readWriteTransaction));
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimaryWithinWindow() {
+        route(List.of(replica), 60000);
+        currentUser.set("user@email.com");
+
+        currentNode(readWriteTransaction);
+        assertEquals("routing_primary", currentNode(readOnlyTransaction));
+
+        currentUser.set("other@email.com");
+        assertEquals("routing_replica", currentNode(readOnlyTransaction));
+    }
+
+    @Test
+    void shouldReadFromReplicaAgainAfterWindow() throws InterruptedException {
+        route(List.of(replica), 50);
+        currentUser.set("user@email.com");
+
+        currentNode(readWriteTransaction);
+        Thread.sleep(100);
+
+        assertEquals("routing_replica", currentNode(readOnlyTransaction));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaIsUnavailable() {
+        DataSource unavailableReplica = new DriverManagerDataSource("jdbc:h2:mem:routing_missing;IFEXISTS=TRUE", "sa", "");
+        route(List.of(unavailableReplica), 5000);
+
+        assertEquals("routing_primary", currentNode(readOnlyTransaction));
+    }
+}
@@ -0,0 +1,58 @@
+package com.pawelapps.ecommerce.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    private DataSource h2() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:slow-query-log");
+        return dataSource;
+    }
+
+    private void runQueries(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT ?")) {
+            connection.createStatement().execute("SELECT 1");
+            statement.setInt(1, 2);
+            statement.executeQuery().close();
+            assertSame(connection, connection.unwrap(Connection.class));
+        }
+    }
+
+    @Test
+    void shouldLogQueriesOverThresholdInBackground() throws Exception {
+        try (SlowQueryLog slowQueryLog = new SlowQueryLog(0, 1.0, 10)) {
+            runQueries(new StatementTimingDataSource(h2(), List.of(slowQueryLog)));
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (slowQueryLog.getLoggedCount() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, slowQueryLog.getLoggedCount());
+        }
+    }
+
+    @Test
+    void shouldSkipQueriesUnderThresholdOrOutsideSample() throws Exception {
+        try (SlowQueryLog slowLog = new SlowQueryLog(60000, 1.0, 10);
+             SlowQueryLog unsampledLog = new SlowQueryLog(0, 0.0, 10)) {
+            runQueries(new StatementTimingDataSource(h2(), List.of(slowLog)));
+            runQueries(new StatementTimingDataSource(h2(), List.of(unsampledLog)));
+
+            Thread.sleep(50);
+            assertEquals(0, slowLog.getLoggedCount());
+            assertEquals(0, unsampledLog.getLoggedCount());
+            assertEquals(0, unsampledLog.getDroppedCount());
+        }
+    }
+}
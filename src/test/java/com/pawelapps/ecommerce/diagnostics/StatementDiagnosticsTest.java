@@ -0,0 +1,100 @@
+package com.pawelapps.ecommerce.diagnostics;
+
+import com.pawelapps.ecommerce.dto.EndpointStatementStatisticsDto;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementDiagnosticsTest {
+
+    private final String endpointPattern = "/api/orders/{userEmail}";
+
+    private DiagnosticsProperties diagnosticsProperties;
+    private StatementDiagnostics statementDiagnostics;
+
+    @BeforeEach
+    void setUp() {
+        diagnosticsProperties = new DiagnosticsProperties();
+        diagnosticsProperties.setDefaultStatementBudget(3);
+        statementDiagnostics = new StatementDiagnostics(diagnosticsProperties);
+    }
+
+    @Test
+    void shouldAggregateStatementsPerEndpoint() throws Exception {
+        StatementDiagnosticsFilter filter = new StatementDiagnosticsFilter(statementDiagnostics, true);
+
+        filter.doFilter(request("GET", "/api/orders/a@email.com"), new MockHttpServletResponse(), runningStatements("select 1", "select 2"));
+        filter.doFilter(request("GET", "/api/orders/b@email.com"), new MockHttpServletResponse(), runningStatements("select 1"));
+
+        List<EndpointStatementStatisticsDto> endpointStatistics = statementDiagnostics.getEndpointStatistics();
+        assertEquals(1, endpointStatistics.size());
+        EndpointStatementStatisticsDto statistics = endpointStatistics.get(0);
+        assertEquals("GET " + endpointPattern, statistics.getEndpoint());
+        assertEquals(2, statistics.getRequestCount());
+        assertEquals(1.5, statistics.getAverageStatements());
+        assertEquals(2, statistics.getMaxStatements());
+        assertEquals(0, statistics.getBudgetExceededCount());
+        assertNotNull(statistics.getSlowestStatement());
+    }
+
+    @Test
+    void shouldFlagRepeatedStatements() throws Exception {
+        diagnosticsProperties.setDefaultStatementBudget(0);
+        StatementDiagnosticsFilter filter = new StatementDiagnosticsFilter(statementDiagnostics, true);
+
+        filter.doFilter(request("GET", "/api/orders/a@email.com"), new MockHttpServletResponse(),
+                runningStatements("select * from product where id=?", "select * from product where id=?", "select * from product where id=?"));
+
+        assertEquals(1, statementDiagnostics.getEndpointStatistics().get(0).getRepeatedStatementCount());
+    }
+
+    @Test
+    void shouldFailRequestOverBudgetInTestMode() {
+        StatementDiagnosticsFilter filter = new StatementDiagnosticsFilter(statementDiagnostics, true);
+
+        assertThrows(StatementBudgetExceededException.class, () -> filter.doFilter(request("GET", "/api/orders/a@email.com"),
+                new MockHttpServletResponse(), runningStatements("select 1", "select 2", "select 3", "select 4")));
+
+        assertEquals(1, statementDiagnostics.getEndpointStatistics().get(0).getBudgetExceededCount());
+    }
+
+    @Test
+    void shouldOnlyApplyDefaultBudgetToGetRequests() throws Exception {
+        diagnosticsProperties.setStatementBudgets(Map.of("DELETE " + endpointPattern, 1));
+        StatementDiagnosticsFilter filter = new StatementDiagnosticsFilter(statementDiagnostics, true);
+
+        filter.doFilter(request("POST", "/api/orders/a@email.com"), new MockHttpServletResponse(),
+                runningStatements("insert 1", "insert 2", "insert 3", "insert 4"));
+
+        assertThrows(StatementBudgetExceededException.class, () -> filter.doFilter(request("DELETE", "/api/orders/a@email.com"),
+                new MockHttpServletResponse(), runningStatements("delete 1", "delete 2")));
+    }
+
+    @Test
+    void shouldIgnoreStatementsOutsideRequests() {
+        statementDiagnostics.statementExecuted("select 1", "executeQuery", 1000);
+
+        assertTrue(statementDiagnostics.getEndpointStatistics().isEmpty());
+    }
+
+    private MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+
+    private FilterChain runningStatements(String... statements) {
+        return (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, endpointPattern);
+            for (String statement : statements) {
+                statementDiagnostics.statementExecuted(statement, "executeQuery", 1000);
+            }
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.pawelapps.ecommerce.event;
+
+import com.pawelapps.ecommerce.dao.OutboxEventRepository;
+import com.pawelapps.ecommerce.entity.OutboxEvent;
+import com.pawelapps.ecommerce.entity.OutboxEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private OutboxEventRepository outboxEventRepository;
+    private OrderEventSink orderEventSink;
+    private OutboxRelay outboxRelay;
+
+    private OutboxEvent orderCreated;
+    private OutboxEvent stockChanged;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        orderEventSink = mock(OrderEventSink.class);
+        outboxRelay = new OutboxRelay(outboxEventRepository, orderEventSink, mock(PlatformTransactionManager.class), 2, 10, 24);
+
+        orderCreated = OutboxEvent.builder().id(1L).eventType(OutboxEventType.ORDER_CREATED).aggregateId(10L)
+                .payload("{}").dateCreated(LocalDateTime.now()).build();
+        stockChanged = OutboxEvent.builder().id(2L).eventType(OutboxEventType.STOCK_CHANGED).aggregateId(20L)
+                .payload("{}").dateCreated(LocalDateTime.now()).build();
+    }
+
+    @Test
+    void shouldPublishBatchesUntilOutboxIsDrained() throws Exception {
+        OutboxEvent secondStockChange = OutboxEvent.builder().id(3L).eventType(OutboxEventType.STOCK_CHANGED).build();
+        when(outboxEventRepository.findUnpublished(any(Pageable.class)))
+                .thenReturn(List.of(orderCreated, stockChanged))
+                .thenReturn(List.of(secondStockChange));
+
+        outboxRelay.relay();
+
+        verify(orderEventSink).publish(List.of(orderCreated, stockChanged));
+        verify(orderEventSink).publish(List.of(secondStockChange));
+        verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(outboxEventRepository).markPublished(eq(List.of(3L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldNotMarkEventsWhenSinkFails() throws Exception {
+        when(outboxEventRepository.findUnpublished(any(Pageable.class))).thenReturn(List.of(orderCreated, stockChanged));
+        doThrow(new IOException("Sink unavailable")).when(orderEventSink).publish(anyList());
+
+        outboxRelay.relay();
+
+        verify(orderEventSink, times(1)).publish(anyList());
+        verify(outboxEventRepository, never()).markPublished(anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldKeepOnlyNewestEventsInMemorySink() {
+        InMemoryOrderEventSink inMemoryOrderEventSink = new InMemoryOrderEventSink(1);
+
+        inMemoryOrderEventSink.publish(List.of(orderCreated, stockChanged));
+
+        assertEquals(List.of(stockChanged), inMemoryOrderEventSink.getEvents());
+    }
+}
@@ -0,0 +1,91 @@
+package com.pawelapps.ecommerce.pricing;
+
+import com.pawelapps.ecommerce.entity.CartProduct;
+import com.pawelapps.ecommerce.entity.OrderProduct;
+import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.exception.InvalidOrderException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingEngineTest {
+
+    private final PricingEngine pricingEngine = new PricingEngine(new BigDecimal("9.99"), new BigDecimal("100"));
+
+    private Product product(String unitPrice) {
+        return Product.builder().id(1L).unitPrice(new BigDecimal(unitPrice)).build();
+    }
+
+    @Test
+    void shouldPriceOrderFromProductPricesNotClientPrices() {
+        OrderProduct mug = OrderProduct.builder().product(product("2.59")).unitPrice(BigDecimal.ONE).quantity(3).build();
+        OrderProduct cup = OrderProduct.builder().product(product("0.10")).unitPrice(BigDecimal.ONE).quantity(7).build();
+
+        OrderTotals orderTotals = pricingEngine.priceOrder(List.of(mug, cup));
+
+        assertEquals(new BigDecimal("8.47"), orderTotals.totalCartValue());
+        assertEquals(10, orderTotals.totalQuantityOfProducts());
+        assertEquals(new BigDecimal("9.99"), orderTotals.shippingPrice());
+        assertEquals(new BigDecimal("2.59"), mug.getUnitPrice());
+        assertEquals(new BigDecimal("0.10"), cup.getUnitPrice());
+    }
+
+    @Test
+    void shouldShipForFreeFromThreshold() {
+        OrderTotals orderTotals = pricingEngine.priceOrder(List.of(
+                OrderProduct.builder().product(product("50")).quantity(2).build()));
+
+        assertEquals(new BigDecimal("100.00"), orderTotals.totalCartValue());
+        assertEquals(new BigDecimal("0.00"), orderTotals.shippingPrice());
+    }
+
+    @Test
+    void shouldRoundSubCentPricesHalfUp() {
+        OrderTotals orderTotals = pricingEngine.priceCart(List.of(
+                CartProduct.builder().product(product("1.005")).quantity(2).build()));
+
+        assertEquals(new BigDecimal("2.02"), orderTotals.totalCartValue());
+    }
+
+    @Test
+    void shouldLeaveCartLinesWithoutProductOut() {
+        OrderTotals orderTotals = pricingEngine.priceCart(List.of(
+                CartProduct.builder().product(product("2.50")).quantity(2).build(),
+                CartProduct.builder().unitPrice(new BigDecimal("99")).quantity(3).build()));
+
+        assertEquals(new BigDecimal("5.00"), orderTotals.totalCartValue());
+        assertEquals(2, orderTotals.totalQuantityOfProducts());
+    }
+
+    @Test
+    void shouldNotChargeShippingForEmptyCart() {
+        OrderTotals orderTotals = pricingEngine.priceCart(List.of());
+
+        assertEquals(new BigDecimal("0.00"), orderTotals.totalCartValue());
+        assertEquals(new BigDecimal("0.00"), orderTotals.shippingPrice());
+    }
+
+    @Test
+    void shouldRejectNonPositiveQuantity() {
+        OrderProduct orderProduct = OrderProduct.builder().product(product("1")).quantity(0).build();
+
+        assertThrows(InvalidOrderException.class, () -> pricingEngine.priceOrder(List.of(orderProduct)));
+    }
+
+    @Test
+    void shouldRejectTotalOutOfRange() {
+        OrderProduct orderProduct = OrderProduct.builder().product(product("92233720368547758.07")).quantity(2).build();
+
+        assertThrows(InvalidOrderException.class, () -> pricingEngine.priceOrder(List.of(orderProduct)));
+    }
+
+    @Test
+    void shouldRejectCartTotalOutOfRange() {
+        CartProduct cartProduct = CartProduct.builder().product(product("92233720368547758.07")).quantity(2).build();
+
+        assertThrows(InvalidOrderException.class, () -> pricingEngine.priceCart(List.of(cartProduct)));
+    }
+}
@@ -0,0 +1,140 @@
+package com.pawelapps.ecommerce.ratelimit;
+
+import com.pawelapps.ecommerce.dto.EndpointGroupStatisticsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LoadShedderTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private RateLimitProperties.Concurrency concurrency;
+    private ClientRateLimiter clientRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        concurrency = new RateLimitProperties.Concurrency();
+        concurrency.setInitialLimit(10);
+        concurrency.setMinLimit(2);
+        concurrency.setMaxLimit(100);
+        concurrency.setCheckoutHeadroom(0.2);
+        clientRateLimiter = new ClientRateLimiter(Map.of(EndpointGroup.EXPENSIVE, new RateLimitProperties.Bucket(2, 1)), 100, clock::get);
+    }
+
+    @Test
+    void shouldRateLimitEachClientSeparatelyAndRefill() {
+        assertEquals(0, clientRateLimiter.tryAcquire("a", EndpointGroup.EXPENSIVE));
+        assertEquals(0, clientRateLimiter.tryAcquire("a", EndpointGroup.EXPENSIVE));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), clientRateLimiter.tryAcquire("a", EndpointGroup.EXPENSIVE));
+        assertEquals(0, clientRateLimiter.tryAcquire("b", EndpointGroup.EXPENSIVE));
+        assertEquals(0, clientRateLimiter.tryAcquire("a", EndpointGroup.BROWSE));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(0, clientRateLimiter.tryAcquire("a", EndpointGroup.EXPENSIVE));
+    }
+
+    @Test
+    void shouldDropRefilledBucketsWhenFull() {
+        ClientRateLimiter limiter = new ClientRateLimiter(Map.of(EndpointGroup.EXPENSIVE, new RateLimitProperties.Bucket(1, 1)), 2, clock::get);
+        limiter.tryAcquire("a", EndpointGroup.EXPENSIVE);
+        limiter.tryAcquire("b", EndpointGroup.EXPENSIVE);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limiter.tryAcquire("c", EndpointGroup.EXPENSIVE);
+
+        assertEquals(1, limiter.getTrackedBuckets());
+    }
+
+    @Test
+    void shouldKeepHeadroomForCheckout() {
+        LoadShedder loadShedder = new LoadShedder(clientRateLimiter, new AdaptiveConcurrencyLimiter(concurrency), clock::get);
+
+        for (int i = 0; i < 8; i++) {
+            assertEquals(LoadShedder.Outcome.ADMITTED, loadShedder.admit(EndpointGroup.BROWSE, "client-" + i).outcome());
+        }
+
+        assertEquals(LoadShedder.Outcome.SHED, loadShedder.admit(EndpointGroup.BROWSE, "client-8").outcome());
+        assertEquals(LoadShedder.Outcome.ADMITTED, loadShedder.admit(EndpointGroup.CHECKOUT, "client-9").outcome());
+        assertEquals(LoadShedder.Outcome.ADMITTED, loadShedder.admit(EndpointGroup.CHECKOUT, "client-10").outcome());
+        assertEquals(LoadShedder.Outcome.SHED, loadShedder.admit(EndpointGroup.CHECKOUT, "client-11").outcome());
+
+        EndpointGroupStatisticsDto browse = loadShedder.getStatistics().getGroups().stream()
+                .filter(group -> group.getGroup().equals("BROWSE")).findFirst().orElseThrow();
+        assertEquals(8, browse.getAdmittedCount());
+        assertEquals(1, browse.getShedCount());
+    }
+
+    @Test
+    void shouldLowerLimitWhenLatencyRisesAndRaiseItWhenStable() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(concurrency);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(10), limiter.tryAcquire(false) + 10);
+        }
+        int stableLimit = limiter.getLimit();
+        assertTrue(stableLimit > 10);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(100), limiter.tryAcquire(false) + stableLimit);
+        }
+        assertTrue(limiter.getLimit() < stableLimit);
+        assertTrue(limiter.getLimit() >= concurrency.getMinLimit());
+    }
+
+    @Test
+    void shouldHoldSlotOfAsyncRequestUntilItCompletes() throws Exception {
+        ApplicationAvailability applicationAvailability = mock(ApplicationAvailability.class);
+        when(applicationAvailability.getReadinessState()).thenReturn(ReadinessState.ACCEPTING_TRAFFIC);
+        AdaptiveConcurrencyLimiter limiter = spy(new AdaptiveConcurrencyLimiter(concurrency));
+        RateLimitFilter filter = new RateLimitFilter(new LoadShedder(clientRateLimiter, limiter, clock::get), applicationAvailability);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/async");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (asyncRequest, asyncResponse) -> asyncRequest.startAsync());
+
+        assertEquals(1, limiter.getInFlight());
+        verify(limiter, never()).release(anyLong(), anyInt());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        assertEquals(0, limiter.getInFlight());
+        verify(limiter).release(eq(TimeUnit.MILLISECONDS.toNanos(300)), anyInt());
+    }
+
+    @Test
+    void shouldAnswerRateLimitedRequestWithRetryAfter() throws Exception {
+        ApplicationAvailability applicationAvailability = mock(ApplicationAvailability.class);
+        when(applicationAvailability.getReadinessState()).thenReturn(ReadinessState.ACCEPTING_TRAFFIC);
+        RateLimitFilter filter = new RateLimitFilter(
+                new LoadShedder(clientRateLimiter, new AdaptiveConcurrencyLimiter(concurrency), clock::get), applicationAvailability);
+
+        MockHttpServletResponse response = null;
+        for (int i = 0; i < 3; i++) {
+            response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), response, new MockFilterChain());
+        }
+
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+
+        MockHttpServletResponse browseResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products/1"), browseResponse, new MockFilterChain());
+        assertEquals(200, browseResponse.getStatus());
+    }
+}
@@ -0,0 +1,110 @@
+package com.pawelapps.ecommerce.search;
+
+import com.pawelapps.ecommerce.dto.ProductSuggestionDto;
+import com.pawelapps.ecommerce.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductSuggestionIndexTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ProductSuggestionIndex productSuggestionIndex;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        productSuggestionIndex = new ProductSuggestionIndex(jdbcTemplate, 3);
+
+        ResultSet orderLineCounts = mock(ResultSet.class);
+        when(orderLineCounts.getLong(1)).thenReturn(2L, 3L);
+        when(orderLineCounts.getLong(2)).thenReturn(5L, 1L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(orderLineCounts);
+            handler.processRow(orderLineCounts);
+            return null;
+        }).when(jdbcTemplate).query(contains("order_item"), any(RowCallbackHandler.class));
+
+        ResultSet products = mock(ResultSet.class);
+        when(products.getLong(1)).thenReturn(1L, 2L, 3L, 4L);
+        when(products.getString(2)).thenReturn("Blue Cup", "Black Mug", "Blue  Plate", "Cup Holder");
+        when(products.getString(3)).thenReturn("CUP-1", "MUG-1", "PLT-1", "HLD-1");
+        doAnswer(invocation -> {
+            RowMapper<?> rowMapper = invocation.getArgument(1);
+            return List.of(rowMapper.mapRow(products, 0), rowMapper.mapRow(products, 1),
+                    rowMapper.mapRow(products, 2), rowMapper.mapRow(products, 3));
+        }).when(jdbcTemplate).query(contains("FROM `product`"), any(RowMapper.class));
+
+        productSuggestionIndex.rebuild();
+    }
+
+    @Test
+    void shouldRankPrefixMatchesByOrderLineCount() {
+        assertEquals(List.of(2L, 3L, 1L), ids(productSuggestionIndex.suggest("bl", 10)));
+        assertEquals(List.of(3L, 1L), ids(productSuggestionIndex.suggest("BLUE ", 10)));
+        assertEquals(List.of(2L), ids(productSuggestionIndex.suggest("bl", 1)));
+    }
+
+    @Test
+    void shouldMatchNameWordsAndSkus() {
+        assertEquals(List.of(1L, 4L), ids(productSuggestionIndex.suggest("cup", 10)));
+        assertEquals(List.of(2L), ids(productSuggestionIndex.suggest("mug-", 10)));
+        assertEquals(List.of(3L), ids(productSuggestionIndex.suggest("plate", 10)));
+        assertTrue(productSuggestionIndex.suggest("cups", 10).isEmpty());
+        assertTrue(productSuggestionIndex.suggest(" ", 10).isEmpty());
+    }
+
+    @Test
+    void shouldUpdateIncrementally() {
+        productSuggestionIndex.productSaved(Product.builder().id(2L).name("Blue Mug").sku("MUG-1").active(true).build());
+        productSuggestionIndex.productDeleted(3L);
+        productSuggestionIndex.productSaved(Product.builder().id(5L).name("Bluetooth Speaker").sku("SPK-1").active(true).build());
+        productSuggestionIndex.productSaved(Product.builder().id(4L).name("Cup Holder").sku("HLD-1").active(false).build());
+
+        assertEquals(List.of(2L, 1L, 5L), ids(productSuggestionIndex.suggest("blue", 10)));
+        assertEquals(List.of(1L), ids(productSuggestionIndex.suggest("cup", 10)));
+        assertTrue(productSuggestionIndex.suggest("black", 10).isEmpty());
+        assertTrue(productSuggestionIndex.suggest("plt", 10).isEmpty());
+        verify(jdbcTemplate, times(1)).query(contains("FROM `product`"), any(RowMapper.class));
+    }
+
+    @Test
+    void shouldKeepWritesAppliedWhileRebuilding() throws SQLException {
+        ResultSet staleProducts = mock(ResultSet.class);
+        when(staleProducts.getLong(1)).thenReturn(1L);
+        when(staleProducts.getString(2)).thenReturn("Blue Cup");
+        when(staleProducts.getString(3)).thenReturn("CUP-1");
+        doAnswer(invocation -> {
+            // committed after the rebuild started reading, which still returns the product rows read before
+            productSuggestionIndex.productSaved(Product.builder().id(5L).name("Bluetooth Speaker").sku("SPK-1").active(true).build());
+            productSuggestionIndex.productDeleted(1L);
+            RowMapper<?> rowMapper = invocation.getArgument(1);
+            return List.of(rowMapper.mapRow(staleProducts, 0));
+        }).when(jdbcTemplate).query(contains("FROM `product`"), any(RowMapper.class));
+
+        productSuggestionIndex.rebuild();
+
+        assertEquals(List.of(5L), ids(productSuggestionIndex.suggest("blue", 10)));
+        assertTrue(productSuggestionIndex.suggest("cup", 10).isEmpty());
+    }
+
+    @Test
+    void shouldNormalizeWhitespaceAndCase() {
+        assertEquals("blue cup ", ProductSuggestionIndex.normalize("  Blue \t CUP  "));
+    }
+
+    private List<Long> ids(List<ProductSuggestionDto> suggestions) {
+        return suggestions.stream().map(ProductSuggestionDto::id).toList();
+    }
+}
@@ -0,0 +1,82 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.entity.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"ecommerce.outbox.relay-interval-ms=3600000", "ecommerce.cart-expiry.interval-ms=3600000",
+        "ecommerce.cart-expiry.touch-flush-interval-ms=3600000"})
+@Transactional
+class CartExpiryJobTest {
+
+    @Autowired
+    private CartExpiryJob cartExpiryJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Cart cart(String email, LocalDateTime lastTouched) {
+        User user = User.builder().email(email).build();
+        Cart cart = Cart.builder().user(user).lastTouched(lastTouched).build();
+        cart.addCartProduct(CartProduct.builder().name("Expiring mug").quantity(1).build());
+        entityManager.persist(cart);
+        return cart;
+    }
+
+    private boolean exists(String table, Long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM `" + table + "` WHERE `id` = ?", Integer.class, id) == 1;
+    }
+
+    @Test
+    void shouldDeleteExpiredCartsAndGuestUsers() {
+        Cart expiredCart = cart("expired@email.com", LocalDateTime.now().minusDays(40));
+        Cart expiredCartWithOrders = cart("customer@email.com", LocalDateTime.now().minusDays(40));
+        entityManager.persist(Order.builder().user(expiredCartWithOrders.getUser()).build());
+        Cart activeCart = cart("active@email.com", LocalDateTime.now().minusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        CartExpiryJob.BatchResult batchResult = cartExpiryJob.deleteExpiredBatch(LocalDateTime.now().minusDays(30));
+
+        assertEquals(2, batchResult.carts());
+        assertEquals(2, batchResult.cartProducts());
+        assertEquals(1, batchResult.users());
+        assertFalse(exists("cart", expiredCart.getId()));
+        assertFalse(exists("user", expiredCart.getUser().getId()));
+        assertFalse(exists("cart", expiredCartWithOrders.getId()));
+        assertTrue(exists("user", expiredCartWithOrders.getUser().getId()));
+        assertTrue(exists("cart", activeCart.getId()));
+        assertTrue(cartExpiryJob.getStatus().getCartsDeleted() >= 2);
+    }
+
+    @Test
+    void shouldWriteTouchesOncePerInterval() {
+        Cart cart = cart("touched@email.com", LocalDateTime.now().minusDays(40));
+        entityManager.flush();
+
+        cartExpiryJob.touch(cart.getId());
+        assertEquals(1, cartExpiryJob.getStatus().getPendingTouches());
+        cartExpiryJob.flushTouches();
+        cartExpiryJob.touch(cart.getId());
+
+        assertEquals(0, cartExpiryJob.getStatus().getPendingTouches());
+        LocalDateTime lastTouched = jdbcTemplate.queryForObject("SELECT `last_touched` FROM `cart` WHERE `id` = ?",
+                LocalDateTime.class, cart.getId());
+        assertTrue(lastTouched.isAfter(LocalDateTime.now().minusMinutes(1)));
+
+        CartExpiryJob.BatchResult batchResult = cartExpiryJob.deleteExpiredBatch(LocalDateTime.now().minusDays(30));
+        assertEquals(0, batchResult.carts());
+    }
+}
@@ -1,9 +1,11 @@
 package com.pawelapps.ecommerce.service;
 
+import com.pawelapps.ecommerce.cache.UserKeyCache;
 import com.pawelapps.ecommerce.dao.CartProductRepository;
 import com.pawelapps.ecommerce.dao.CartRepository;
 import com.pawelapps.ecommerce.dao.ProductRepository;
 import com.pawelapps.ecommerce.dto.CartProductDto;
+import com.pawelapps.ecommerce.dto.ProductDto;
 import com.pawelapps.ecommerce.entity.*;
 import com.pawelapps.ecommerce.exception.NotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +22,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -34,11 +37,16 @@ public class CartProductServiceTest {
     @MockBean
     private ProductRepository productRepository;
 
+    @MockBean
+    private UserKeyCache userKeyCache;
+
     @Autowired
     private CartProductService cartProductService;
 
     private final String userEmail = "test@email.com";
 
+    private final Long cartId = 1L;
+
     private User user;
 
     private Cart cart;
@@ -65,7 +73,7 @@ public class CartProductServiceTest {
 
         user = User.builder().email(userEmail).build();
 
-        cart = Cart.builder().user(user).build();
+        cart = Cart.builder().id(cartId).user(user).build();
 
         productCategory = ProductCategory.builder().categoryName("Test Category").build();
 
@@ -89,7 +97,7 @@ public class CartProductServiceTest {
 
         cartProductDto1 = CartProductDto.builder()
                 .cartProductId(1L)
-                .product(product1)
+                .product(ProductDto.builder().id(product1.getId()).name(product1.getName()).build())
                 .cartProductId(product1.getId())
                 .name(product1.getName())
                 .description(product1.getDescription())
@@ -98,7 +106,7 @@ public class CartProductServiceTest {
 
         cartProductDto2 = CartProductDto.builder()
                 .cartProductId(2L)
-                .product(product2)
+                .product(ProductDto.builder().id(product2.getId()).name(product2.getName()).build())
                 .cartProductId(product2.getId())
                 .name(product2.getName())
                 .description(product2.getDescription())
@@ -106,21 +114,21 @@ public class CartProductServiceTest {
                 .build();
 
         cartProduct1 = CartProduct.builder()
-                .cartProductId(cartProductDto1.getCartProductId())
+                .cartProductId(cartProductDto1.cartProductId())
                 .product(product1)
-                .cartProductId(cartProductDto1.getCartProductId())
-                .name(cartProductDto1.getName())
-                .description(cartProductDto1.getDescription())
-                .quantity(cartProductDto1.getQuantity())
+                .cartProductId(cartProductDto1.cartProductId())
+                .name(cartProductDto1.name())
+                .description(cartProductDto1.description())
+                .quantity(cartProductDto1.quantity())
                 .build();
 
         cartProduct2 = CartProduct.builder()
-                .cartProductId(cartProductDto2.getCartProductId())
+                .cartProductId(cartProductDto2.cartProductId())
                 .product(product2)
-                .cartProductId(cartProductDto2.getCartProductId())
-                .name(cartProductDto2.getName())
-                .description(cartProductDto2.getDescription())
-                .quantity(cartProductDto2.getQuantity())
+                .cartProductId(cartProductDto2.cartProductId())
+                .name(cartProductDto2.name())
+                .description(cartProductDto2.description())
+                .quantity(cartProductDto2.quantity())
                 .build();
 
         cartProducts.add(cartProduct1);
@@ -132,32 +140,54 @@ public class CartProductServiceTest {
 
         @Test
         void shouldSaveCartProductWhenCartIsPresent() {
-            when(cartRepository.findByUserEmail(userEmail)).thenReturn(cart);
-            when(cartProductRepository.save(any(CartProduct.class))).thenReturn(cartProduct1);
+            when(userKeyCache.resolve(userEmail)).thenReturn(new UserKeyCache.UserKeys(List.of(1L), cartId));
+            when(cartRepository.findById(cartId)).thenReturn(Optional.of(cart));
+            when(cartProductRepository.findByCartIdAndProductId(cartId, product1.getId())).thenReturn(Optional.of(cartProduct1));
 
             CartProductDto savedCartProductDto = cartProductService.saveCartProductToCart(cartProductDto1, userEmail);
 
             assertNotNull(savedCartProductDto);
-            assertNotNull(savedCartProductDto.getCartProductId());
-            assertEquals(cart, savedCartProductDto.getCart());
+            assertNotNull(savedCartProductDto.cartProductId());
+            assertEquals(cartId, savedCartProductDto.cartId());
 
-            verify(cartRepository).findByUserEmail(userEmail);
-            verify(cartProductRepository).save(any(CartProduct.class));
+            verify(cartRepository).findById(cartId);
+            verify(cartRepository, never()).save(any(Cart.class));
+            verify(cartProductRepository).upsertCartProduct(eq(cartId), eq(product1.getId()), eq(1), any(), any(), any(), any());
+            verify(cartProductRepository, never()).save(any(CartProduct.class));
+        }
+
+        @Test
+        void shouldReturnMergedQuantityWhenCartAlreadyContainsProduct() {
+            when(userKeyCache.resolve(userEmail)).thenReturn(new UserKeyCache.UserKeys(List.of(1L), cartId));
+            when(cartRepository.findById(cartId)).thenReturn(Optional.of(cart));
+            cartProduct1.setQuantity(3);
+            when(cartProductRepository.findByCartIdAndProductId(cartId, product1.getId())).thenReturn(Optional.of(cartProduct1));
+
+            CartProductDto savedCartProductDto = cartProductService.saveCartProductToCart(cartProductDto1, userEmail);
+
+            assertEquals(cartProduct1.getCartProductId(), savedCartProductDto.cartProductId());
+            assertEquals(3, savedCartProductDto.quantity());
         }
 
         @Test
         void shouldSaveCartProductWhenCartIsNotPresent() {
-            when(cartRepository.findByUserEmail(userEmail)).thenReturn(null);
-            when(cartProductRepository.save(any(CartProduct.class))).thenReturn(cartProduct1);
+            when(userKeyCache.resolve(userEmail)).thenReturn(new UserKeyCache.UserKeys(List.of(), null));
+            when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> {
+                Cart newCart = invocation.getArgument(0);
+                newCart.setId(cartId);
+                return newCart;
+            });
+            when(cartProductRepository.findByCartIdAndProductId(cartId, product1.getId())).thenReturn(Optional.of(cartProduct1));
 
             CartProductDto savedCartProductDto = cartProductService.saveCartProductToCart(cartProductDto1, userEmail);
 
             assertNotNull(savedCartProductDto);
-            assertNotNull(savedCartProductDto.getCartProductId());
-            assertNotNull(savedCartProductDto.getCart());
+            assertNotNull(savedCartProductDto.cartProductId());
+            assertEquals(cartId, savedCartProductDto.cartId());
 
-            verify(cartRepository).findByUserEmail(userEmail);
-            verify(cartProductRepository).save(any(CartProduct.class));
+            verify(cartRepository).save(any(Cart.class));
+            verify(userKeyCache).evict(userEmail);
+            verify(cartProductRepository).upsertCartProduct(eq(cartId), eq(product1.getId()), eq(1), any(), any(), any(), any());
         }
     }
 
@@ -221,13 +251,25 @@ public class CartProductServiceTest {
 
     @Test
     void shouldFindCartProductsByUserEmail() {
-        when(cartProductRepository.findCartProductsByUserEmail(userEmail)).thenReturn(cartProducts);
+        when(userKeyCache.resolve(userEmail)).thenReturn(new UserKeyCache.UserKeys(List.of(1L), cartId));
+        when(cartProductRepository.findCartProductsByCartId(cartId)).thenReturn(cartProducts);
 
         List<CartProduct> receivedCartProducts = cartProductService.findCartProductsByUserEmail(userEmail);
 
         assertEquals(2, receivedCartProducts.size());
 
-        verify(cartProductRepository).findCartProductsByUserEmail(userEmail);
+        verify(cartProductRepository).findCartProductsByCartId(cartId);
+    }
+
+    @Test
+    void shouldReturnEmptyListWhenUserHasNoCart() {
+        when(userKeyCache.resolve(userEmail)).thenReturn(new UserKeyCache.UserKeys(List.of(), null));
+
+        List<CartProduct> receivedCartProducts = cartProductService.findCartProductsByUserEmail(userEmail);
+
+        assertTrue(receivedCartProducts.isEmpty());
+
+        verify(cartProductRepository, never()).findCartProductsByCartId(any());
     }
 
     @Test
@@ -284,9 +326,11 @@ public class CartProductServiceTest {
 
     @Test
     void shouldDeleteAllCartProducts() {
+        when(userKeyCache.resolve(userEmail)).thenReturn(new UserKeyCache.UserKeys(List.of(1L), cartId));
+
         cartProductService.deleteAllCartProductsByUserEmail(userEmail);
 
-        verify(cartProductRepository).deleteAllCartProductsByUserEmail(userEmail);
+        verify(cartProductRepository).deleteAllCartProductsByCartId(cartId);
     }
 
 
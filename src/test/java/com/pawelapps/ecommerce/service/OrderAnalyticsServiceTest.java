@@ -0,0 +1,116 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.dto.AnalyticsPeriod;
+import com.pawelapps.ecommerce.dto.RevenuePeriodDto;
+import com.pawelapps.ecommerce.dto.SalesTotalDto;
+import com.pawelapps.ecommerce.entity.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "ecommerce.outbox.relay-interval-ms=3600000")
+@Transactional
+class OrderAnalyticsServiceTest {
+
+    // a Monday, so the first three days share one week
+    private final LocalDate monday = LocalDate.of(2023, 1, 2);
+
+    @Autowired
+    private OrderAnalyticsService orderAnalyticsService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private ProductCategory mugs;
+    private Product mug;
+    private Product cup;
+
+    @BeforeEach
+    void setUp() {
+        mugs = ProductCategory.builder().categoryName("Analytics mugs").build();
+        entityManager.persist(mugs);
+        mug = Product.builder().sku("ANALYTICS-1").name("Analytics mug").unitPrice(new BigDecimal("2.50")).unitsInStock(10).build();
+        cup = Product.builder().sku("ANALYTICS-2").name("Analytics cup").unitPrice(BigDecimal.ONE).unitsInStock(10).build();
+        mugs.addProduct(mug);
+        mugs.addProduct(cup);
+        entityManager.persist(mug);
+        entityManager.persist(cup);
+    }
+
+    private Order placeOrder(LocalDate date, int mugs, int cups) {
+        Order order = Order.builder()
+                .dateCreated(date.atTime(12, 0))
+                .summary(Summary.builder().shippingPrice(BigDecimal.ONE).build())
+                .build();
+        order.addOrderProduct(OrderProduct.builder().product(mug).unitPrice(mug.getUnitPrice()).quantity(mugs).build());
+        order.addOrderProduct(OrderProduct.builder().product(cup).unitPrice(cup.getUnitPrice()).quantity(cups).build());
+        entityManager.persist(order);
+        orderAnalyticsService.recordOrder(order);
+        return order;
+    }
+
+    @Test
+    void shouldAggregateRevenuePerDayAndWeek() {
+        placeOrder(monday, 1, 1);
+        placeOrder(monday, 2, 0);
+        placeOrder(monday.plusDays(2), 0, 3);
+        placeOrder(monday.plusDays(7), 1, 0);
+
+        List<RevenuePeriodDto> days = orderAnalyticsService.getRevenue(monday, monday.plusDays(6), AnalyticsPeriod.DAY);
+        List<RevenuePeriodDto> weeks = orderAnalyticsService.getRevenue(monday, monday.plusDays(13), AnalyticsPeriod.WEEK);
+
+        assertEquals(List.of(monday, monday.plusDays(2)), days.stream().map(RevenuePeriodDto::periodStart).toList());
+        assertEquals(2, days.get(0).orderCount());
+        assertEquals(4, days.get(0).units());
+        assertEquals(new BigDecimal("8.50"), days.get(0).revenue());
+        assertEquals(new BigDecimal("2.00"), days.get(0).shipping());
+        assertEquals(new BigDecimal("4.25"), days.get(0).averageBasket());
+
+        assertEquals(List.of(monday, monday.plusDays(7)), weeks.stream().map(RevenuePeriodDto::periodStart).toList());
+        assertEquals(3, weeks.get(0).orderCount());
+        assertEquals(new BigDecimal("11.50"), weeks.get(0).revenue());
+    }
+
+    @Test
+    void shouldRankProductsAndCategories() {
+        placeOrder(monday, 1, 4);
+        placeOrder(monday.plusDays(1), 2, 1);
+
+        List<SalesTotalDto> products = orderAnalyticsService.getTopProducts(monday, monday.plusDays(1), 10);
+        List<SalesTotalDto> categories = orderAnalyticsService.getCategories(monday, monday.plusDays(1));
+
+        assertEquals(List.of(new SalesTotalDto(cup.getId(), 5, new BigDecimal("5.00")),
+                new SalesTotalDto(mug.getId(), 3, new BigDecimal("7.50"))), products);
+        assertEquals(List.of(new SalesTotalDto(mugs.getId(), 8, new BigDecimal("12.50"))), categories);
+        assertEquals(1, orderAnalyticsService.getTopProducts(monday, monday.plusDays(1), 1).size());
+    }
+
+    @Test
+    void rebuildShouldMatchIncrementalRollups() {
+        placeOrder(monday, 1, 1);
+        placeOrder(monday, 2, 0);
+        placeOrder(monday.plusDays(1), 0, 3);
+        List<RevenuePeriodDto> revenue = orderAnalyticsService.getRevenue(monday, monday.plusDays(1), AnalyticsPeriod.DAY);
+        List<SalesTotalDto> products = orderAnalyticsService.getTopProducts(monday, monday.plusDays(1), 10);
+        entityManager.flush();
+        entityManager.clear();
+
+        int daysRebuilt = orderAnalyticsService.rebuildBefore(monday.plusDays(2));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(2, daysRebuilt);
+        assertEquals(revenue, orderAnalyticsService.getRevenue(monday, monday.plusDays(1), AnalyticsPeriod.DAY));
+        assertEquals(products, orderAnalyticsService.getTopProducts(monday, monday.plusDays(1), 10));
+    }
+}
@@ -0,0 +1,103 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryPageDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryQuery;
+import com.pawelapps.ecommerce.entity.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"ecommerce.outbox.relay-interval-ms=3600000", "ecommerce.cart-expiry.interval-ms=3600000",
+        "ecommerce.cart-expiry.touch-flush-interval-ms=3600000"})
+@Transactional
+class OrderArchiveJobTest {
+
+    private final String userEmail = "archived@email.com";
+
+    @Autowired
+    private OrderArchiveJob orderArchiveJob;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Order order(User user, LocalDateTime dateCreated) {
+        Order order = Order.builder()
+                .user(user)
+                .customer(Customer.builder().email(userEmail).build())
+                .summary(new Summary())
+                .dateCreated(dateCreated.truncatedTo(ChronoUnit.MICROS))
+                .build();
+        order.addOrderProduct(OrderProduct.builder().name("Archived mug").quantity(2).build());
+        entityManager.persist(order);
+        return order;
+    }
+
+    private boolean exists(String table, Long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM `" + table + "` WHERE `id` = ?", Integer.class, id) == 1;
+    }
+
+    @Test
+    void shouldMoveOldOrdersToArchive() {
+        User user = User.builder().email(userEmail).build();
+        Order oldestOrder = order(user, LocalDateTime.now().minusDays(400));
+        Order oldOrder = order(user, LocalDateTime.now().minusDays(390));
+        Order recentOrder = order(user, LocalDateTime.now().minusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        int archived = orderArchiveJob.archiveBatch(LocalDateTime.now().minusDays(365));
+
+        assertEquals(2, archived);
+        assertFalse(exists("orders", oldestOrder.getId()));
+        assertFalse(exists("summary", oldestOrder.getSummary().getId()));
+        assertFalse(exists("customer", oldOrder.getCustomer().getId()));
+        assertTrue(exists("orders", recentOrder.getId()));
+        assertTrue(exists("user", user.getId()));
+        assertEquals(0, orderArchiveJob.archiveBatch(LocalDateTime.now().minusDays(365)));
+        assertTrue(orderArchiveJob.getStatus().getOrdersArchived() >= 2);
+
+        OrderDto archivedOrder = orderService.findById(oldOrder.getId());
+        assertEquals(oldOrder.getDateCreated(), archivedOrder.dateCreated());
+        assertEquals(2, archivedOrder.orderProducts().get(0).quantity());
+
+        List<Long> allOrderIds = orderService.getAllOrders().stream().map(OrderDto::id).toList();
+        assertTrue(allOrderIds.containsAll(List.of(oldestOrder.getId(), oldOrder.getId(), recentOrder.getId())));
+    }
+
+    @Test
+    void shouldContinueOrderHistoryIntoArchive() {
+        User user = User.builder().email(userEmail).build();
+        Order oldestOrder = order(user, LocalDateTime.now().minusDays(400));
+        Order oldOrder = order(user, LocalDateTime.now().minusDays(390));
+        Order recentOrder = order(user, LocalDateTime.now().minusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+        orderArchiveJob.archiveBatch(LocalDateTime.now().minusDays(365));
+
+        OrderHistoryPageDto firstPage = orderService.findByUserEmail(userEmail, OrderHistoryQuery.builder().size(2).build());
+        OrderHistoryPageDto secondPage = orderService.findByUserEmail(userEmail,
+                OrderHistoryQuery.builder().size(2).cursor(firstPage.nextCursor()).build());
+
+        assertEquals(List.of(recentOrder.getId(), oldOrder.getId()), firstPage.orders().stream().map(OrderDto::id).toList());
+        assertNotNull(firstPage.nextCursor());
+        assertEquals(List.of(oldestOrder.getId()), secondPage.orders().stream().map(OrderDto::id).toList());
+        assertNull(secondPage.nextCursor());
+    }
+}
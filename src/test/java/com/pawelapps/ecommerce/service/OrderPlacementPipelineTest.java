@@ -0,0 +1,87 @@
+package com.pawelapps.ecommerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pawelapps.ecommerce.dao.OrderRequestRepository;
+import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.dto.UserDto;
+import com.pawelapps.ecommerce.entity.OrderRequest;
+import com.pawelapps.ecommerce.entity.OrderRequestStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class OrderPlacementPipelineTest {
+
+    @MockBean
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRequestRepository orderRequestRepository;
+
+    @Autowired
+    private OrderPlacementPipeline orderPlacementPipeline;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        orderRequestRepository.deleteAll();
+    }
+
+    private OrderRequest savePendingRequest(String idempotencyKey, String userEmail) throws Exception {
+        OrderDto orderDto = OrderDto.builder().user(UserDto.builder().email(userEmail).build()).build();
+        return orderRequestRepository.save(OrderRequest.builder()
+                .idempotencyKey(idempotencyKey)
+                .userEmail(userEmail)
+                .status(OrderRequestStatus.PENDING)
+                .payload(objectMapper.writeValueAsString(orderDto))
+                .dateCreated(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void shouldCompleteBatchAndFailOnlyRejectedOrder() throws Exception {
+        OrderRequest accepted = savePendingRequest("key-1", "ok@email.com");
+        OrderRequest rejected = savePendingRequest("key-2", "rejected@email.com");
+
+        when(orderService.saveOrder(any(OrderDto.class))).thenAnswer(invocation -> {
+            OrderDto orderDto = invocation.getArgument(0);
+            if (orderDto.user().email().equals("rejected@email.com")) {
+                throw new IllegalArgumentException("Not enough quantity available for the product.");
+            }
+            return OrderDto.builder().id(99L).build();
+        });
+
+        orderPlacementPipeline.placeBatch(List.of(accepted.getId(), rejected.getId()));
+
+        OrderRequest acceptedAfterBatch = orderRequestRepository.findById(accepted.getId()).orElseThrow();
+        OrderRequest rejectedAfterBatch = orderRequestRepository.findById(rejected.getId()).orElseThrow();
+
+        assertEquals(OrderRequestStatus.COMPLETED, acceptedAfterBatch.getStatus());
+        assertEquals(99L, acceptedAfterBatch.getOrderId());
+        assertEquals(OrderRequestStatus.FAILED, rejectedAfterBatch.getStatus());
+        assertEquals("Not enough quantity available for the product.", rejectedAfterBatch.getFailureReason());
+    }
+
+    @Test
+    void shouldNotPlaceAlreadyCompletedRequestAgain() throws Exception {
+        OrderRequest orderRequest = savePendingRequest("key-3", "ok@email.com");
+        when(orderService.saveOrder(any(OrderDto.class))).thenReturn(OrderDto.builder().id(100L).build());
+
+        orderPlacementPipeline.placeBatch(List.of(orderRequest.getId()));
+        orderPlacementPipeline.placeBatch(List.of(orderRequest.getId()));
+
+        verify(orderService, times(1)).saveOrder(any(OrderDto.class));
+    }
+}
@@ -0,0 +1,127 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.dao.OrderRequestRepository;
+import com.pawelapps.ecommerce.dao.ProductRepository;
+import com.pawelapps.ecommerce.dto.*;
+import com.pawelapps.ecommerce.entity.*;
+import com.pawelapps.ecommerce.exception.CheckoutUnavailableException;
+import com.pawelapps.ecommerce.exception.InvalidOrderException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class OrderRequestServiceTest {
+
+    @MockBean
+    private OrderRequestRepository orderRequestRepository;
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    @MockBean
+    private OrderPlacementPipeline orderPlacementPipeline;
+
+    @Autowired
+    private OrderRequestService orderRequestService;
+
+    private final String idempotencyKey = "3f1c2a4e-checkout";
+    private final String userEmail = "user@email.com";
+
+    private Product product;
+    private OrderDto orderDto;
+
+    @BeforeEach
+    void setUp() {
+        product = Product.builder().id(1L).name("Test Product").unitsInStock(5).unitPrice(BigDecimal.valueOf(2)).build();
+
+        OrderProductDto orderProduct = OrderProductDto.builder()
+                .product(ProductDto.builder().id(product.getId()).build())
+                .name(product.getName())
+                .unitPrice(product.getUnitPrice())
+                .quantity(2)
+                .build();
+
+        orderDto = OrderDto.builder()
+                .user(UserDto.builder().email(userEmail).build())
+                .customer(CustomerDto.builder().firstName("Test").email("customer@email.com").build())
+                .shippingAddress(ShippingAddressDto.builder().city("Test City").build())
+                .summary(SummaryDto.builder().totalCartValue(BigDecimal.valueOf(4)).totalQuantityOfProducts(2).build())
+                .orderProducts(List.of(orderProduct))
+                .build();
+    }
+
+    @Test
+    void shouldAcceptNewOrderAndSubmitItToPipeline() {
+        when(orderRequestRepository.findByIdempotencyKey(idempotencyKey)).thenReturn(Optional.empty());
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+        when(orderRequestRepository.saveAndFlush(any(OrderRequest.class))).thenAnswer(invocation -> {
+            OrderRequest orderRequest = invocation.getArgument(0);
+            orderRequest.setId(10L);
+            return orderRequest;
+        });
+        when(orderPlacementPipeline.submit(10L)).thenReturn(true);
+
+        OrderRequestDto orderRequestDto = orderRequestService.acceptOrder(orderDto, idempotencyKey);
+
+        assertEquals(10L, orderRequestDto.getId());
+        assertEquals(OrderRequestStatus.PENDING, orderRequestDto.getStatus());
+        assertEquals(userEmail, orderRequestDto.getUserEmail());
+        assertNull(orderRequestDto.getOrderId());
+
+        verify(orderPlacementPipeline).submit(10L);
+    }
+
+    @Test
+    void shouldReturnExistingRequestForRepeatedIdempotencyKey() {
+        OrderRequest existingOrderRequest = OrderRequest.builder()
+                .id(10L)
+                .idempotencyKey(idempotencyKey)
+                .userEmail(userEmail)
+                .status(OrderRequestStatus.COMPLETED)
+                .orderId(55L)
+                .build();
+        when(orderRequestRepository.findByIdempotencyKey(idempotencyKey)).thenReturn(Optional.of(existingOrderRequest));
+
+        OrderRequestDto orderRequestDto = orderRequestService.acceptOrder(orderDto, idempotencyKey);
+
+        assertEquals(OrderRequestStatus.COMPLETED, orderRequestDto.getStatus());
+        assertEquals(55L, orderRequestDto.getOrderId());
+
+        verify(orderRequestRepository, never()).saveAndFlush(any(OrderRequest.class));
+        verify(orderPlacementPipeline, never()).submit(anyLong());
+    }
+
+    @Test
+    void shouldRejectOrderWhenStockIsTooLow() {
+        product.setUnitsInStock(1);
+        when(orderRequestRepository.findByIdempotencyKey(idempotencyKey)).thenReturn(Optional.empty());
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+
+        assertThrows(InvalidOrderException.class, () -> orderRequestService.acceptOrder(orderDto, idempotencyKey));
+
+        verify(orderRequestRepository, never()).saveAndFlush(any(OrderRequest.class));
+    }
+
+    @Test
+    void shouldRejectOrderWhenPipelineIsFull() {
+        when(orderRequestRepository.findByIdempotencyKey(idempotencyKey)).thenReturn(Optional.empty());
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+        when(orderPlacementPipeline.isFull()).thenReturn(true);
+
+        assertThrows(CheckoutUnavailableException.class, () -> orderRequestService.acceptOrder(orderDto, idempotencyKey));
+
+        verify(orderRequestRepository, never()).saveAndFlush(any(OrderRequest.class));
+    }
+}
@@ -1,11 +1,13 @@
 package com.pawelapps.ecommerce.service;
 
+import com.pawelapps.ecommerce.cache.UserKeyCache;
 import com.pawelapps.ecommerce.dao.OrderRepository;
-import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.dto.*;
 import com.pawelapps.ecommerce.entity.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -15,6 +17,7 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -34,11 +37,25 @@ public class OrderServiceTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private UserKeyCache userKeyCache;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private OrderAnalyticsService orderAnalyticsService;
+
+    @MockBean
+    private OrderSnapshotService orderSnapshotService;
+
     private Order order;
     private List<Order> orders;
 
     private OrderDto orderDto;
 
+    private final OrderHistoryQuery orderHistoryQuery = OrderHistoryQuery.builder().size(20).build();
+
     private Product product1;
     private Product product2;
 
@@ -79,8 +96,8 @@ public class OrderServiceTest {
 
         productCategory = ProductCategory.builder().categoryName("Test Category").build();
 
-        product1 = Product.builder().id(1L).name("Test Product 1").productCategory(productCategory).unitsInStock(10).build();
-        product2 = Product.builder().id(2L).name("Test Product 1").productCategory(productCategory).unitsInStock(5).build();
+        product1 = Product.builder().id(1L).name("Test Product 1").productCategory(productCategory).unitPrice(BigDecimal.valueOf(2.59)).unitsInStock(10).build();
+        product2 = Product.builder().id(2L).name("Test Product 1").productCategory(productCategory).unitPrice(BigDecimal.valueOf(1.5)).unitsInStock(5).build();
 
         orderProduct1 = OrderProduct.builder()
                 .product(product1)
@@ -118,52 +135,77 @@ public class OrderServiceTest {
         orderProducts.add(orderProduct2);
 
         orderDto = OrderDto.builder()
-                .user(user)
-                .customer(customer)
-                .shippingAddress(shippingAddress)
-                .summary(summary)
+                .user(UserDto.builder().email(userEmail).build())
+                .customer(CustomerDto.builder()
+                        .firstName(customer.getFirstName())
+                        .lastName(customer.getLastName())
+                        .email(customer.getEmail())
+                        .phoneNumber(customer.getPhoneNumber())
+                        .build())
+                .shippingAddress(ShippingAddressDto.builder()
+                        .country(shippingAddress.getCountry())
+                        .city(shippingAddress.getCity())
+                        .streetAddress(shippingAddress.getStreetAddress())
+                        .zipCode(shippingAddress.getZipCode())
+                        .build())
+                .summary(SummaryDto.builder()
+                        .totalCartValue(summary.getTotalCartValue())
+                        .totalQuantityOfProducts(summary.getTotalQuantityOfProducts())
+                        .build())
+                .orderProducts(List.of(orderProductDto(orderProduct1), orderProductDto(orderProduct2)))
                 .build();
 
-        orderDto.setOrderProducts(orderProducts);
-
         orders = new ArrayList<>();
         orders.add(order);
     }
 
+    private OrderDto withId(OrderDto orderDto, Long id) {
+        return new OrderDto(id, orderDto.dateCreated(), orderDto.customer(), orderDto.shippingAddress(),
+                orderDto.summary(), orderDto.user(), orderDto.orderProducts());
+    }
+
+    private OrderProductDto orderProductDto(OrderProduct orderProduct) {
+        return OrderProductDto.builder()
+                .product(ProductDto.builder()
+                        .id(orderProduct.getProduct().getId())
+                        .name(orderProduct.getProduct().getName())
+                        .unitsInStock(orderProduct.getProduct().getUnitsInStock())
+                        .build())
+                .name(orderProduct.getName())
+                .description(orderProduct.getDescription())
+                .unitPrice(orderProduct.getUnitPrice())
+                .imageUrl(orderProduct.getImageUrl())
+                .quantity(orderProduct.getQuantity())
+                .build();
+    }
+
     @Test
     void shouldMapOrderDtoToOrder() {
-        OrderDto orderDto = OrderDto.builder()
-                .id(1L)
-                .customer(customer)
-                .shippingAddress(shippingAddress)
-                .summary(summary)
-                .user(user)
-                .orderProducts(orderProducts)
-                .build();
+        OrderDto orderDto = withId(this.orderDto, 1L);
 
         Order order = orderService.mapOrderDtoToOrder(orderDto);
 
-        assertEquals(orderDto.getId(), order.getId());
-        assertEquals(orderDto.getCustomer(), order.getCustomer());
-        assertEquals(orderDto.getShippingAddress(), order.getShippingAddress());
-        assertEquals(orderDto.getSummary(), order.getSummary());
-        assertEquals(orderDto.getUser(), order.getUser());
-        assertEquals(orderDto.getOrderProducts(), order.getOrderProducts());
-        assertEquals(orderDto.getOrderProducts().size(), order.getOrderProducts().size());
+        assertEquals(orderDto.id(), order.getId());
+        assertEquals(orderDto.customer().email(), order.getCustomer().getEmail());
+        assertEquals(orderDto.shippingAddress().city(), order.getShippingAddress().getCity());
+        assertEquals(orderDto.summary().totalCartValue(), order.getSummary().getTotalCartValue());
+        assertEquals(orderDto.user().email(), order.getUser().getEmail());
+        assertEquals(orderDto.orderProducts().size(), order.getOrderProducts().size());
+        assertEquals(orderDto.orderProducts().get(0).product().id(), order.getOrderProducts().get(0).getProduct().getId());
+        assertSame(order, order.getOrderProducts().get(0).getOrder());
     }
 
     @Test
     void shouldMapOrderToOrderDto() {
         OrderDto orderDto = orderService.mapOrderToOrderDto(this.order);
 
-        assertEquals(order.getId(), orderDto.getId());
-        assertEquals(order.getCustomer(), orderDto.getCustomer());
-        assertEquals(order.getShippingAddress(), orderDto.getShippingAddress());
-        assertEquals(order.getSummary(), orderDto.getSummary());
-        assertEquals(order.getUser(), orderDto.getUser());
-        assertEquals(order.getOrderProducts(), orderDto.getOrderProducts());
-        assertEquals(order.getOrderProducts().size(), orderDto.getOrderProducts().size());
-
+        assertEquals(order.getId(), orderDto.id());
+        assertEquals(order.getCustomer().getEmail(), orderDto.customer().email());
+        assertEquals(order.getShippingAddress().getCity(), orderDto.shippingAddress().city());
+        assertEquals(order.getSummary().getTotalCartValue(), orderDto.summary().totalCartValue());
+        assertEquals(order.getUser().getEmail(), orderDto.user().email());
+        assertEquals(order.getOrderProducts().size(), orderDto.orderProducts().size());
+        assertEquals(productCategory.getCategoryName(), orderDto.orderProducts().get(0).product().productCategory().categoryName());
     }
 
     @Test
@@ -189,64 +231,90 @@ public class OrderServiceTest {
 
         orderService.saveOrder(orderDto);
 
+        ArgumentCaptor<Order> savedOrder = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(savedOrder.capture());
+        assertEquals(new BigDecimal("16.36"), savedOrder.getValue().getSummary().getTotalCartValue());
+        assertEquals(8, savedOrder.getValue().getSummary().getTotalQuantityOfProducts());
+        assertEquals(BigDecimal.valueOf(1.5), savedOrder.getValue().getOrderProducts().get(1).getUnitPrice());
+
         verify(productService).decreaseProductQuantity(eq(product1.getId()), anyInt());
         verify(productService).decreaseProductQuantity(eq(product2.getId()), anyInt());
 
         verify(orderRepository, times(1)).save(any(Order.class));
+        verify(userKeyCache).evict(userEmail);
+        verify(outboxService).recordOrderCreated(order);
+        verify(orderSnapshotService).saveSnapshot(order);
+        verify(orderAnalyticsService).recordOrder(order);
     }
 
     @Test
     void shouldFindOrdersByUserEmail() {
-        when(orderRepository.findByUserEmail(userEmail)).thenReturn(orders);
+        when(userKeyCache.resolve(userEmail)).thenReturn(new UserKeyCache.UserKeys(List.of(1L), null));
+        OrderHistoryPageDto orderHistoryPageDto = new OrderHistoryPageDto(List.of(orderDto), null);
+        when(orderSnapshotService.findByUserIdIn(List.of(1L), orderHistoryQuery)).thenReturn(orderHistoryPageDto);
 
-        List<OrderDto> ordersDto = orderService.findByUserEmail(userEmail);
+        OrderHistoryPageDto ordersPage = orderService.findByUserEmail(userEmail, orderHistoryQuery);
 
-        assertEquals(ordersDto.size(), orders.size());
+        assertSame(orderHistoryPageDto, ordersPage);
 
-        verify(orderRepository).findByUserEmail(userEmail);
+        verify(orderSnapshotService).findByUserIdIn(List.of(1L), orderHistoryQuery);
+    }
+
+    @Test
+    void shouldNotReadOrdersOfUnknownUser() {
+        when(userKeyCache.resolve(userEmail)).thenReturn(new UserKeyCache.UserKeys(List.of(), null));
+
+        OrderHistoryPageDto ordersPage = orderService.findByUserEmail(userEmail, orderHistoryQuery);
+
+        assertTrue(ordersPage.orders().isEmpty());
+        assertNull(ordersPage.nextCursor());
+
+        verifyNoInteractions(orderSnapshotService);
     }
 
     @Test
     void shouldFindOrdersByCustomerEmail() {
-        when(orderRepository.findByCustomerEmail(customer.getEmail())).thenReturn(orders);
+        OrderHistoryPageDto orderHistoryPageDto = new OrderHistoryPageDto(List.of(orderDto), null);
+        when(orderSnapshotService.findByCustomerEmail(customer.getEmail(), orderHistoryQuery)).thenReturn(orderHistoryPageDto);
 
-        List<OrderDto> ordersDto = orderService.findByCustomerEmail(customer.getEmail());
+        OrderHistoryPageDto ordersPage = orderService.findByCustomerEmail(customer.getEmail(), orderHistoryQuery);
 
-        assertEquals(ordersDto.size(), orders.size());
+        assertSame(orderHistoryPageDto, ordersPage);
 
-        verify(orderRepository).findByCustomerEmail(customer.getEmail());
+        verify(orderSnapshotService).findByCustomerEmail(customer.getEmail(), orderHistoryQuery);
     }
 
     @Test
     void shouldFindOrderById() {
-        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        OrderDto savedOrderDto = withId(orderDto, 1L);
+        when(orderSnapshotService.findByOrderId(1L)).thenReturn(Optional.of(savedOrderDto));
 
-        OrderDto orderDtoAfterMethodExecution = orderService.findById(order.getId());
+        OrderDto orderDtoAfterMethodExecution = orderService.findById(1L);
 
-        assertNotNull(orderDtoAfterMethodExecution);
-        assertEquals(order.getId(), orderDtoAfterMethodExecution.getId());
-        assertEquals(order.getUser().getEmail(), orderDto.getUser().getEmail());
-        assertEquals(order.getOrderProducts().size(), orderDto.getOrderProducts().size());
-        assertEquals(order.getSummary().getTotalQuantityOfProducts(), orderDto.getSummary().getTotalQuantityOfProducts());
-        assertEquals(order.getShippingAddress().getCity(), orderDto.getShippingAddress().getCity());
+        assertSame(savedOrderDto, orderDtoAfterMethodExecution);
 
-        verify(orderRepository).findById(order.getId());
+        verify(orderSnapshotService).findByOrderId(1L);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void shouldThrowWhenOrderNotFound() {
+        when(orderSnapshotService.findByOrderId(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NoSuchElementException.class, () -> orderService.findById(1L));
     }
 
     @Test
     void shouldGetAllOrders() {
-        when(orderRepository.findAll()).thenReturn(orders);
+        when(orderSnapshotService.findAll()).thenReturn(List.of(orderDto));
 
         List<OrderDto> orderDtosAfterMethodExecution = orderService.getAllOrders();
 
-        assertEquals(orders.size(), orderDtosAfterMethodExecution.size());
         assertEquals(1, orderDtosAfterMethodExecution.size());
-        assertEquals(2, orderDtosAfterMethodExecution.get(0).getOrderProducts().size());
+        assertEquals(2, orderDtosAfterMethodExecution.get(0).orderProducts().size());
 
-        verify(orderRepository).findAll();
+        verify(orderSnapshotService).findAll();
     }
 
 
 }
-
-
@@ -0,0 +1,175 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.dao.OrderSnapshotRepository;
+import com.pawelapps.ecommerce.dto.OrderDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryPageDto;
+import com.pawelapps.ecommerce.dto.OrderHistoryQuery;
+import com.pawelapps.ecommerce.entity.*;
+import com.pawelapps.ecommerce.exception.InvalidOrderException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "ecommerce.outbox.relay-interval-ms=3600000")
+@Transactional
+class OrderSnapshotServiceTest {
+
+    @Autowired
+    private OrderSnapshotService orderSnapshotService;
+
+    @Autowired
+    private OrderSnapshotRepository orderSnapshotRepository;
+
+    @Autowired
+    private OrderSnapshotBackfill orderSnapshotBackfill;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().email("snapshot@email.com").build();
+        entityManager.persist(user);
+
+        ProductCategory productCategory = ProductCategory.builder().categoryName("Snapshot mugs").build();
+        entityManager.persist(productCategory);
+        product = Product.builder().sku("SNAPSHOT-1").name("Snapshot mug").unitPrice(BigDecimal.ONE).unitsInStock(10).build();
+        productCategory.addProduct(product);
+        entityManager.persist(product);
+    }
+
+    private Order persistOrder(String city) {
+        return persistOrder(city, null);
+    }
+
+    private Order persistOrder(String city, LocalDateTime dateCreated) {
+        Order order = Order.builder()
+                .dateCreated(dateCreated)
+                .user(user)
+                .customer(Customer.builder().firstName("First Name").email("snapshot-customer@email.com").build())
+                .shippingAddress(ShippingAddress.builder().city(city).build())
+                .summary(Summary.builder().totalCartValue(BigDecimal.TEN).totalQuantityOfProducts(2).build())
+                .build();
+        order.addOrderProduct(OrderProduct.builder().product(product).name("Snapshot mug").unitPrice(BigDecimal.ONE).quantity(2).build());
+        entityManager.persist(order);
+        entityManager.flush();
+        return order;
+    }
+
+    @Test
+    void shouldReadOrderWithoutSnapshotThroughEntityGraph() {
+        Order order = persistOrder("City");
+        entityManager.clear();
+
+        OrderDto orderDto = orderSnapshotService.findByOrderId(order.getId()).orElseThrow();
+
+        assertEquals(order.getId(), orderDto.id());
+        assertEquals("City", orderDto.shippingAddress().city());
+        assertEquals("Snapshot mugs", orderDto.orderProducts().get(0).product().productCategory().categoryName());
+    }
+
+    @Test
+    void shouldReadOrderFromSnapshot() {
+        Order order = persistOrder("City");
+        orderSnapshotService.saveSnapshot(order);
+        order.getShippingAddress().setCity("Changed City");
+        entityManager.flush();
+        entityManager.clear();
+
+        OrderDto orderDto = orderSnapshotService.findByOrderId(order.getId()).orElseThrow();
+
+        assertEquals("City", orderDto.shippingAddress().city());
+        assertEquals("snapshot@email.com", orderDto.user().email());
+        assertEquals(2, orderDto.orderProducts().get(0).quantity());
+        assertEquals(0, BigDecimal.TEN.compareTo(orderDto.summary().totalCartValue()));
+        assertEquals("SNAPSHOT-1", orderDto.orderProducts().get(0).product().sku());
+    }
+
+    @Test
+    void shouldReadHistoryFromSnapshotsAndOrdersWithoutSnapshot() {
+        Order firstOrder = persistOrder("First City");
+        Order secondOrder = persistOrder("Second City");
+        orderSnapshotService.saveSnapshot(secondOrder);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<OrderDto> ordersDto = orderSnapshotService.findByUserIdIn(List.of(user.getId()), page(10, null)).orders();
+
+        assertEquals(List.of(secondOrder.getId(), firstOrder.getId()), ordersDto.stream().map(OrderDto::id).toList());
+        assertEquals("Second City", ordersDto.get(0).shippingAddress().city());
+        assertEquals("First City", ordersDto.get(1).shippingAddress().city());
+    }
+
+    @Test
+    void shouldPageHistoryNewestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        Order oldest = persistOrder("Oldest", now.minusDays(3));
+        Order sameTimeLowerId = persistOrder("Same time", now.minusDays(1));
+        Order sameTimeHigherId = persistOrder("Same time", now.minusDays(1));
+        Order newest = persistOrder("Newest", now);
+        entityManager.clear();
+
+        OrderHistoryPageDto firstPage = orderSnapshotService.findByUserIdIn(List.of(user.getId()), page(2, null));
+        OrderHistoryPageDto secondPage = orderSnapshotService.findByUserIdIn(List.of(user.getId()), page(2, firstPage.nextCursor()));
+
+        assertEquals(List.of(newest.getId(), sameTimeHigherId.getId()), firstPage.orders().stream().map(OrderDto::id).toList());
+        assertEquals(List.of(sameTimeLowerId.getId(), oldest.getId()), secondPage.orders().stream().map(OrderDto::id).toList());
+        assertNotNull(firstPage.nextCursor());
+        assertNull(secondPage.nextCursor());
+    }
+
+    @Test
+    void shouldFilterHistoryByDateRange() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        persistOrder("Too old", now.minusDays(10));
+        Order inRange = persistOrder("In range", now.minusDays(5));
+        persistOrder("Too new", now.minusDays(1));
+        entityManager.clear();
+
+        OrderHistoryQuery orderHistoryQuery = OrderHistoryQuery.builder().from(now.minusDays(7)).to(now.minusDays(2)).size(10).build();
+        OrderHistoryPageDto ordersPage = orderSnapshotService.findByCustomerEmail("snapshot-customer@email.com", orderHistoryQuery);
+
+        assertEquals(List.of(inRange.getId()), ordersPage.orders().stream().map(OrderDto::id).toList());
+        assertEquals(inRange.getDateCreated(), ordersPage.orders().get(0).dateCreated());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(InvalidOrderException.class,
+                () -> orderSnapshotService.findByUserIdIn(List.of(user.getId()), page(10, "not-a-cursor")));
+    }
+
+    private OrderHistoryQuery page(int size, String cursor) {
+        return OrderHistoryQuery.builder().size(size).cursor(cursor).build();
+    }
+
+    @Test
+    void backfillShouldWriteMissingSnapshots() {
+        Order firstOrder = persistOrder("First City");
+        Order secondOrder = persistOrder("Second City");
+        orderSnapshotService.saveSnapshot(secondOrder);
+        entityManager.flush();
+        entityManager.clear();
+
+        orderSnapshotBackfill.backfillBatch();
+        entityManager.flush();
+
+        assertTrue(orderSnapshotRepository.existsById(firstOrder.getId()));
+        assertTrue(orderSnapshotRepository.findOrderIdsWithoutSnapshot(Pageable.unpaged()).isEmpty());
+    }
+}
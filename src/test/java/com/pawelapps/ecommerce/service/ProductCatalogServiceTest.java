@@ -0,0 +1,146 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.catalog.ProductFileFormat;
+import com.pawelapps.ecommerce.dao.ProductRepository;
+import com.pawelapps.ecommerce.dto.ProductImportRejectDto;
+import com.pawelapps.ecommerce.dto.ProductImportReportDto;
+import com.pawelapps.ecommerce.entity.Product;
+import com.pawelapps.ecommerce.entity.ProductCategory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"ecommerce.outbox.relay-interval-ms=3600000", "ecommerce.product-import.batch-size=2"})
+@Transactional
+class ProductCatalogServiceTest {
+
+    @Autowired
+    private ProductCatalogService productCatalogService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private ProductCategory productCategory;
+
+    @BeforeEach
+    void setUp() {
+        productCategory = ProductCategory.builder().categoryName("Imported mugs").build();
+        entityManager.persist(productCategory);
+        entityManager.persist(Product.builder().sku("IMPORT-1").name("Old name").description("Kept description")
+                .unitPrice(BigDecimal.ONE).active(true).unitsInStock(7).productCategory(productCategory).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private ProductImportReportDto importText(String text, ProductFileFormat format) throws IOException {
+        ProductImportReportDto report = productCatalogService.importProducts(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), format);
+        entityManager.clear();
+        return report;
+    }
+
+    private Product findBySku(String sku) {
+        return entityManager.createQuery("SELECT p FROM Product p WHERE p.sku = :sku", Product.class)
+                .setParameter("sku", sku).getSingleResult();
+    }
+
+    @Test
+    void shouldUpsertCsvBySkuAndReportRejects() throws IOException {
+        Long categoryId = productCategory.getId();
+        String csv = "sku,name,unitPrice,categoryId,description\n" +
+                "IMPORT-1,New name,2.50," + categoryId + ",\n" +
+                "IMPORT-2,\"Mug, \"\"large\"\"\",3," + categoryId + ",\"Two\nlines\"\n" +
+                "\n" +
+                "IMPORT-3,Bad price,abc," + categoryId + ",\n" +
+                "IMPORT-4,No category,1,999999,\n" +
+                ",No sku,1," + categoryId + ",\n";
+
+        ProductImportReportDto report = importText(csv, ProductFileFormat.CSV);
+
+        assertEquals(5, report.rowsRead());
+        assertEquals(2, report.rowsImported());
+        assertEquals(3, report.rowsRejected());
+        assertEquals(List.of(new ProductImportRejectDto(6, null, "Invalid unitPrice 'abc'"),
+                new ProductImportRejectDto(7, "IMPORT-4", "Unknown categoryId 999999"),
+                new ProductImportRejectDto(8, null, "Missing sku")), report.rejects());
+
+        Product updated = findBySku("IMPORT-1");
+        assertEquals("New name", updated.getName());
+        assertEquals("Kept description", updated.getDescription());
+        assertEquals(0, new BigDecimal("2.50").compareTo(updated.getUnitPrice()));
+        assertEquals(7, updated.getUnitsInStock());
+        assertNotNull(updated.getLastUpdated());
+
+        Product inserted = findBySku("IMPORT-2");
+        assertEquals("Mug, \"large\"", inserted.getName());
+        assertEquals("Two\nlines", inserted.getDescription());
+        assertTrue(inserted.isActive());
+        assertEquals(0, inserted.getUnitsInStock());
+        assertEquals(categoryId, inserted.getProductCategory().getId());
+    }
+
+    @Test
+    void shouldImportNdjson() throws IOException {
+        String ndjson = "{\"sku\":\"IMPORT-5\",\"name\":\"Json mug\",\"unitPrice\":4.99,\"unitsInStock\":3,\"active\":false,\"categoryId\":"
+                + productCategory.getId() + "}\n" +
+                "{\"sku\":\"IMPORT-6\",\n";
+
+        ProductImportReportDto report = importText(ndjson, ProductFileFormat.NDJSON);
+
+        assertEquals(1, report.rowsImported());
+        assertEquals(2, report.rejects().get(0).line());
+        Product inserted = findBySku("IMPORT-5");
+        assertFalse(inserted.isActive());
+        assertEquals(3, inserted.getUnitsInStock());
+    }
+
+    @Test
+    void exportShouldRoundTripThroughImport() throws IOException {
+        importText("sku,name,unitPrice,categoryId,unitsInStock\n" +
+                "IMPORT-7,\"Comma, mug\",5.00," + productCategory.getId() + ",2\n" +
+                "IMPORT-8,Plain mug,6," + productCategory.getId() + ",4\n", ProductFileFormat.CSV);
+        long productCount = productRepository.count();
+
+        for (ProductFileFormat format : ProductFileFormat.values()) {
+            ByteArrayOutputStream exported = new ByteArrayOutputStream();
+            productCatalogService.exportProducts(exported, format);
+
+            ProductImportReportDto report = importText(exported.toString(StandardCharsets.UTF_8), format);
+
+            assertEquals(productCount, report.rowsRead());
+            assertEquals(productCount, report.rowsImported());
+            assertEquals(productCount, productRepository.count());
+            assertEquals("Comma, mug", findBySku("IMPORT-7").getName());
+        }
+    }
+
+    @Test
+    void exportShouldKeepMissingCategoryEmpty() throws IOException {
+        entityManager.persist(Product.builder().sku("IMPORT-9").name("Uncategorized mug")
+                .unitPrice(BigDecimal.ONE).active(true).unitsInStock(1).build());
+        entityManager.flush();
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        productCatalogService.exportProducts(exported, ProductFileFormat.CSV);
+
+        String line = exported.toString(StandardCharsets.UTF_8).lines()
+                .filter(exportedLine -> exportedLine.startsWith("IMPORT-9,")).findFirst().orElseThrow();
+        assertTrue(line.endsWith(",1,"), line);
+    }
+}
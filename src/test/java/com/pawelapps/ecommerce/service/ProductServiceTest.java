@@ -29,6 +29,9 @@ public class ProductServiceTest {
     @MockBean
     private ProductRepository productRepository;
 
+    @MockBean
+    private OutboxService outboxService;
+
     @Autowired
     private ProductService productService;
 
@@ -70,6 +73,20 @@ public class ProductServiceTest {
         verify(productRepository).findById(1L);
     }
 
+    @Test
+    void getProductByIdShouldNotHandOutLoadedEntityTest() {
+        when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
+
+        Product first = productService.getProductById(1L);
+        Product second = productService.getProductById(1L);
+
+        assertNotSame(product, first, "callers should get entities of their own");
+        assertNotSame(first, second, "callers should get entities of their own");
+        assertNotSame(productCategory, first.getProductCategory(), "callers should get entities of their own");
+        assertEquals(product.getSku(), first.getSku(), "product fields should be copied");
+        assertEquals(productCategory.getCategoryName(), first.getProductCategory().getCategoryName(), "category should be copied");
+    }
+
     @Test
     void getAllProductsTest() {
         products = new ArrayList<>();
@@ -89,6 +106,28 @@ public class ProductServiceTest {
         verify(productRepository).save(any(Product.class));
     }
 
+    @Test
+    void updateProductShouldRecordStockChangeTest() {
+        Product restockedProduct = Product.builder().id(1L).unitsInStock(25).build();
+        when(productRepository.findUnitsInStockById(1L)).thenReturn(Optional.of(10));
+        when(productRepository.save(restockedProduct)).thenReturn(restockedProduct);
+
+        productService.updateProduct(restockedProduct);
+
+        verify(outboxService).recordStockChanged(restockedProduct, 15);
+    }
+
+    @Test
+    void updateProductShouldNotRecordUnchangedStockTest() {
+        Product renamedProduct = Product.builder().id(1L).name("Renamed").unitsInStock(10).build();
+        when(productRepository.findUnitsInStockById(1L)).thenReturn(Optional.of(10));
+        when(productRepository.save(renamedProduct)).thenReturn(renamedProduct);
+
+        productService.updateProduct(renamedProduct);
+
+        verify(outboxService, never()).recordStockChanged(any(Product.class), anyInt());
+    }
+
     @Test
     void deleteProductByIdTest() {
 
@@ -0,0 +1,60 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.entity.ProductCategory;
+import com.pawelapps.ecommerce.search.ProductSuggestionIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.context.ApplicationContext;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class StartupWarmUpTest {
+
+    private ProductService productService;
+    private ProductCategoryService productCategoryService;
+    private ProductSuggestionIndex productSuggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        productCategoryService = mock(ProductCategoryService.class);
+        productSuggestionIndex = mock(ProductSuggestionIndex.class);
+    }
+
+    @Test
+    void shouldPreloadCatalogInParallel() {
+        when(productCategoryService.getAllProductCategories()).thenReturn(List.of(
+                ProductCategory.builder().id(1L).build(), ProductCategory.builder().id(2L).build()));
+
+        warmUp(true).run(new DefaultApplicationArguments());
+
+        verify(productService).getAllProducts();
+        verify(productService).getProductsByCategoryId(1L);
+        verify(productService).getProductsByCategoryId(2L);
+        verify(productSuggestionIndex).rebuild();
+    }
+
+    @Test
+    void shouldNotFailStartupWhenPreloadFails() {
+        when(productCategoryService.getAllProductCategories()).thenThrow(new IllegalStateException("database unavailable"));
+
+        warmUp(true).run(new DefaultApplicationArguments());
+
+        verify(productService, never()).getProductsByCategoryId(anyLong());
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+        warmUp(false).run(new DefaultApplicationArguments());
+
+        verifyNoInteractions(productService, productCategoryService, productSuggestionIndex);
+    }
+
+    private StartupWarmUp warmUp(boolean enabled) {
+        return new StartupWarmUp(productService, productCategoryService, productSuggestionIndex,
+                mock(ApplicationContext.class), enabled, 2, 1, 1000);
+    }
+}
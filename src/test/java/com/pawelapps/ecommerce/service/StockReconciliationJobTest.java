@@ -0,0 +1,105 @@
+package com.pawelapps.ecommerce.service;
+
+import com.pawelapps.ecommerce.dto.StockDiscrepancyDto;
+import com.pawelapps.ecommerce.entity.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "ecommerce.outbox.relay-interval-ms=3600000")
+@Transactional
+class StockReconciliationJobTest {
+
+    @Autowired
+    private StockReconciliationJob stockReconciliationJob;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        ProductCategory productCategory = ProductCategory.builder().categoryName("Reconciled mugs").build();
+        entityManager.persist(productCategory);
+        product = Product.builder().sku("STOCK-1").name("Stock mug").unitPrice(BigDecimal.ONE).unitsInStock(10).build();
+        productCategory.addProduct(product);
+        entityManager.persist(product);
+        entityManager.flush();
+    }
+
+    private void order(int quantity, boolean decreaseStock) {
+        Order order = Order.builder().build();
+        order.addOrderProduct(OrderProduct.builder().product(product).unitPrice(BigDecimal.ONE).quantity(quantity).build());
+        entityManager.persist(order);
+        if (decreaseStock) {
+            product.setUnitsInStock(product.getUnitsInStock() - quantity);
+        }
+        entityManager.flush();
+    }
+
+    private StockReconciliationJob.PartitionResult reconcile(boolean repair) {
+        StockReconciliationJob.PartitionResult partitionResult =
+                stockReconciliationJob.reconcilePartition(product.getId(), product.getId(), repair);
+        entityManager.refresh(product);
+        return partitionResult;
+    }
+
+    @Test
+    void shouldAcceptOrdersThatDecreasedStock() {
+        reconcile(false);
+        order(3, true);
+
+        StockReconciliationJob.PartitionResult partitionResult = reconcile(false);
+
+        assertEquals(1, partitionResult.productsChecked());
+        assertTrue(partitionResult.discrepancies().isEmpty());
+    }
+
+    @Test
+    void shouldReportLostStockUpdate() {
+        reconcile(false);
+        order(3, true);
+        order(2, false);
+
+        StockReconciliationJob.PartitionResult partitionResult = reconcile(false);
+
+        assertEquals(List.of(new StockDiscrepancyDto(product.getId(), 7, 5, false)), partitionResult.discrepancies());
+        assertEquals(7, product.getUnitsInStock());
+    }
+
+    @Test
+    void shouldRepairLostStockUpdate() {
+        reconcile(false);
+        order(2, false);
+
+        StockReconciliationJob.PartitionResult partitionResult = reconcile(true);
+
+        assertEquals(List.of(new StockDiscrepancyDto(product.getId(), 10, 8, true)), partitionResult.discrepancies());
+        assertEquals(8, product.getUnitsInStock());
+        assertTrue(reconcile(false).discrepancies().isEmpty());
+    }
+
+    @Test
+    void shouldRebaselineStockSetByAdministrator() {
+        reconcile(false);
+        order(2, false);
+        product.setUnitsInStock(50);
+        product.setLastUpdated(LocalDateTime.now());
+        entityManager.flush();
+
+        assertTrue(reconcile(true).discrepancies().isEmpty());
+        assertEquals(50, product.getUnitsInStock());
+        assertTrue(reconcile(false).discrepancies().isEmpty());
+    }
+}